@@ -0,0 +1,46 @@
+package com.example.ecommerce.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) next to JSON,
+ * chosen by {@code Accept} for responses and {@code Content-Type} for request bodies. JSON stays
+ * the default: these converters take the place of Spring's own CBOR and Smile converters, which
+ * come after the JSON one.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+  }
+
+  /**
+   * The application's Jackson settings on a binary {@code factory}, except that dates are written
+   * as epoch seconds with nanoseconds instead of ISO text (read back in UTC).
+   */
+  public static ObjectMapper binaryMapper(
+      Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+    return builder
+        .factory(factory)
+        .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+  }
+}
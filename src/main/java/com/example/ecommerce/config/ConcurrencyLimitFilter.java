@@ -0,0 +1,104 @@
+package com.example.ecommerce.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Caps how many requests work against the database at the same time. With virtual threads nothing
+ * else bounds request concurrency, and requests beyond the connection pool size would only queue
+ * inside Hikari until its connection timeout. Here they wait in a fair queue for at most {@code
+ * acquireTimeout} and are then answered with 503 and {@code Retry-After}.
+ *
+ * <p>A permit is held until the response is complete, including asynchronous responses such as the
+ * streaming export.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  private final Semaphore permits;
+  private final long acquireTimeoutNanos;
+
+  public ConcurrencyLimitFilter(int maxInFlight, Duration acquireTimeout) {
+    this.permits = new Semaphore(maxInFlight, true);
+    this.acquireTimeoutNanos = acquireTimeout.toNanos();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+      return;
+    }
+
+    Runnable release = releaseOnce();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new ReleasingListener(release));
+      } else {
+        release.run();
+      }
+    }
+  }
+
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  private Runnable releaseOnce() {
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    };
+  }
+
+  private record ReleasingListener(Runnable release) implements AsyncListener {
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release.run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release.run();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release.run();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+}
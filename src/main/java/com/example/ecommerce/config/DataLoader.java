@@ -2,6 +2,9 @@ package com.example.ecommerce.config;
 
 import com.example.ecommerce.customer.model.Customer;
 import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.customer.summary.CustomerSummaryRebuildJob;
+import com.example.ecommerce.dataset.DatasetGenerator;
+import com.example.ecommerce.dataset.DatasetSpec;
 import com.example.ecommerce.order.model.Order;
 import com.example.ecommerce.order.model.Status;
 import com.example.ecommerce.order.repository.OrderRepository;
@@ -9,6 +12,7 @@ import com.example.ecommerce.product.model.Product;
 import com.example.ecommerce.product.repository.ProductRepository;
 import java.math.BigDecimal;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -18,18 +22,39 @@ public class DataLoader implements CommandLineRunner {
   private final CustomerRepository customerRepository;
   private final ProductRepository productRepository;
   private final OrderRepository orderRepository;
+  private final DatasetGenerator datasetGenerator;
+  private final CustomerSummaryRebuildJob customerSummaryRebuildJob;
+  private final DatasetSpec dataset;
 
   public DataLoader(
       CustomerRepository customerRepository,
       ProductRepository productRepository,
-      OrderRepository orderRepository) {
+      OrderRepository orderRepository,
+      DatasetGenerator datasetGenerator,
+      CustomerSummaryRebuildJob customerSummaryRebuildJob,
+      @Value("${app.dataset.customers:0}") int customers,
+      @Value("${app.dataset.products:0}") int products,
+      @Value("${app.dataset.orders:0}") int orders) {
     this.customerRepository = customerRepository;
     this.productRepository = productRepository;
     this.orderRepository = orderRepository;
+    this.datasetGenerator = datasetGenerator;
+    this.customerSummaryRebuildJob = customerSummaryRebuildJob;
+    this.dataset = new DatasetSpec(customers, products, orders);
   }
 
   @Override
   public void run(String... args) {
+    // The in-memory database outlives a single application context (e.g. cached test contexts)
+    if (customerRepository.count() > 0) {
+      return;
+    }
+
+    if (!dataset.isEmpty()) {
+      datasetGenerator.generate(dataset);
+      return;
+    }
+
     // ---- Customers ----
     Customer alice = new Customer();
     alice.setName("Alice");
@@ -75,5 +100,8 @@ public class DataLoader implements CommandLineRunner {
     order3.setProducts(List.of(laptop, phone, headphones));
     order3.setStatus(Status.SHIPPED);
     orderRepository.save(order3);
+
+    // The seed orders were saved directly, not through OrderService
+    customerSummaryRebuildJob.rebuild();
   }
 }
@@ -0,0 +1,40 @@
+package com.example.ecommerce.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * Adds a {@code handler} tag ({@code OrderController.getOrder}) to {@code http.server.requests},
+   * so every controller method gets its own timer. Handler methods are a fixed set; requests that
+   * reach no controller are tagged {@code none}.
+   */
+  @Bean
+  public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+    return new DefaultServerRequestObservationConvention() {
+      @Override
+      public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+      }
+    };
+  }
+
+  private static KeyValue handler(ServerRequestObservationContext context) {
+    Object handler =
+        context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+    if (handler instanceof HandlerMethod method) {
+      return KeyValue.of(
+          "handler", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+    }
+    return KeyValue.of("handler", "none");
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Runs the {@code @Scheduled} jobs; each one is switched off with a cron of {@code -}. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
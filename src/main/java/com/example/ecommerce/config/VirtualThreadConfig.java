@@ -0,0 +1,33 @@
+package com.example.ecommerce.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings that only apply when {@code spring.threads.virtual.enabled=true}, which also moves
+ * Tomcat request handling and Spring's task executors (async and streaming responses) onto virtual
+ * threads.
+ *
+ * <p>On JDK 21 a virtual thread that blocks while holding a monitor pins its carrier thread. Code
+ * that can run on a virtual thread and does I/O under mutual exclusion therefore guards it with a
+ * {@link java.util.concurrent.locks.ReentrantLock}, not {@code synchronized}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+  @Bean
+  FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+      @Value("${app.concurrency.max-in-flight}") int maxInFlight,
+      @Value("${app.concurrency.acquire-timeout}") Duration acquireTimeout) {
+    FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+        new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxInFlight, acquireTimeout));
+    registration.addUrlPatterns("/orders/*", "/customers/*");
+    return registration;
+  }
+}
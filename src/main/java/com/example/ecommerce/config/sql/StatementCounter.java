@@ -0,0 +1,67 @@
+package com.example.ecommerce.config.sql;
+
+import com.example.ecommerce.config.sql.StatementCounts.StatementType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the statements the current thread sends to the database while a {@link Scope} is open.
+ * Scopes nest: a test can open one around a request whose filter opens another, and both see every
+ * statement. Statements run on other threads (async responses, scheduled jobs) are not counted.
+ */
+public final class StatementCounter {
+
+  private static final ThreadLocal<List<StatementCounts>> OPEN = new ThreadLocal<>();
+
+  private StatementCounter() {}
+
+  public static Scope open() {
+    List<StatementCounts> open = OPEN.get();
+    if (open == null) {
+      open = new ArrayList<>(2);
+      OPEN.set(open);
+    }
+    StatementCounts counts = new StatementCounts();
+    open.add(counts);
+    return new Scope(counts);
+  }
+
+  /** Whether the current thread has a scope open, i.e. whether its statements are recorded. */
+  static boolean isCounting() {
+    return OPEN.get() != null;
+  }
+
+  static void record(StatementType type) {
+    List<StatementCounts> open = OPEN.get();
+    if (open != null) {
+      for (int i = 0; i < open.size(); i++) {
+        open.get(i).add(type);
+      }
+    }
+  }
+
+  /** Counts statements until closed; must be closed on the thread that opened it. */
+  public static final class Scope implements AutoCloseable {
+
+    private final StatementCounts counts;
+
+    private Scope(StatementCounts counts) {
+      this.counts = counts;
+    }
+
+    public StatementCounts counts() {
+      return counts;
+    }
+
+    @Override
+    public void close() {
+      List<StatementCounts> open = OPEN.get();
+      if (open != null) {
+        open.remove(counts);
+        if (open.isEmpty()) {
+          OPEN.remove();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.ecommerce.config.sql;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * With {@code app.sql.diagnostics=true}, routes the application's {@link DataSource} through a
+ * proxy that feeds {@link StatementCounter}, so every JDBC statement (JPA, Spring Data or {@code
+ * JdbcTemplate}) can be counted per request or per test. The proxy adds work to every statement, so
+ * it is not installed otherwise; tests that enforce a budget against the database switch it on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.diagnostics", havingValue = "true")
+public class StatementCountingConfig {
+
+  @Bean
+  static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+          return ProxyDataSourceBuilder.create(dataSource)
+              .name(beanName)
+              .listener(new StatementCountingListener())
+              .build();
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  FilterRegistrationBean<StatementCountingFilter> statementCountingFilter(
+      @Value("${app.sql.warn-threshold:20}") long warnThreshold) {
+    FilterRegistrationBean<StatementCountingFilter> registration =
+        new FilterRegistrationBean<>(new StatementCountingFilter(warnThreshold));
+    // Outermost, so the counts include everything other filters do
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.ecommerce.config.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Diagnostic mode: counts the statements each request runs and reports them in the {@value #HEADER}
+ * response header and a log line, at WARN once a request exceeds {@code warnThreshold}.
+ *
+ * <p>The header is added just before the response is committed, so it covers everything that ran
+ * before the body started; the log line also covers statements issued while writing the body.
+ */
+@Slf4j
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-SQL-Statements";
+
+  private final long warnThreshold;
+
+  public StatementCountingFilter(long warnThreshold) {
+    this.warnThreshold = warnThreshold;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    try (StatementCounter.Scope scope = StatementCounter.open()) {
+      CountingResponse countingResponse = new CountingResponse(response, scope.counts());
+      try {
+        filterChain.doFilter(request, countingResponse);
+      } finally {
+        countingResponse.addHeader();
+        log(request, response, scope.counts());
+      }
+    }
+  }
+
+  private void log(
+      HttpServletRequest request, HttpServletResponse response, StatementCounts counts) {
+    String uri = request.getRequestURI();
+    if (counts.total() > warnThreshold) {
+      log.warn(
+          "{} {} -> {} ran {} SQL statements ({})",
+          request.getMethod(),
+          uri,
+          response.getStatus(),
+          counts.total(),
+          counts);
+    } else {
+      log.info(
+          "{} {} -> {} SQL statements: {}", request.getMethod(), uri, response.getStatus(), counts);
+    }
+  }
+
+  /** Sets the header the first time the body is about to be written, or at the end. */
+  private static final class CountingResponse extends HttpServletResponseWrapper {
+
+    private final StatementCounts counts;
+    private boolean headerAdded;
+
+    CountingResponse(HttpServletResponse response, StatementCounts counts) {
+      super(response);
+      this.counts = counts;
+    }
+
+    void addHeader() {
+      if (!headerAdded && !isCommitted()) {
+        setHeader(HEADER, counts.toString());
+      }
+      headerAdded = true;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      addHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      addHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      addHeader();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      addHeader();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      addHeader();
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+      addHeader();
+      super.sendRedirect(location);
+    }
+  }
+}
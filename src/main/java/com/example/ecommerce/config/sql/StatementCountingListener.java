@@ -0,0 +1,40 @@
+package com.example.ecommerce.config.sql;
+
+import com.example.ecommerce.config.sql.StatementCounts.StatementType;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/** Feeds every executed JDBC statement into {@link StatementCounter}. */
+class StatementCountingListener implements QueryExecutionListener {
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    // Statements of jobs and other threads without a scope are not classified at all
+    if (!StatementCounter.isCounting()) {
+      return;
+    }
+    if (execInfo.isBatch()) {
+      StatementCounter.record(StatementType.BATCH);
+      return;
+    }
+    for (QueryInfo queryInfo : queryInfoList) {
+      StatementCounter.record(type(queryInfo.getQuery()));
+    }
+  }
+
+  private static StatementType type(String query) {
+    return switch (QueryUtils.getQueryType(query)) {
+      case SELECT -> StatementType.SELECT;
+      case INSERT -> StatementType.INSERT;
+      case UPDATE -> StatementType.UPDATE;
+      case DELETE -> StatementType.DELETE;
+      default -> StatementType.OTHER;
+    };
+  }
+}
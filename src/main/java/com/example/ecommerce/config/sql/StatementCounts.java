@@ -0,0 +1,66 @@
+package com.example.ecommerce.config.sql;
+
+/**
+ * JDBC round trips counted by {@link StatementCounter}, by statement type. A batch execution counts
+ * once, however many rows it carries.
+ */
+public final class StatementCounts {
+
+  private long selects;
+  private long inserts;
+  private long updates;
+  private long deletes;
+  private long others;
+  private long batches;
+
+  void add(StatementType type) {
+    switch (type) {
+      case SELECT -> selects++;
+      case INSERT -> inserts++;
+      case UPDATE -> updates++;
+      case DELETE -> deletes++;
+      case OTHER -> others++;
+      case BATCH -> batches++;
+    }
+  }
+
+  public long total() {
+    return selects + inserts + updates + deletes + others + batches;
+  }
+
+  public long selects() {
+    return selects;
+  }
+
+  public long inserts() {
+    return inserts;
+  }
+
+  public long updates() {
+    return updates;
+  }
+
+  public long deletes() {
+    return deletes;
+  }
+
+  public long batches() {
+    return batches;
+  }
+
+  /** The header and log format, e.g. {@code total=3, select=2, insert=0, ... batch=1}. */
+  @Override
+  public String toString() {
+    return "total=%d, select=%d, insert=%d, update=%d, delete=%d, other=%d, batch=%d"
+        .formatted(total(), selects, inserts, updates, deletes, others, batches);
+  }
+
+  enum StatementType {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER,
+    BATCH
+  }
+}
@@ -1,11 +1,23 @@
 package com.example.ecommerce.customer.controller;
 
+import com.example.ecommerce.customer.dto.CustomerSummaryDTO;
 import com.example.ecommerce.customer.service.CustomerService;
 import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.etag.OrderETags;
+import com.example.ecommerce.order.metrics.OrderMetrics;
+import com.example.ecommerce.order.metrics.OrderMetrics.ConditionalOutcome;
+import com.example.ecommerce.order.metrics.OrderMetrics.Resource;
+import com.example.ecommerce.order.projection.OrderListVersion;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -13,13 +25,49 @@ import org.springframework.web.bind.annotation.RestController;
 public class CustomerController {
 
   private final CustomerService customerService;
+  private final OrderMetrics orderMetrics;
 
-  public CustomerController(CustomerService customerService) {
+  public CustomerController(CustomerService customerService, OrderMetrics orderMetrics) {
     this.customerService = customerService;
+    this.orderMetrics = orderMetrics;
   }
 
+  @GetMapping("/{id}/summary")
+  public CustomerSummaryDTO getSummary(@PathVariable Long id) {
+    return customerService.getSummary(id);
+  }
+
+  /**
+   * Returns all of the customer's orders with a weak {@code ETag} of the list's {@link
+   * OrderListVersion}. A matching {@code If-None-Match} is answered with {@code 304 Not Modified}
+   * after one aggregate query, without reading rows or products.
+   */
   @GetMapping("/{id}/orders")
-  public List<OrderDTO> getOrdersByCustomerId(@PathVariable Long id) {
-    return customerService.getOrdersByCustomerId(id);
+  public ResponseEntity<List<OrderDTO>> getOrdersByCustomerId(
+      @PathVariable Long id,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    if (ifNoneMatch != null) {
+      String etag = OrderETags.of(customerService.getOrdersVersion(id));
+      if (OrderETags.matches(ifNoneMatch, etag)) {
+        orderMetrics.conditionalGet(Resource.CUSTOMER_ORDERS, ConditionalOutcome.NOT_MODIFIED);
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+    }
+    List<OrderDTO> orders = customerService.getOrdersByCustomerId(id);
+    orderMetrics.conditionalGet(
+        Resource.CUSTOMER_ORDERS,
+        ifNoneMatch != null ? ConditionalOutcome.MODIFIED : ConditionalOutcome.UNCONDITIONAL);
+    // Computed from the rows just read, so the tag always describes this body
+    OrderListVersion version =
+        OrderListVersion.of(orders.stream().map(OrderDTO::getVersion).toList());
+    return ResponseEntity.ok().eTag(OrderETags.of(version)).body(orders);
+  }
+
+  @GetMapping("/{id}/orders/page")
+  public OrderPageDTO getOrderPageByCustomerId(
+      @PathVariable Long id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + CustomerService.DEFAULT_PAGE_SIZE) int size) {
+    return customerService.getOrderPageByCustomerId(id, cursor, size);
   }
 }
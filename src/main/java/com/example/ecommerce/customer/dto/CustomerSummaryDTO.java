@@ -0,0 +1,52 @@
+package com.example.ecommerce.customer.dto;
+
+import com.example.ecommerce.customer.model.CustomerSummary;
+import com.example.ecommerce.order.model.Status;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerSummaryDTO {
+  private Long customerId;
+
+  private long totalOrders;
+
+  private Map<Status, Long> ordersByStatus;
+
+  private BigDecimal lifetimeSpend;
+
+  /** Creation time of the newest order, or {@code null} before the first one. */
+  private OffsetDateTime lastOrderAt;
+
+  public static CustomerSummaryDTO of(CustomerSummary summary) {
+    Map<Status, Long> ordersByStatus = new EnumMap<>(Status.class);
+    ordersByStatus.put(Status.CREATED, summary.getCreatedOrders());
+    ordersByStatus.put(Status.PAID, summary.getPaidOrders());
+    ordersByStatus.put(Status.SHIPPED, summary.getShippedOrders());
+    ordersByStatus.put(Status.DELIVERED, summary.getDeliveredOrders());
+    long totalOrders = ordersByStatus.values().stream().mapToLong(Long::longValue).sum();
+    return new CustomerSummaryDTO(
+        summary.getCustomerId(),
+        totalOrders,
+        ordersByStatus,
+        summary.getLifetimeSpend(),
+        summary.getLastOrderAt());
+  }
+
+  public static CustomerSummaryDTO empty(Long customerId) {
+    Map<Status, Long> ordersByStatus = new EnumMap<>(Status.class);
+    for (Status status : Status.values()) {
+      ordersByStatus.put(status, 0L);
+    }
+    return new CustomerSummaryDTO(customerId, 0, ordersByStatus, BigDecimal.ZERO, null);
+  }
+}
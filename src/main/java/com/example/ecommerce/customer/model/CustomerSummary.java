@@ -0,0 +1,46 @@
+package com.example.ecommerce.customer.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read model of a customer's orders: counts per status, lifetime spend and the time of the last
+ * order. Rows are only written with the set-based statements of {@code CustomerSummaryRepository};
+ * a customer without orders has no row.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "customer_summary")
+public class CustomerSummary {
+
+  @Id private Long customerId;
+
+  @Column(nullable = false)
+  private long createdOrders;
+
+  @Column(nullable = false)
+  private long paidOrders;
+
+  @Column(nullable = false)
+  private long shippedOrders;
+
+  @Column(nullable = false)
+  private long deliveredOrders;
+
+  @Column(nullable = false)
+  private BigDecimal lifetimeSpend;
+
+  @Column(nullable = false)
+  private OffsetDateTime lastOrderAt;
+}
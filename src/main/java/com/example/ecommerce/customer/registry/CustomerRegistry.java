@@ -0,0 +1,148 @@
+package com.example.ecommerce.customer.registry;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Set of customer IDs known to exist, kept as a bitmap indexed by ID, used to attach customers to
+ * new orders as references instead of loading them. IDs missing from the set (or above {@link
+ * #MAX_TRACKED_ID}) are checked against the database, so the set only ever saves queries; it never
+ * decides that a customer is missing.
+ *
+ * <p>{@link CustomerRegistryListener} adds IDs after the inserting transaction commits and drops
+ * them as soon as a customer is deleted. Deletes made by another application instance are not seen;
+ * the foreign key on {@code orders.customer_id} still rejects such an order.
+ */
+@Component
+public class CustomerRegistry implements SmartInitializingSingleton {
+
+  /** IDs up to this value are tracked, which caps the bitmap at 16 MiB. */
+  public static final long MAX_TRACKED_ID = 1L << 27;
+
+  private final CustomerRepository customerRepository;
+  private final StampedLock lock = new StampedLock();
+
+  private long[] words = new long[1024];
+
+  public CustomerRegistry(CustomerRepository customerRepository) {
+    this.customerRepository = customerRepository;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    reload();
+  }
+
+  /** Adds every stored customer ID, e.g. after rows were inserted with plain SQL. */
+  public void reload() {
+    customerRepository.findAllIds().forEach(this::add);
+  }
+
+  /**
+   * Returns an uninitialized reference to the customer if it exists. Only IDs missing from the set
+   * cost a query.
+   */
+  public Optional<Customer> findReference(Long customerId) {
+    if (customerId == null) {
+      return Optional.empty();
+    }
+    if (!contains(customerId)) {
+      if (!customerRepository.existsById(customerId)) {
+        return Optional.empty();
+      }
+      add(customerId);
+    }
+    return Optional.of(customerRepository.getReferenceById(customerId));
+  }
+
+  /**
+   * Batch variant of {@link #findReference}: IDs missing from the set are checked with one query
+   * and customers that do not exist are absent from the result.
+   */
+  public Map<Long, Customer> findReferences(Collection<Long> customerIds) {
+    Map<Long, Customer> references = new HashMap<>();
+    List<Long> unknown = new ArrayList<>();
+    for (Long customerId : customerIds) {
+      if (customerId == null) {
+        continue;
+      }
+      if (contains(customerId)) {
+        references.put(customerId, customerRepository.getReferenceById(customerId));
+      } else {
+        unknown.add(customerId);
+      }
+    }
+    if (!unknown.isEmpty()) {
+      for (Long customerId : customerRepository.findExistingIds(unknown)) {
+        add(customerId);
+        references.put(customerId, customerRepository.getReferenceById(customerId));
+      }
+    }
+    return references;
+  }
+
+  public boolean contains(long customerId) {
+    if (customerId < 0 || customerId > MAX_TRACKED_ID) {
+      return false;
+    }
+    long stamp = lock.tryOptimisticRead();
+    boolean present = isSet(words, customerId);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        present = isSet(words, customerId);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return present;
+  }
+
+  void add(long customerId) {
+    if (customerId < 0 || customerId > MAX_TRACKED_ID) {
+      return;
+    }
+    int word = (int) (customerId >>> 6);
+    long stamp = lock.writeLock();
+    try {
+      if (word >= words.length) {
+        words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+      }
+      words[word] |= 1L << customerId;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  void remove(long customerId) {
+    if (customerId < 0 || customerId > MAX_TRACKED_ID) {
+      return;
+    }
+    int word = (int) (customerId >>> 6);
+    long stamp = lock.writeLock();
+    try {
+      if (word < words.length) {
+        words[word] &= ~(1L << customerId);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // Reads a local copy of the array, so an optimistic read racing with a resize cannot fail; the
+  // stamp validation decides whether the answer is used.
+  private static boolean isSet(long[] words, long customerId) {
+    int word = (int) (customerId >>> 6);
+    return word < words.length && (words[word] & (1L << customerId)) != 0;
+  }
+}
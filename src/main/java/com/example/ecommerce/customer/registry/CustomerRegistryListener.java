@@ -0,0 +1,47 @@
+package com.example.ecommerce.customer.registry;
+
+import com.example.ecommerce.customer.model.Customer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the {@link CustomerRegistry} in step with the {@code customer} table. A new ID is only
+ * added once its transaction commits, so a rolled-back insert never becomes a known customer; a
+ * deleted ID is dropped right away, since a missing ID just falls back to the database.
+ */
+@Component
+public class CustomerRegistryListener {
+
+  // Hibernate creates entity listeners while the EntityManagerFactory is being built, before the
+  // registry (which needs a repository) can exist.
+  private final ObjectProvider<CustomerRegistry> customerRegistry;
+
+  public CustomerRegistryListener(ObjectProvider<CustomerRegistry> customerRegistry) {
+    this.customerRegistry = customerRegistry;
+  }
+
+  @PostPersist
+  void customerCreated(Customer customer) {
+    long customerId = customer.getId();
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      customerRegistry.getObject().add(customerId);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            customerRegistry.getObject().add(customerId);
+          }
+        });
+  }
+
+  @PostRemove
+  void customerDeleted(Customer customer) {
+    customerRegistry.getObject().remove(customer.getId());
+  }
+}
@@ -1,8 +1,19 @@
 package com.example.ecommerce.customer.repository;
 
 import com.example.ecommerce.customer.model.Customer;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+  @Query("SELECT c.id FROM Customer c")
+  List<Long> findAllIds();
+
+  @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
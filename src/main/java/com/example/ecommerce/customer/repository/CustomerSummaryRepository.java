@@ -0,0 +1,124 @@
+package com.example.ecommerce.customer.repository;
+
+import com.example.ecommerce.customer.model.CustomerSummary;
+import jakarta.transaction.Transactional;
+import java.util.Collection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerSummaryRepository extends JpaRepository<CustomerSummary, Long> {
+
+  // The summary of every customer matched by the WHERE clause appended to it, computed from the
+  // orders. Spend joins the products at their current price, like the incremental updates do.
+  String RECOMPUTED =
+      "SELECT o.customer_id AS customer_id,"
+          + " COUNT(DISTINCT CASE WHEN o.status = 'CREATED' THEN o.id END) AS created_orders,"
+          + " COUNT(DISTINCT CASE WHEN o.status = 'PAID' THEN o.id END) AS paid_orders,"
+          + " COUNT(DISTINCT CASE WHEN o.status = 'SHIPPED' THEN o.id END) AS shipped_orders,"
+          + " COUNT(DISTINCT CASE WHEN o.status = 'DELIVERED' THEN o.id END) AS delivered_orders,"
+          + " COALESCE(SUM(p.price), 0) AS lifetime_spend,"
+          + " MAX(o.created_at) AS last_order_at"
+          + " FROM orders o"
+          + " LEFT JOIN orders_product op ON op.order_id = o.id"
+          + " LEFT JOIN product p ON p.id = op.product_id";
+
+  String REPLACE_DRIFTED =
+      " r ON s.customer_id = r.customer_id"
+          + " WHEN MATCHED AND (s.created_orders <> r.created_orders"
+          + " OR s.paid_orders <> r.paid_orders"
+          + " OR s.shipped_orders <> r.shipped_orders"
+          + " OR s.delivered_orders <> r.delivered_orders"
+          + " OR s.lifetime_spend <> r.lifetime_spend"
+          + " OR s.last_order_at <> r.last_order_at)"
+          + " THEN UPDATE SET created_orders = r.created_orders, paid_orders = r.paid_orders,"
+          + " shipped_orders = r.shipped_orders, delivered_orders = r.delivered_orders,"
+          + " lifetime_spend = r.lifetime_spend, last_order_at = r.last_order_at"
+          + " WHEN NOT MATCHED THEN INSERT (customer_id, created_orders, paid_orders,"
+          + " shipped_orders, delivered_orders, lifetime_spend, last_order_at)"
+          + " VALUES (r.customer_id, r.created_orders, r.paid_orders, r.shipped_orders,"
+          + " r.delivered_orders, r.lifetime_spend, r.last_order_at)";
+
+  String MOVED =
+      "MERGE INTO customer_summary s USING (SELECT o.customer_id AS customer_id, COUNT(*) AS moved"
+          + " FROM orders o WHERE o.id IN (:orderIds) GROUP BY o.customer_id) m"
+          + " ON s.customer_id = m.customer_id WHEN MATCHED THEN UPDATE SET ";
+
+  // Incremental updates: each statement folds a set of orders that were just created or just moved
+  // to a new status into the summaries of their customers, so it runs once per request whatever the
+  // number of orders or customers involved.
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "MERGE INTO customer_summary s USING (SELECT o.customer_id AS customer_id,"
+              + " COUNT(DISTINCT o.id) AS placed, COALESCE(SUM(p.price), 0) AS spend,"
+              + " MAX(o.created_at) AS last_order_at"
+              + " FROM orders o"
+              + " LEFT JOIN orders_product op ON op.order_id = o.id"
+              + " LEFT JOIN product p ON p.id = op.product_id"
+              + " WHERE o.id IN (:orderIds) GROUP BY o.customer_id) n"
+              + " ON s.customer_id = n.customer_id"
+              + " WHEN MATCHED THEN UPDATE SET created_orders = s.created_orders + n.placed,"
+              + " lifetime_spend = s.lifetime_spend + n.spend,"
+              + " last_order_at = GREATEST(s.last_order_at, n.last_order_at)"
+              + " WHEN NOT MATCHED THEN INSERT (customer_id, created_orders, paid_orders,"
+              + " shipped_orders, delivered_orders, lifetime_spend, last_order_at)"
+              + " VALUES (n.customer_id, n.placed, 0, 0, 0, n.spend, n.last_order_at)",
+      nativeQuery = true)
+  int addPlacedOrders(@Param("orderIds") Collection<Long> orderIds);
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          MOVED
+              + "created_orders = s.created_orders - m.moved, paid_orders = s.paid_orders + m.moved",
+      nativeQuery = true)
+  int movePaidOrders(@Param("orderIds") Collection<Long> orderIds);
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          MOVED
+              + "paid_orders = s.paid_orders - m.moved, shipped_orders = s.shipped_orders + m.moved",
+      nativeQuery = true)
+  int moveShippedOrders(@Param("orderIds") Collection<Long> orderIds);
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          MOVED
+              + "shipped_orders = s.shipped_orders - m.moved,"
+              + " delivered_orders = s.delivered_orders + m.moved",
+      nativeQuery = true)
+  int moveDeliveredOrders(@Param("orderIds") Collection<Long> orderIds);
+
+  // Recomputation from the orders; these return how many summaries were missing or wrong.
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "MERGE INTO customer_summary s USING ("
+              + RECOMPUTED
+              + " GROUP BY o.customer_id)"
+              + REPLACE_DRIFTED,
+      nativeQuery = true)
+  int recomputeAll();
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "DELETE FROM customer_summary s"
+              + " WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.customer_id = s.customer_id)",
+      nativeQuery = true)
+  int deleteWithoutOrders();
+}
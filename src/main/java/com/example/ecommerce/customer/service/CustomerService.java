@@ -1,25 +1,105 @@
 package com.example.ecommerce.customer.service;
 
+import com.example.ecommerce.customer.dto.CustomerSummaryDTO;
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.repository.CustomerSummaryRepository;
 import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.exception.CustomerNotFoundException;
 import com.example.ecommerce.order.mapper.OrderMapper;
-import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.pagination.OrderCursor;
+import com.example.ecommerce.order.projection.OrderListVersion;
+import com.example.ecommerce.order.projection.OrderProductLink;
+import com.example.ecommerce.order.projection.OrderRow;
 import com.example.ecommerce.order.repository.OrderRepository;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
 public class CustomerService {
 
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 200;
+
   private final OrderRepository orderRepository;
   private final OrderMapper orderMapper;
+  private final CustomerSummaryRepository customerSummaryRepository;
+  private final CustomerRegistry customerRegistry;
 
-  public CustomerService(OrderRepository orderRepository, OrderMapper orderMapper) {
+  public CustomerService(
+      OrderRepository orderRepository,
+      OrderMapper orderMapper,
+      CustomerSummaryRepository customerSummaryRepository,
+      CustomerRegistry customerRegistry) {
     this.orderRepository = orderRepository;
     this.orderMapper = orderMapper;
+    this.customerSummaryRepository = customerSummaryRepository;
+    this.customerRegistry = customerRegistry;
+  }
+
+  /**
+   * Returns the customer's order counts, spend and last order time from the summary read model: one
+   * primary key lookup, however many orders the customer has. Without a summary row the customer
+   * has no orders yet, or does not exist; {@link CustomerRegistry#findReference} tells them apart
+   * and only queries the customer table for IDs it does not track.
+   */
+  public CustomerSummaryDTO getSummary(Long customerId) {
+    return customerSummaryRepository
+        .findById(customerId)
+        .map(CustomerSummaryDTO::of)
+        .orElseGet(
+            () -> {
+              if (customerRegistry.findReference(customerId).isEmpty()) {
+                throw new CustomerNotFoundException(customerId);
+              }
+              return CustomerSummaryDTO.empty(customerId);
+            });
   }
 
   public List<OrderDTO> getOrdersByCustomerId(Long customerId) {
-    List<Order> orders = orderRepository.findByCustomerId(customerId);
-    return orderMapper.toDtoList(orders);
+    List<OrderRow> rows = orderRepository.findRowsByCustomerId(customerId);
+    return toDtoList(rows);
+  }
+
+  /** Count and version sum of the customer's orders, for ETags: one aggregate, no products. */
+  public OrderListVersion getOrdersVersion(Long customerId) {
+    return orderRepository.findListVersionByCustomerId(customerId);
+  }
+
+  /**
+   * Returns one page of the customer's orders, newest first, using keyset pagination on {@code
+   * (createdAt, id)}. A page costs two queries: the order rows and the product IDs of those rows.
+   */
+  public OrderPageDTO getOrderPageByCustomerId(Long customerId, String cursor, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Limit limit = Limit.of(pageSize + 1);
+
+    List<OrderRow> rows;
+    if (cursor == null || cursor.isEmpty()) {
+      rows = orderRepository.findRowsByCustomerId(customerId, limit);
+    } else {
+      OrderCursor position = OrderCursor.decode(cursor);
+      rows =
+          orderRepository.findRowsByCustomerIdBefore(
+              customerId, position.createdAt(), position.id(), limit);
+    }
+
+    String nextCursor = null;
+    if (rows.size() > pageSize) {
+      rows = rows.subList(0, pageSize);
+      nextCursor = OrderCursor.after(rows.get(pageSize - 1)).encode();
+    }
+
+    return new OrderPageDTO(toDtoList(rows), nextCursor);
+  }
+
+  private List<OrderDTO> toDtoList(List<OrderRow> rows) {
+    if (rows.isEmpty()) {
+      return List.of();
+    }
+    List<OrderProductLink> productLinks =
+        orderRepository.findProductIdsByOrderIdIn(rows.stream().map(OrderRow::id).toList());
+    return orderMapper.toDtoList(rows, productLinks);
   }
 }
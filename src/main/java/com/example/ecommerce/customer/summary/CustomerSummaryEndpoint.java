@@ -0,0 +1,25 @@
+package com.example.ecommerce.customer.summary;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the customer summaries on demand: {@code POST /actuator/customersummary}. Not exposed
+ * over HTTP unless added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "customersummary")
+public class CustomerSummaryEndpoint {
+
+  private final CustomerSummaryRebuildJob rebuildJob;
+
+  public CustomerSummaryEndpoint(CustomerSummaryRebuildJob rebuildJob) {
+    this.rebuildJob = rebuildJob;
+  }
+
+  @WriteOperation
+  public SummaryRebuildReport rebuild() {
+    return rebuildJob.rebuild();
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.ecommerce.customer.summary;
+
+import com.example.ecommerce.customer.repository.CustomerSummaryRepository;
+import com.example.ecommerce.order.model.Status;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@code customer_summary} up to date as orders are created and change status. Each call runs
+ * right after the order change committed, as one statement for all the orders involved.
+ *
+ * <p>The order change has already succeeded by then, so a failed update is logged rather than
+ * thrown: the summary stays off until {@link CustomerSummaryRebuildJob} corrects it.
+ */
+@Slf4j
+@Component
+public class CustomerSummaryUpdater {
+
+  private final CustomerSummaryRepository customerSummaryRepository;
+
+  public CustomerSummaryUpdater(CustomerSummaryRepository customerSummaryRepository) {
+    this.customerSummaryRepository = customerSummaryRepository;
+  }
+
+  public void ordersPlaced(Collection<Long> orderIds) {
+    if (orderIds.isEmpty()) {
+      return;
+    }
+    try {
+      customerSummaryRepository.addPlacedOrders(orderIds);
+    } catch (DataIntegrityViolationException e) {
+      // Another request inserted the first summary of one of these customers at the same time;
+      // the second attempt finds the row and adds to it.
+      update("placed", orderIds, () -> customerSummaryRepository.addPlacedOrders(orderIds));
+    } catch (DataAccessException e) {
+      failed("placed", orderIds, e);
+    }
+  }
+
+  public void ordersMoved(Status target, Long orderId) {
+    ordersMoved(target, List.of(orderId));
+  }
+
+  /** Moves the given orders, which all just left the status before {@code target}, to target. */
+  public void ordersMoved(Status target, Collection<Long> orderIds) {
+    if (orderIds.isEmpty()) {
+      return;
+    }
+    update(
+        "moved to " + target,
+        orderIds,
+        () ->
+            switch (target) {
+              case PAID -> customerSummaryRepository.movePaidOrders(orderIds);
+              case SHIPPED -> customerSummaryRepository.moveShippedOrders(orderIds);
+              case DELIVERED -> customerSummaryRepository.moveDeliveredOrders(orderIds);
+              case CREATED -> throw new IllegalArgumentException("Orders never move to CREATED");
+            });
+  }
+
+  private void update(String change, Collection<Long> orderIds, IntSupplier statement) {
+    try {
+      statement.getAsInt();
+    } catch (DataAccessException e) {
+      failed(change, orderIds, e);
+    }
+  }
+
+  private static void failed(String change, Collection<Long> orderIds, DataAccessException e) {
+    log.warn(
+        "Could not update the customer summaries of {} orders {}; the next rebuild will fix them",
+        orderIds.size(),
+        change,
+        e);
+  }
+}
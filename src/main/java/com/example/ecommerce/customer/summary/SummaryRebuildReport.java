@@ -0,0 +1,6 @@
+package com.example.ecommerce.customer.summary;
+
+import java.time.Duration;
+
+/** Outcome of a rebuild: {@code drifted} summaries were missing or differed from the orders. */
+public record SummaryRebuildReport(int drifted, Duration elapsed) {}
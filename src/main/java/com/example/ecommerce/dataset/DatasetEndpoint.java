@@ -0,0 +1,26 @@
+package com.example.ecommerce.dataset;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates more data on demand: {@code POST /actuator/dataset} with {@code {"customers": ...,
+ * "products": ..., "orders": ...}}. The orders go to the customers and products created by the same
+ * call. Not exposed over HTTP unless added to {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "dataset")
+public class DatasetEndpoint {
+
+  private final DatasetGenerator datasetGenerator;
+
+  public DatasetEndpoint(DatasetGenerator datasetGenerator) {
+    this.datasetGenerator = datasetGenerator;
+  }
+
+  @WriteOperation
+  public DatasetReport generate(int customers, int products, int orders) {
+    return datasetGenerator.generate(new DatasetSpec(customers, products, orders));
+  }
+}
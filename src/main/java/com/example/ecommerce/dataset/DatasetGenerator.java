@@ -0,0 +1,310 @@
+package com.example.ecommerce.dataset;
+
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.summary.CustomerSummaryRebuildJob;
+import com.example.ecommerce.order.metrics.OrderStatusCounters;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.product.catalog.ProductCatalog;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes large synthetic datasets with plain JDBC: rows are inserted in batches of {@code
+ * batch-size}, several batches in parallel, with IDs reserved up front from the entity sequences.
+ *
+ * <p>The data is skewed the way real shops are: a few customers place most of the orders, a few
+ * products are in most baskets, most orders have one or two products, and an order's status depends
+ * on its age (old orders are delivered, today's are still being paid and shipped). Each batch draws
+ * from its own seeded random, so the same spec and seed always produce the same data.
+ */
+@Slf4j
+@Component
+public class DatasetGenerator {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ProductCatalog productCatalog;
+  private final CustomerRegistry customerRegistry;
+  private final CustomerSummaryRebuildJob customerSummaryRebuildJob;
+  private final OrderStatusCounters orderStatusCounters;
+  private final int batchSize;
+  private final int threads;
+  private final int maxProductsPerOrder;
+  private final Duration history;
+  private final long seed;
+
+  public DatasetGenerator(
+      JdbcTemplate jdbcTemplate,
+      ProductCatalog productCatalog,
+      CustomerRegistry customerRegistry,
+      CustomerSummaryRebuildJob customerSummaryRebuildJob,
+      OrderStatusCounters orderStatusCounters,
+      @Value("${app.dataset.batch-size:1000}") int batchSize,
+      @Value("${app.dataset.threads:4}") int threads,
+      @Value("${app.dataset.max-products-per-order:5}") int maxProductsPerOrder,
+      @Value("${app.dataset.history:365d}") Duration history,
+      @Value("${app.dataset.seed:42}") long seed) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.productCatalog = productCatalog;
+    this.customerRegistry = customerRegistry;
+    this.customerSummaryRebuildJob = customerSummaryRebuildJob;
+    this.orderStatusCounters = orderStatusCounters;
+    this.batchSize = batchSize;
+    this.threads = threads;
+    this.maxProductsPerOrder = maxProductsPerOrder;
+    this.history = history;
+    this.seed = seed;
+  }
+
+  public DatasetReport generate(DatasetSpec spec) {
+    long start = System.nanoTime();
+    IdBlocks customerIds = IdBlocks.reserve(jdbcTemplate, "customer_seq", spec.customers());
+    IdBlocks productIds = IdBlocks.reserve(jdbcTemplate, "product_seq", spec.products());
+    IdBlocks orderIds = IdBlocks.reserve(jdbcTemplate, "orders_seq", spec.orders());
+    AtomicLong orderProducts = new AtomicLong();
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+    try {
+      // Orders reference customers and products, so those are complete before orders start.
+      run(
+          executor,
+          "customers",
+          spec.customers(),
+          (from, to) -> insertCustomers(customerIds, from, to));
+      run(
+          executor,
+          "products",
+          spec.products(),
+          (from, to) -> insertProducts(productIds, from, to));
+      OffsetDateTime now = OffsetDateTime.now();
+      run(
+          executor,
+          "orders",
+          spec.orders(),
+          (from, to) ->
+              orderProducts.addAndGet(
+                  insertOrders(spec, orderIds, customerIds, productIds, now, from, to)));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // The rows bypassed JPA and OrderService, so nothing kept these up to date.
+    productCatalog.refresh();
+    customerRegistry.reload();
+    customerSummaryRebuildJob.rebuild();
+    orderStatusCounters.reconcile();
+
+    DatasetReport report =
+        new DatasetReport(
+            spec.customers(),
+            spec.products(),
+            spec.orders(),
+            orderProducts.get(),
+            Duration.ofNanos(System.nanoTime() - start));
+    log.info(
+        "Generated {} customers, {} products, {} orders with {} order products: {} rows in {} ms"
+            + " ({} rows/s)",
+        report.customers(),
+        report.products(),
+        report.orders(),
+        report.orderProducts(),
+        report.rows(),
+        report.elapsed().toMillis(),
+        report.rowsPerSecond());
+    return report;
+  }
+
+  private void insertCustomers(IdBlocks ids, int from, int to) {
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO customer (id, name, email) VALUES (?, ?, ?)",
+        range(from, to),
+        batchSize,
+        (ps, i) -> {
+          long id = ids.id(i);
+          ps.setLong(1, id);
+          ps.setString(2, "Customer " + id);
+          ps.setString(3, "customer-" + id + "@example.com");
+        });
+  }
+
+  private void insertProducts(IdBlocks ids, int from, int to) {
+    SplittableRandom random = new SplittableRandom(seed ^ from);
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO product (id, name, price) VALUES (?, ?, ?)",
+        range(from, to),
+        batchSize,
+        (ps, i) -> {
+          long id = ids.id(i);
+          ps.setLong(1, id);
+          ps.setString(2, "Product " + id);
+          // Mostly cheap products, a long tail of expensive ones
+          ps.setBigDecimal(3, BigDecimal.valueOf(100 + (long) (200_000 * cube(random)), 2));
+        });
+  }
+
+  /** Inserts orders {@code from} (inclusive) to {@code to} and returns how many links it wrote. */
+  private long insertOrders(
+      DatasetSpec spec,
+      IdBlocks orderIds,
+      IdBlocks customerIds,
+      IdBlocks productIds,
+      OffsetDateTime now,
+      int from,
+      int to) {
+    SplittableRandom random = new SplittableRandom(seed ^ ((long) from << 32));
+    List<Object[]> orders = new ArrayList<>(to - from);
+    List<Object[]> links = new ArrayList<>((to - from) * 2);
+    for (int i = from; i < to; i++) {
+      long orderId = orderIds.id(i);
+      Duration age = Duration.ofSeconds((long) (history.toSeconds() * square(random)));
+      orders.add(
+          new Object[] {
+            orderId,
+            status(age, random).name(),
+            now.minus(age),
+            customerIds.id((int) (spec.customers() * cube(random)))
+          });
+      long[] products = new long[productsPerOrder(random)];
+      for (int p = 0; p < products.length; p++) {
+        products[p] = distinctProduct(products, p, spec.products(), productIds, random);
+        links.add(new Object[] {orderId, products[p]});
+      }
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO orders (id, status, created_at, customer_id) VALUES (?, ?, ?, ?)",
+        orders,
+        batchSize,
+        (ps, row) -> set(ps, row));
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO orders_product (order_id, product_id) VALUES (?, ?)",
+        links,
+        batchSize,
+        (ps, row) -> set(ps, row));
+    return links.size();
+  }
+
+  /** One product 55% of the time, then geometrically fewer orders for each extra product. */
+  private int productsPerOrder(SplittableRandom random) {
+    int count = 1;
+    while (count < maxProductsPerOrder && random.nextDouble() < 0.45) {
+      count++;
+    }
+    return count;
+  }
+
+  /** A popular product, skipping ones already in the order (up to a few tries). */
+  private static long distinctProduct(
+      long[] chosen, int count, int products, IdBlocks productIds, SplittableRandom random) {
+    long candidate = 0;
+    for (int attempt = 0; attempt < 8; attempt++) {
+      candidate = productIds.id((int) (products * square(random)));
+      if (!contains(chosen, count, candidate)) {
+        return candidate;
+      }
+    }
+    for (int index = 0; index < products; index++) {
+      candidate = productIds.id(index);
+      if (!contains(chosen, count, candidate)) {
+        return candidate;
+      }
+    }
+    return candidate;
+  }
+
+  private static boolean contains(long[] values, int count, long value) {
+    for (int i = 0; i < count; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Status status(Duration age, SplittableRandom random) {
+    double roll = random.nextDouble();
+    if (age.toDays() < 1) {
+      return roll < 0.5 ? Status.CREATED : roll < 0.8 ? Status.PAID : Status.SHIPPED;
+    }
+    if (age.toDays() < 7) {
+      return roll < 0.1
+          ? Status.CREATED
+          : roll < 0.4 ? Status.PAID : roll < 0.8 ? Status.SHIPPED : Status.DELIVERED;
+    }
+    // Old orders still CREATED or PAID were abandoned or got stuck
+    return roll < 0.02
+        ? Status.CREATED
+        : roll < 0.05 ? Status.PAID : roll < 0.1 ? Status.SHIPPED : Status.DELIVERED;
+  }
+
+  /** Uniform in [0, 1) squared: density falls off as a power law towards 1. */
+  private static double square(SplittableRandom random) {
+    double u = random.nextDouble();
+    return u * u;
+  }
+
+  /** Uniform in [0, 1) cubed: a steeper power law than {@link #square}. */
+  private static double cube(SplittableRandom random) {
+    double u = random.nextDouble();
+    return u * u * u;
+  }
+
+  private static void set(PreparedStatement ps, Object[] row) throws SQLException {
+    for (int i = 0; i < row.length; i++) {
+      ps.setObject(i + 1, row[i]);
+    }
+  }
+
+  private static List<Integer> range(int from, int to) {
+    List<Integer> indexes = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      indexes.add(i);
+    }
+    return indexes;
+  }
+
+  /** Splits {@code count} rows into batches and runs them on the executor, then waits for all. */
+  private void run(ExecutorService executor, String table, int count, Batch batch) {
+    long start = System.nanoTime();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int from = 0; from < count; from += batchSize) {
+      int batchFrom = from;
+      int batchTo = Math.min(count, from + batchSize);
+      futures.add(executor.submit(() -> batch.insert(batchFrom, batchTo)));
+    }
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while generating " + table, e);
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw new IllegalStateException("Failed to generate " + table, e.getCause());
+    }
+    long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    if (count > 0) {
+      log.info(
+          "Inserted {} {} in {} ms ({} rows/s)", count, table, millis, count * 1_000L / millis);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Batch {
+    void insert(int from, int to);
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.ecommerce.dataset;
+
+import java.time.Duration;
+
+/** Rows written by one {@link DatasetGenerator} run and how long it took. */
+public record DatasetReport(
+    long customers, long products, long orders, long orderProducts, Duration elapsed) {
+
+  public long rows() {
+    return customers + products + orders + orderProducts;
+  }
+
+  public long rowsPerSecond() {
+    long millis = Math.max(1, elapsed.toMillis());
+    return rows() * 1_000 / millis;
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.ecommerce.dataset;
+
+/** How many rows of each kind {@link DatasetGenerator} creates. */
+public record DatasetSpec(int customers, int products, int orders) {
+
+  public DatasetSpec {
+    if (customers < 0 || products < 0 || orders < 0) {
+      throw new IllegalArgumentException("Dataset sizes must not be negative");
+    }
+    if (orders > 0 && (customers == 0 || products == 0)) {
+      throw new IllegalArgumentException("Orders need at least one customer and one product");
+    }
+  }
+
+  public boolean isEmpty() {
+    return customers == 0 && products == 0 && orders == 0;
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.ecommerce.dataset;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * IDs reserved from an entity sequence. Every sequence value is the low end of a block of {@link
+ * #BLOCK_SIZE} IDs (Hibernate's pooled-lo optimizer), so rows written here never collide with IDs
+ * Hibernate hands out from the same sequence.
+ */
+final class IdBlocks {
+
+  /** The {@code allocationSize} of the entity sequences. */
+  static final int BLOCK_SIZE = 50;
+
+  private final long[] lows;
+
+  private IdBlocks(long[] lows) {
+    this.lows = lows;
+  }
+
+  /** Reserves blocks for {@code count} IDs with a single query. */
+  static IdBlocks reserve(JdbcTemplate jdbcTemplate, String sequence, int count) {
+    int blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    if (blocks == 0) {
+      return new IdBlocks(new long[0]);
+    }
+    List<Long> lows =
+        jdbcTemplate.queryForList(
+            "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)", Long.class, blocks);
+    return new IdBlocks(lows.stream().mapToLong(Long::longValue).toArray());
+  }
+
+  /** The ID of the {@code index}-th reserved row. */
+  long id(int index) {
+    return lows[index / BLOCK_SIZE] + index % BLOCK_SIZE;
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.ecommerce.order.cache;
+
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded read-through cache of {@link OrderDTO} by order ID. Unknown IDs are cached as empty for a
+ * shorter time so polling a missing order does not reach the database on every call.
+ *
+ * <p>Writers must {@link #evict} after their change is committed. A load is published as a future
+ * before it reads the database and an eviction removes that future, so a load that may have read
+ * the old row is never served to a reader that starts after the eviction.
+ *
+ * <p>The database read runs in the caller's thread but outside the cache's internal map lock; a
+ * load inside {@code ConcurrentHashMap.compute} would pin a virtual thread for the whole query.
+ */
+@Component
+public class OrderCache {
+
+  public static final String NAME = "orders";
+
+  private final AsyncCache<Long, Optional<OrderDTO>> cache;
+
+  public OrderCache(
+      @Value("${orders.cache.maximum-size:100000}") long maximumSize,
+      @Value("${orders.cache.ttl:10m}") Duration ttl,
+      @Value("${orders.cache.negative-ttl:5s}") Duration negativeTtl,
+      MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new PresenceExpiry(ttl, negativeTtl))
+            // Size 0 turns the cache off: evict in the writing thread, or a read right after a load
+            // could still hit the entry before the common pool got to it
+            .executor(maximumSize == 0 ? Runnable::run : ForkJoinPool.commonPool())
+            .recordStats()
+            .buildAsync();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+  }
+
+  public Optional<OrderDTO> get(Long orderId, Function<Long, Optional<OrderDTO>> loader) {
+    CompletableFuture<Optional<OrderDTO>> load = new CompletableFuture<>();
+    CompletableFuture<Optional<OrderDTO>> cached = cache.get(orderId, (id, executor) -> load);
+    if (cached != load) {
+      return cached.join();
+    }
+    try {
+      Optional<OrderDTO> order = loader.apply(orderId);
+      load.complete(order);
+      return order;
+    } catch (RuntimeException | Error e) {
+      // A failed future is dropped by the cache, so the next read retries.
+      load.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * The cached order if a load of it has already completed, without loading it or counting a hit or
+   * miss; for cheap lookups that fall back to a query of their own.
+   */
+  public Optional<OrderDTO> getIfLoaded(Long orderId) {
+    CompletableFuture<Optional<OrderDTO>> cached = cache.asMap().get(orderId);
+    if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+      return Optional.empty();
+    }
+    return cached.join();
+  }
+
+  public void put(OrderDTO order) {
+    cache.put(order.getId(), CompletableFuture.completedFuture(Optional.of(order)));
+  }
+
+  public void evict(Long orderId) {
+    cache.synchronous().invalidate(orderId);
+  }
+
+  public void evictAll(Collection<Long> orderIds) {
+    cache.synchronous().invalidateAll(orderIds);
+  }
+
+  private record PresenceExpiry(Duration ttl, Duration negativeTtl)
+      implements Expiry<Long, Optional<OrderDTO>> {
+
+    @Override
+    public long expireAfterCreate(Long orderId, Optional<OrderDTO> order, long currentTime) {
+      return (order.isPresent() ? ttl : negativeTtl).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        Long orderId, Optional<OrderDTO> order, long currentTime, long currentDuration) {
+      return expireAfterCreate(orderId, order, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        Long orderId, Optional<OrderDTO> order, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
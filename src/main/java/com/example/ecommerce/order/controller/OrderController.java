@@ -1,33 +1,207 @@
 package com.example.ecommerce.order.controller;
 
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
 import com.example.ecommerce.order.dto.OrderCreateDTO;
 import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.dto.OrderStatsDTO;
+import com.example.ecommerce.order.etag.OrderETags;
+import com.example.ecommerce.order.exception.IntakeTicketNotFoundException;
+import com.example.ecommerce.order.intake.OrderIntake;
+import com.example.ecommerce.order.metrics.OrderMetrics;
+import com.example.ecommerce.order.metrics.OrderMetrics.ConditionalOutcome;
+import com.example.ecommerce.order.metrics.OrderMetrics.Resource;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderSearch;
 import com.example.ecommerce.order.service.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
+  // RFC 7240 preference for a 202 now instead of the result later
+  private static final String PREFER = "Prefer";
+  private static final String PREFERENCE_APPLIED = "Preference-Applied";
+  private static final String RESPOND_ASYNC = "respond-async";
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
   private final OrderService orderService;
+  private final ObjectProvider<OrderIntake> orderIntake;
+  private final OrderMetrics orderMetrics;
+  private final ObjectWriter exportWriter;
 
-  public OrderController(OrderService orderService) {
+  public OrderController(
+      OrderService orderService,
+      ObjectProvider<OrderIntake> orderIntake,
+      OrderMetrics orderMetrics,
+      ObjectMapper objectMapper) {
     this.orderService = orderService;
+    this.orderIntake = orderIntake;
+    this.orderMetrics = orderMetrics;
+    // One order per line; the generator buffers and the servlet stream decides when to flush.
+    this.exportWriter =
+        objectMapper
+            .writerFor(OrderDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .without(SerializationFeature.INDENT_OUTPUT);
   }
 
+  /**
+   * Creates the order and returns it. With {@code Prefer: respond-async} and the intake enabled
+   * ({@code app.intake.enabled}), the order is queued for group commit instead and the response is
+   * {@code 202 Accepted} with the ticket and its status URL in {@code Location}.
+   *
+   * <p>With an {@code Idempotency-Key}, the order is created synchronously and only once: a retry
+   * with the same key gets the order the first request created, and a different request under the
+   * same key gets {@code 409 Conflict}.
+   */
   @PostMapping
-  public OrderDTO createOrder(OrderCreateDTO orderCreateDTO) {
-    return orderService.createOrder(orderCreateDTO);
+  public ResponseEntity<?> createOrder(
+      @RequestBody OrderCreateDTO orderCreateDTO,
+      @RequestHeader(name = PREFER, required = false) String prefer,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+    if (idempotencyKey != null) {
+      return ResponseEntity.ok(orderService.createOrder(orderCreateDTO, idempotencyKey));
+    }
+    OrderIntake intake = orderIntake.getIfAvailable();
+    if (intake == null || prefer == null || !prefer.contains(RESPOND_ASYNC)) {
+      return ResponseEntity.ok(orderService.createOrder(orderCreateDTO));
+    }
+    OrderIntakeDTO ticket = intake.submit(orderCreateDTO);
+    return ResponseEntity.accepted()
+        .location(
+            ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/orders/intake/{ticket}")
+                .buildAndExpand(ticket.getTicket())
+                .toUri())
+        .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+        .body(ticket);
+  }
+
+  @GetMapping("/intake/{ticket}")
+  public OrderIntakeDTO getIntakeTicket(@PathVariable UUID ticket) {
+    OrderIntake intake = orderIntake.getIfAvailable();
+    return Optional.ofNullable(intake)
+        .flatMap(it -> it.find(ticket))
+        .orElseThrow(() -> new IntakeTicketNotFoundException(ticket));
+  }
+
+  @PostMapping("/batch")
+  public List<OrderBatchResultDTO> createOrders(@RequestBody List<OrderCreateDTO> orderCreateDTOs) {
+    return orderService.createOrders(orderCreateDTOs);
+  }
+
+  /**
+   * One page of the orders matching every given filter, newest first. {@code from} is inclusive,
+   * {@code to} exclusive; {@code nextCursor} of a page fetches the next one with the same filters.
+   */
+  @GetMapping
+  public OrderPageDTO searchOrders(
+      @RequestParam(required = false) Status status,
+      @RequestParam(required = false) Long customerId,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) OffsetDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) OffsetDateTime to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "" + OrderService.DEFAULT_PAGE_SIZE) int size) {
+    return orderService.searchOrders(new OrderSearch(status, customerId, from, to), cursor, size);
+  }
+
+  @GetMapping("/stats")
+  public OrderStatsDTO getStats() {
+    return orderService.getStats();
   }
 
+  /**
+   * Returns the order with a weak {@code ETag} of its version. When {@code If-None-Match} matches
+   * the current version the answer is {@code 304 Not Modified}, after reading the version alone.
+   */
   @GetMapping("/{id}")
-  public OrderDTO getOrder(@PathVariable Long id) {
-    return orderService.getOrderById(id);
+  public ResponseEntity<OrderDTO> getOrder(
+      @PathVariable Long id,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    if (ifNoneMatch != null) {
+      Optional<String> etag = orderService.getOrderVersion(id).map(OrderETags::of);
+      if (etag.isPresent() && OrderETags.matches(ifNoneMatch, etag.get())) {
+        orderMetrics.conditionalGet(Resource.ORDER, ConditionalOutcome.NOT_MODIFIED);
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+      }
+    }
+    OrderDTO order = orderService.getOrderById(id);
+    orderMetrics.conditionalGet(
+        Resource.ORDER,
+        ifNoneMatch != null ? ConditionalOutcome.MODIFIED : ConditionalOutcome.UNCONDITIONAL);
+    return ResponseEntity.ok().eTag(OrderETags.of(order.getVersion())).body(order);
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportOrders(
+      @RequestParam(required = false) Status status,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) OffsetDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) OffsetDateTime to) {
+    StreamingResponseBody body =
+        out -> {
+          try (JsonGenerator generator = exportWriter.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            orderService.exportOrders(
+                status,
+                from,
+                to,
+                order -> {
+                  try {
+                    exportWriter.writeValue(generator, order);
+                    generator.writeRaw('\n');
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  @PatchMapping("/pay")
+  public BulkTransitionResultDTO updateStatusToPaidInBulk(@RequestBody List<Long> ids) {
+    return orderService.updateStatusToPaidByIds(ids);
+  }
+
+  @PatchMapping("/ship")
+  public BulkTransitionResultDTO updateStatusToShippedInBulk(@RequestBody List<Long> ids) {
+    return orderService.updateStatusToShippedByIds(ids);
+  }
+
+  @PatchMapping("/deliver")
+  public BulkTransitionResultDTO updateStatusToDeliveredInBulk(@RequestBody List<Long> ids) {
+    return orderService.updateStatusToDeliveredByIds(ids);
   }
 
   @PatchMapping("/{id}/pay")
@@ -0,0 +1,30 @@
+package com.example.ecommerce.order.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransitionResultDTO {
+  private List<Long> updated = new ArrayList<>();
+
+  private List<RejectedOrderDTO> rejected = new ArrayList<>();
+
+  @Getter
+  @Setter
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class RejectedOrderDTO {
+    private Long id;
+
+    private int status;
+
+    private String message;
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Body of an error response: when it happened, the HTTP status code and reason phrase, and what
+ * went wrong. The fields and their JSON names are the ones clients already read. Validation
+ * failures list the message of each invalid field in {@code errors} instead of a {@code message};
+ * whichever of the two is null is left out, so every body keeps its previous shape.
+ */
+public record ErrorDTO(
+    LocalDateTime timestamp,
+    int status,
+    String error,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String message,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, String> errors) {
+
+  public static ErrorDTO of(HttpStatus status, String message) {
+    return new ErrorDTO(
+        LocalDateTime.now(), status.value(), status.getReasonPhrase(), message, null);
+  }
+
+  public static ErrorDTO invalid(String error, Map<String, String> errors) {
+    return new ErrorDTO(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), error, null, errors);
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBatchResultDTO {
+  private int index;
+
+  private int status;
+
+  private OrderDTO order;
+
+  private String message;
+
+  public static OrderBatchResultDTO created(int index, OrderDTO order) {
+    return new OrderBatchResultDTO(index, HttpStatus.CREATED.value(), order, null);
+  }
+
+  public static OrderBatchResultDTO rejected(int index, HttpStatus status, String message) {
+    return new OrderBatchResultDTO(index, status.value(), null, message);
+  }
+}
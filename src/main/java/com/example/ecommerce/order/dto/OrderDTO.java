@@ -1,6 +1,7 @@
 package com.example.ecommerce.order.dto;
 
 import com.example.ecommerce.order.model.Status;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import java.time.OffsetDateTime;
@@ -15,6 +16,8 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 public class OrderDTO {
+  private Long id;
+
   @NotNull @Past private OffsetDateTime createdAt;
 
   private Status status;
@@ -22,4 +25,7 @@ public class OrderDTO {
   @NotNull private Long customerId;
 
   @NotNull private List<Long> productsId;
+
+  /** The order's version for ETags; not part of the body. {@code null} when not read. */
+  @JsonIgnore private Long version;
 }
@@ -0,0 +1,34 @@
+package com.example.ecommerce.order.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderIntakeDTO {
+  private UUID ticket;
+
+  private State state;
+
+  private OffsetDateTime acceptedAt;
+
+  /** The created order once {@code state} is {@code CREATED}. */
+  private OrderDTO order;
+
+  /** HTTP status and message the synchronous endpoint would have answered with when rejected. */
+  private Integer status;
+
+  private String message;
+
+  public enum State {
+    QUEUED,
+    CREATED,
+    REJECTED
+  }
+}
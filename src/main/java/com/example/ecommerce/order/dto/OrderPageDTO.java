@@ -0,0 +1,18 @@
+package com.example.ecommerce.order.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageDTO {
+  private List<OrderDTO> items;
+
+  /** Token for the next page, or {@code null} when this is the last one. */
+  private String nextCursor;
+}
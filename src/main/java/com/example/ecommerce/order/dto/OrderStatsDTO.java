@@ -0,0 +1,22 @@
+package com.example.ecommerce.order.dto;
+
+import com.example.ecommerce.order.model.Status;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatsDTO {
+  private long total;
+
+  private Map<Status, Long> byStatus;
+
+  /** When the counts were last checked against the database. */
+  private OffsetDateTime reconciledAt;
+}
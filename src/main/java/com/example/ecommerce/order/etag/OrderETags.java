@@ -0,0 +1,35 @@
+package com.example.ecommerce.order.etag;
+
+import com.example.ecommerce.order.projection.OrderListVersion;
+import org.springframework.http.ETag;
+
+/**
+ * ETags of order resources, built from versions alone so a conditional GET can be answered before
+ * anything else is read. They are weak: JSON, CBOR and Smile bodies of one version share the tag.
+ */
+public final class OrderETags {
+
+  private OrderETags() {}
+
+  public static String of(long version) {
+    return "W/\"" + version + "\"";
+  }
+
+  public static String of(OrderListVersion version) {
+    return "W/\"" + version.count() + "-" + version.versionSum() + "\"";
+  }
+
+  /** Whether an {@code If-None-Match} header value matches {@code etag} by weak comparison. */
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    ETag current = ETag.create(etag);
+    for (ETag candidate : ETag.parse(ifNoneMatch)) {
+      if (candidate.isWildcard() || candidate.compare(current, false)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyConflictException extends RuntimeException {
+  public IdempotencyKeyConflictException(String key) {
+    super("Idempotency key " + key + " was already used for a different order");
+  }
+}
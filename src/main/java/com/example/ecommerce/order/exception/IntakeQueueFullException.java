@@ -0,0 +1,11 @@
+package com.example.ecommerce.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IntakeQueueFullException extends RuntimeException {
+  public IntakeQueueFullException() {
+    super("Too many orders are waiting to be created, try again later");
+  }
+}
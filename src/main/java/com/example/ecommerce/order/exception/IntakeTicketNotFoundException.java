@@ -0,0 +1,12 @@
+package com.example.ecommerce.order.exception;
+
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class IntakeTicketNotFoundException extends RuntimeException {
+  public IntakeTicketNotFoundException(UUID ticket) {
+    super("Intake ticket " + ticket + " not found");
+  }
+}
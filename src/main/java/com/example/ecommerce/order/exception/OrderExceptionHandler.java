@@ -1,79 +1,94 @@
 package com.example.ecommerce.order.exception;
 
+import com.example.ecommerce.order.dto.ErrorDTO;
 import jakarta.validation.ConstraintViolationException;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-@RestControllerAdvice(basePackages = "com.example.ecommerce.order")
+@RestControllerAdvice(
+    basePackages = {"com.example.ecommerce.order", "com.example.ecommerce.customer"})
 public class OrderExceptionHandler {
 
   @ExceptionHandler(EmptyProductsException.class)
-  public ResponseEntity<Map<String, Object>> handleEmptyProducts(EmptyProductsException ex) {
+  public ResponseEntity<ErrorDTO> handleEmptyProducts(EmptyProductsException ex) {
     return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
   }
 
   @ExceptionHandler(OrderNotFoundException.class)
-  public ResponseEntity<Map<String, Object>> handleOrderNotFound(OrderNotFoundException ex) {
+  public ResponseEntity<ErrorDTO> handleOrderNotFound(OrderNotFoundException ex) {
     return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
   }
 
   @ExceptionHandler(CustomerNotFoundException.class)
-  public ResponseEntity<Map<String, Object>> handleCustomerNotFound(CustomerNotFoundException ex) {
+  public ResponseEntity<ErrorDTO> handleCustomerNotFound(CustomerNotFoundException ex) {
     return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
   }
 
   @ExceptionHandler(OrderStatusIsNotCreatedException.class)
-  public ResponseEntity<Map<String, Object>> handleOrderStatusIsNotCreated(
+  public ResponseEntity<ErrorDTO> handleOrderStatusIsNotCreated(
       OrderStatusIsNotCreatedException ex) {
     return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
   }
 
   @ExceptionHandler(OrderStatusIsNotPaidException.class)
-  public ResponseEntity<Map<String, Object>> handleOrderStatusIsNotPaid(
-      OrderStatusIsNotPaidException ex) {
+  public ResponseEntity<ErrorDTO> handleOrderStatusIsNotPaid(OrderStatusIsNotPaidException ex) {
     return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
   }
 
   @ExceptionHandler(OrderStatusIsNotShippedException.class)
-  public ResponseEntity<Map<String, Object>> handleOrderStatusIsNotShipped(
+  public ResponseEntity<ErrorDTO> handleOrderStatusIsNotShipped(
       OrderStatusIsNotShippedException ex) {
     return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
   }
 
+  @ExceptionHandler(IdempotencyKeyConflictException.class)
+  public ResponseEntity<ErrorDTO> handleIdempotencyKeyConflict(IdempotencyKeyConflictException ex) {
+    return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+  }
+
+  @ExceptionHandler(IntakeTicketNotFoundException.class)
+  public ResponseEntity<ErrorDTO> handleIntakeTicketNotFound(IntakeTicketNotFoundException ex) {
+    return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+  }
+
+  @ExceptionHandler(IntakeQueueFullException.class)
+  public ResponseEntity<ErrorDTO> handleIntakeQueueFull(IntakeQueueFullException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(ErrorDTO.of(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+  }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<ErrorDTO> handleInvalidCursor(InvalidCursorException ex) {
+    return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
   @ExceptionHandler(IllegalArgumentException.class)
-  public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
+  public ResponseEntity<ErrorDTO> handleIllegalArgument(IllegalArgumentException ex) {
     return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
   }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
-  public ResponseEntity<Map<String, Object>> handleValidationExceptions(
-      MethodArgumentNotValidException ex) {
-    Map<String, Object> errors = new HashMap<>();
+  public ResponseEntity<ErrorDTO> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    Map<String, String> errors = new HashMap<>();
     ex.getBindingResult()
         .getFieldErrors()
         .forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
 
-    Map<String, Object> body = new HashMap<>();
-    body.put("timestamp", LocalDateTime.now());
-    body.put("status", HttpStatus.BAD_REQUEST.value());
-    body.put("error", "Bad Request");
-    body.put("errors", errors);
-
-    return ResponseEntity.badRequest().body(body);
+    return ResponseEntity.badRequest().body(ErrorDTO.invalid("Bad Request", errors));
   }
 
   @ExceptionHandler(ConstraintViolationException.class)
-  public ResponseEntity<Map<String, Object>> handleConstraintViolation(
-      ConstraintViolationException ex) {
-    Map<String, Object> errors = new HashMap<>();
+  public ResponseEntity<ErrorDTO> handleConstraintViolation(ConstraintViolationException ex) {
+    Map<String, String> errors = new HashMap<>();
     ex.getConstraintViolations()
         .forEach(
             violation -> {
@@ -82,18 +97,11 @@ public class OrderExceptionHandler {
               errors.put(fieldName, errorMessage);
             });
 
-    Map<String, Object> body = new HashMap<>();
-    body.put("timestamp", LocalDateTime.now());
-    body.put("status", HttpStatus.BAD_REQUEST.value());
-    body.put("error", "Validation Failed");
-    body.put("errors", errors);
-
-    return ResponseEntity.badRequest().body(body);
+    return ResponseEntity.badRequest().body(ErrorDTO.invalid("Validation Failed", errors));
   }
 
   @ExceptionHandler(DataIntegrityViolationException.class)
-  public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(
-      DataIntegrityViolationException ex) {
+  public ResponseEntity<ErrorDTO> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
     String message =
         Optional.ofNullable(ex.getRootCause())
             .map(Throwable::getMessage)
@@ -102,12 +110,8 @@ public class OrderExceptionHandler {
     return buildResponse(HttpStatus.BAD_REQUEST, message);
   }
 
-  private ResponseEntity<Map<String, Object>> buildResponse(HttpStatus status, String message) {
-    Map<String, Object> body = new HashMap<>();
-    body.put("timestamp", LocalDateTime.now());
-    body.put("status", status.value());
-    body.put("error", status.getReasonPhrase());
-    body.put("message", message);
-    return new ResponseEntity<>(body, status);
+  // A record instead of a map per response; Jackson writes the same fields
+  private ResponseEntity<ErrorDTO> buildResponse(HttpStatus status, String message) {
+    return new ResponseEntity<>(ErrorDTO.of(status, message), status);
   }
 }
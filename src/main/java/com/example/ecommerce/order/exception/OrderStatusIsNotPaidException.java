@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.CONFLICT)
-public class OrderStatusIsNotPaidException extends RuntimeException {
+public class OrderStatusIsNotPaidException extends StacklessException {
   public OrderStatusIsNotPaidException() {
     super("An order with a different status of paid cannot be shipped");
   }
@@ -0,0 +1,14 @@
+package com.example.ecommerce.order.exception;
+
+/**
+ * Base of the exceptions that reject a request as part of normal traffic, such as polling an order
+ * that does not exist or retrying a transition that already happened. Their handlers only use the
+ * type and the message, so they skip filling in the stack trace, which is most of the cost of
+ * creating an exception deep inside a request, and suppression.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+  protected StacklessException(String message) {
+    super(message, null, false, false);
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.ecommerce.order.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * An {@code Idempotency-Key} and the order its first request created. Inserted in the transaction
+ * that creates the order, so a key is stored exactly when its order exists.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+    name = "order_idempotency_key",
+    indexes = @Index(name = "order_idempotency_key_created_idx", columnList = "created_at"))
+public class IdempotencyKey implements Persistable<String> {
+
+  public static final int MAX_KEY_LENGTH = 255;
+
+  @Id
+  @Column(length = MAX_KEY_LENGTH)
+  private String idempotencyKey;
+
+  /** SHA-256 of the request, to tell a retry from a different order under the same key. */
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+
+  @Column(nullable = false)
+  private Long orderId;
+
+  @Column(nullable = false)
+  private OffsetDateTime createdAt;
+
+  // Always new: the key is assigned, and save() would otherwise SELECT it before inserting
+  @Override
+  @Transient
+  public String getId() {
+    return idempotencyKey;
+  }
+
+  @Override
+  @Transient
+  public boolean isNew() {
+    return true;
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.ecommerce.order.idempotency;
+
+import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+  int deleteCreatedBefore(@Param("cutoff") OffsetDateTime cutoff);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM IdempotencyKey k WHERE k.idempotencyKey = :key AND k.createdAt < :cutoff")
+  int deleteExpired(@Param("key") String key, @Param("cutoff") OffsetDateTime cutoff);
+}
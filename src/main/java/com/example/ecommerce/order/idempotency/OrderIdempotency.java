@@ -0,0 +1,159 @@
+package com.example.ecommerce.order.idempotency;
+
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Storage for {@code Idempotency-Key}s of order creation. Keys live in {@code
+ * order_idempotency_key} for {@code app.idempotency.ttl} and are looked up through a bounded
+ * in-memory tier first, so a retry usually costs no query at all. A scheduled job deletes expired
+ * rows; an expired row found before that is deleted on lookup and treated as absent.
+ *
+ * <p>Requests with the same key are serialized within this instance by {@link #exclusively}. Across
+ * instances the primary key decides: the second insert fails, its transaction (and so its order) is
+ * rolled back, and the caller replays the winner's order instead.
+ */
+@Slf4j
+@Component
+public class OrderIdempotency {
+
+  public static final String CACHE_NAME = "idempotency-keys";
+  public static final String HITS = "orders.idempotency.hits";
+
+  private final IdempotencyKeyRepository idempotencyKeyRepository;
+  private final Cache<String, StoredOrder> memory;
+  private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+  private final Duration ttl;
+  private final Counter memoryHits;
+  private final Counter databaseHits;
+
+  public OrderIdempotency(
+      IdempotencyKeyRepository idempotencyKeyRepository,
+      MeterRegistry meterRegistry,
+      @Value("${app.idempotency.ttl:24h}") Duration ttl,
+      @Value("${app.idempotency.cache-size:100000}") long cacheSize) {
+    this.idempotencyKeyRepository = idempotencyKeyRepository;
+    this.ttl = ttl;
+    this.memory =
+        Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            // Gone from memory when the row expires, however late it was loaded
+            .expireAfter(
+                Expiry.<String, StoredOrder>creating(
+                    (key, stored) ->
+                        Duration.between(OffsetDateTime.now(), stored.createdAt().plus(ttl))))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, memory, CACHE_NAME);
+    this.memoryHits = hits(meterRegistry, "memory");
+    this.databaseHits = hits(meterRegistry, "database");
+  }
+
+  /** Hash of what makes two requests the same order: the customer and the product list. */
+  public String fingerprint(OrderCreateDTO request) {
+    String canonical = request.getCustomerId() + "|" + request.getProductsId();
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is always available", e);
+    }
+  }
+
+  /** Runs {@code action} while no other request with this key runs here. */
+  public <T> T exclusively(String key, Supplier<T> action) {
+    CompletableFuture<Void> mine = new CompletableFuture<>();
+    CompletableFuture<Void> other;
+    while ((other = inFlight.putIfAbsent(key, mine)) != null) {
+      // join() parks a virtual thread without pinning it, unlike waiting on a monitor
+      other.join();
+    }
+    try {
+      return action.get();
+    } finally {
+      inFlight.remove(key, mine);
+      mine.complete(null);
+    }
+  }
+
+  public Optional<StoredOrder> find(String key) {
+    StoredOrder cached = memory.getIfPresent(key);
+    if (cached != null) {
+      memoryHits.increment();
+      return Optional.of(cached);
+    }
+    Optional<IdempotencyKey> row = idempotencyKeyRepository.findById(key);
+    if (row.isEmpty()) {
+      return Optional.empty();
+    }
+    OffsetDateTime cutoff = OffsetDateTime.now().minus(ttl);
+    if (row.get().getCreatedAt().isBefore(cutoff)) {
+      idempotencyKeyRepository.deleteExpired(key, cutoff);
+      return Optional.empty();
+    }
+    StoredOrder stored =
+        new StoredOrder(
+            row.get().getFingerprint(), row.get().getOrderId(), row.get().getCreatedAt());
+    memory.put(key, stored);
+    databaseHits.increment();
+    return Optional.of(stored);
+  }
+
+  /**
+   * Inserts the key; call inside the transaction that creates the order. Fails with a {@code
+   * DataIntegrityViolationException} when the key was stored meanwhile.
+   */
+  public StoredOrder store(String key, String fingerprint, Long orderId) {
+    IdempotencyKey row =
+        idempotencyKeyRepository.saveAndFlush(
+            new IdempotencyKey(key, fingerprint, orderId, OffsetDateTime.now()));
+    return new StoredOrder(fingerprint, orderId, row.getCreatedAt());
+  }
+
+  /** Adds a stored key to the in-memory tier once its transaction committed. */
+  public void remember(String key, StoredOrder stored) {
+    memory.put(key, stored);
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.idempotency.cleanup-interval:1h}",
+      initialDelayString = "${app.idempotency.cleanup-interval:1h}")
+  public void deleteExpired() {
+    int deleted = idempotencyKeyRepository.deleteCreatedBefore(OffsetDateTime.now().minus(ttl));
+    if (deleted > 0) {
+      log.info("Deleted {} expired idempotency keys", deleted);
+    }
+  }
+
+  /** Empties the in-memory tier, leaving lookups to the table. */
+  void clearMemory() {
+    memory.invalidateAll();
+  }
+
+  private static Counter hits(MeterRegistry meterRegistry, String source) {
+    return Counter.builder(HITS)
+        .description("Idempotency keys found on order creation, by the tier that had them")
+        .tag("source", source)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,6 @@
+package com.example.ecommerce.order.idempotency;
+
+import java.time.OffsetDateTime;
+
+/** What a stored idempotency key maps to: the request fingerprint and the order it created. */
+public record StoredOrder(String fingerprint, Long orderId, OffsetDateTime createdAt) {}
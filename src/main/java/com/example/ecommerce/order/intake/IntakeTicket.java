@@ -0,0 +1,51 @@
+package com.example.ecommerce.order.intake;
+
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO.State;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+
+/** An accepted order request, queued until the writer commits it with its group. */
+final class IntakeTicket {
+
+  private final UUID id = UUID.randomUUID();
+  private final OffsetDateTime acceptedAt = OffsetDateTime.now();
+  private final long acceptedNanos = System.nanoTime();
+  private final OrderCreateDTO request;
+  private volatile OrderBatchResultDTO result;
+
+  IntakeTicket(OrderCreateDTO request) {
+    this.request = request;
+  }
+
+  UUID id() {
+    return id;
+  }
+
+  OrderCreateDTO request() {
+    return request;
+  }
+
+  long acceptedNanos() {
+    return acceptedNanos;
+  }
+
+  void complete(OrderBatchResultDTO result) {
+    this.result = result;
+  }
+
+  OrderIntakeDTO toDTO() {
+    OrderBatchResultDTO current = result;
+    if (current == null) {
+      return new OrderIntakeDTO(id, State.QUEUED, acceptedAt, null, null, null);
+    }
+    if (current.getStatus() == HttpStatus.CREATED.value()) {
+      return new OrderIntakeDTO(id, State.CREATED, acceptedAt, current.getOrder(), null, null);
+    }
+    return new OrderIntakeDTO(
+        id, State.REJECTED, acceptedAt, null, current.getStatus(), current.getMessage());
+  }
+}
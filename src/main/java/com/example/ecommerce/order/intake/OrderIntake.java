@@ -0,0 +1,216 @@
+package com.example.ecommerce.order.intake;
+
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO;
+import com.example.ecommerce.order.exception.IntakeQueueFullException;
+import com.example.ecommerce.order.service.OrderService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Asynchronous order creation with group commit. {@link #submit} validates a request, puts it on a
+ * bounded queue and returns a ticket right away; a single writer thread takes up to {@code
+ * group-size} queued requests, waiting at most {@code group-delay} after the first one for the
+ * group to fill, and creates them with one {@link OrderService#createOrders} call, so a whole group
+ * costs one transaction and one connection instead of one each.
+ *
+ * <p>When {@code queue-capacity} requests are already waiting, {@link #submit} fails at once with
+ * {@link IntakeQueueFullException} instead of letting the backlog grow. Tickets can be looked up
+ * for {@code ticket-ttl} after they were accepted. On shutdown, after the web server stopped taking
+ * requests, the writer commits what is still queued.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.intake.enabled", havingValue = "true")
+public class OrderIntake implements SmartLifecycle {
+
+  public static final String QUEUED = "orders.intake.queued";
+  public static final String REJECTED = "orders.intake.rejected";
+  public static final String GROUP_SIZE = "orders.intake.group.size";
+  public static final String COMMIT_DELAY = "orders.intake.commit.delay";
+
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+  private final OrderService orderService;
+  private final BlockingQueue<IntakeTicket> queue;
+  private final Cache<UUID, IntakeTicket> tickets;
+  private final int groupSize;
+  private final long groupDelayNanos;
+  private final Counter rejected;
+  private final DistributionSummary groupSizes;
+  private final Timer commitDelay;
+
+  private volatile boolean accepting = true;
+  private volatile boolean running;
+  private Thread writer;
+
+  public OrderIntake(
+      OrderService orderService,
+      MeterRegistry meterRegistry,
+      @Value("${app.intake.queue-capacity:10000}") int queueCapacity,
+      @Value("${app.intake.group-size:500}") int groupSize,
+      @Value("${app.intake.group-delay:5ms}") Duration groupDelay,
+      @Value("${app.intake.ticket-ttl:10m}") Duration ticketTtl) {
+    this.orderService = orderService;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketTtl).build();
+    this.groupSize = Math.min(groupSize, OrderService.MAX_BATCH_SIZE);
+    this.groupDelayNanos = groupDelay.toNanos();
+    Gauge.builder(QUEUED, queue, BlockingQueue::size)
+        .description("Order requests waiting for the intake writer")
+        .register(meterRegistry);
+    this.rejected =
+        Counter.builder(REJECTED)
+            .description("Order requests refused because the intake queue was full")
+            .register(meterRegistry);
+    this.groupSizes =
+        DistributionSummary.builder(GROUP_SIZE)
+            .description("Orders committed per intake transaction")
+            .register(meterRegistry);
+    this.commitDelay =
+        Timer.builder(COMMIT_DELAY)
+            .description("Time from accepting an order request to committing it")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+  }
+
+  /**
+   * Queues the request and returns its ticket. Fails with the exceptions {@link
+   * OrderService#createOrder} would throw for a request it rejects, or with {@link
+   * IntakeQueueFullException}.
+   */
+  public OrderIntakeDTO submit(OrderCreateDTO orderCreateDto) {
+    orderService.validate(orderCreateDto);
+    IntakeTicket ticket = new IntakeTicket(orderCreateDto);
+    tickets.put(ticket.id(), ticket);
+    if (!accepting || !queue.offer(ticket)) {
+      tickets.invalidate(ticket.id());
+      rejected.increment();
+      throw new IntakeQueueFullException();
+    }
+    return ticket.toDTO();
+  }
+
+  public Optional<OrderIntakeDTO> find(UUID ticket) {
+    return Optional.ofNullable(tickets.getIfPresent(ticket)).map(IntakeTicket::toDTO);
+  }
+
+  private void writeLoop() {
+    List<IntakeTicket> group = new ArrayList<>(groupSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        IntakeTicket first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        group.add(first);
+        fill(group);
+      } catch (InterruptedException e) {
+        // stop() interrupts only after the timeout; commit what was taken and give up the rest
+        Thread.currentThread().interrupt();
+        commit(group);
+        return;
+      }
+      commit(group);
+      group.clear();
+    }
+  }
+
+  /** Adds queued tickets until the group is full or {@code group-delay} has passed. */
+  private void fill(List<IntakeTicket> group) throws InterruptedException {
+    long deadline = System.nanoTime() + groupDelayNanos;
+    while (group.size() < groupSize) {
+      queue.drainTo(group, groupSize - group.size());
+      long remaining = deadline - System.nanoTime();
+      if (group.size() >= groupSize || remaining <= 0) {
+        return;
+      }
+      IntakeTicket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      group.add(next);
+    }
+  }
+
+  private void commit(List<IntakeTicket> group) {
+    if (group.isEmpty()) {
+      return;
+    }
+    try {
+      List<OrderBatchResultDTO> results =
+          orderService.createOrders(group.stream().map(IntakeTicket::request).toList());
+      for (int i = 0; i < group.size(); i++) {
+        group.get(i).complete(results.get(i));
+      }
+    } catch (RuntimeException e) {
+      log.error("Could not create a group of {} queued orders", group.size(), e);
+      for (int i = 0; i < group.size(); i++) {
+        group
+            .get(i)
+            .complete(
+                OrderBatchResultDTO.rejected(
+                    i, HttpStatus.INTERNAL_SERVER_ERROR, "The order could not be created"));
+      }
+    }
+    long now = System.nanoTime();
+    groupSizes.record(group.size());
+    for (IntakeTicket ticket : group) {
+      commitDelay.record(now - ticket.acceptedNanos(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    writer = new Thread(this::writeLoop, "order-intake-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override
+  public void stop() {
+    accepting = false;
+    running = false;
+    try {
+      writer.join(SHUTDOWN_TIMEOUT.toMillis());
+      if (writer.isAlive()) {
+        log.warn("Order intake did not drain within {}, {} left", SHUTDOWN_TIMEOUT, queue.size());
+        writer.interrupt();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Started before and stopped after the web server, so every accepted request gets committed. */
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+}
@@ -3,8 +3,13 @@ package com.example.ecommerce.order.mapper;
 import com.example.ecommerce.order.dto.OrderCreateDTO;
 import com.example.ecommerce.order.dto.OrderDTO;
 import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.projection.OrderProductLink;
+import com.example.ecommerce.order.projection.OrderRow;
 import com.example.ecommerce.product.model.Product;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -15,6 +20,7 @@ public interface OrderMapper {
   @Mapping(target = "customer", ignore = true)
   @Mapping(target = "products", ignore = true)
   @Mapping(target = "createdAt", ignore = true)
+  @Mapping(target = "version", ignore = true)
   Order toEntity(OrderCreateDTO dto);
 
   @Mapping(source = "customer.id", target = "customerId")
@@ -25,6 +31,21 @@ public interface OrderMapper {
   @Mapping(source = "products", target = "productsId")
   List<OrderDTO> toDtoList(List<Order> orders);
 
+  OrderDTO toDTO(OrderRow row, List<Long> productsId);
+
+  /** Joins projected order rows with their {@code orders_product} links, keeping row order. */
+  default List<OrderDTO> toDtoList(List<OrderRow> rows, List<OrderProductLink> productLinks) {
+    Map<Long, List<Long>> productIds = new HashMap<>();
+    for (OrderProductLink link : productLinks) {
+      productIds
+          .computeIfAbsent(link.orderId(), orderId -> new ArrayList<>())
+          .add(link.productId());
+    }
+    return rows.stream()
+        .map(row -> toDTO(row, productIds.getOrDefault(row.id(), List.of())))
+        .toList();
+  }
+
   default List<Long> mapProductsToIds(List<Product> products) {
     if (products == null) {
       return null;
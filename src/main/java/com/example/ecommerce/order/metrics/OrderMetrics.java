@@ -0,0 +1,104 @@
+package com.example.ecommerce.order.metrics;
+
+import com.example.ecommerce.order.model.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters for orders. Every tag value comes from an enum or an exception class, so the
+ * number of series stays fixed no matter how many orders or IDs pass through.
+ */
+@Component
+public class OrderMetrics {
+
+  // Not "orders.created": Prometheus reserves the _created suffix and would drop it.
+  public static final String PLACED = "orders.placed";
+  public static final String TRANSITIONS = "orders.transitions";
+  public static final String CONDITIONAL_GETS = "orders.conditional.gets";
+
+  private static final String ACCEPTED = "accepted";
+  private static final String REJECTED = "rejected";
+  private static final String NO_REASON = "none";
+
+  /** The order resources served with an ETag. */
+  public enum Resource {
+    ORDER,
+    CUSTOMER_ORDERS
+  }
+
+  /** How a GET with an ETag was answered; the 304 ratio is not_modified over all three. */
+  public enum ConditionalOutcome {
+    NOT_MODIFIED,
+    MODIFIED,
+    UNCONDITIONAL
+  }
+
+  private final MeterRegistry meterRegistry;
+  private final Counter created;
+  private final Map<String, Counter> transitions = new ConcurrentHashMap<>();
+  private final Map<Resource, Map<ConditionalOutcome, Counter>> conditionalGets =
+      new EnumMap<>(Resource.class);
+
+  public OrderMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.created = Counter.builder(PLACED).description("Orders created").register(meterRegistry);
+    // Registered up front so that rates can be computed from the first scrape on
+    for (Status target : Status.values()) {
+      if (target != Status.CREATED) {
+        transitionCounter(target, ACCEPTED, NO_REASON);
+      }
+    }
+    for (Resource resource : Resource.values()) {
+      Map<ConditionalOutcome, Counter> outcomes = new EnumMap<>(ConditionalOutcome.class);
+      for (ConditionalOutcome outcome : ConditionalOutcome.values()) {
+        outcomes.put(
+            outcome,
+            Counter.builder(CONDITIONAL_GETS)
+                .description("GETs of orders with an ETag, by If-None-Match outcome")
+                .tag("resource", resource.name().toLowerCase())
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry));
+      }
+      conditionalGets.put(resource, outcomes);
+    }
+  }
+
+  public void ordersPlaced(int count) {
+    created.increment(count);
+  }
+
+  public void transitionsAccepted(Status target, int count) {
+    if (count > 0) {
+      transitionCounter(target, ACCEPTED, NO_REASON).increment(count);
+    }
+  }
+
+  public void conditionalGet(Resource resource, ConditionalOutcome outcome) {
+    conditionalGets.get(resource).get(outcome).increment();
+  }
+
+  /** Counts a refused transition by the exception the caller gets, e.g. {@code OrderNotFound}. */
+  public void transitionRejected(Status target, RuntimeException rejection) {
+    transitionCounter(target, REJECTED, reason(rejection)).increment();
+  }
+
+  private Counter transitionCounter(Status target, String outcome, String reason) {
+    return transitions.computeIfAbsent(
+        target + ":" + outcome + ":" + reason,
+        key ->
+            Counter.builder(TRANSITIONS)
+                .description("Requested status transitions by target status and outcome")
+                .tag("target", target.name())
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .register(meterRegistry));
+  }
+
+  private static String reason(RuntimeException rejection) {
+    return rejection.getClass().getSimpleName().replaceFirst("Exception$", "");
+  }
+}
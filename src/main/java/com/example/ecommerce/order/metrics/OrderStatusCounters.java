@@ -0,0 +1,109 @@
+package com.example.ecommerce.order.metrics;
+
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.projection.StatusCountView;
+import com.example.ecommerce.order.repository.OrderRepository;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live number of orders in each {@link Status}, kept in memory so that reading it never touches the
+ * database. {@code OrderService} adds every order it creates and moves every order it transitions
+ * once the change has committed; the {@link LongAdder}s spread those updates over cells, so
+ * concurrent requests do not contend on one counter.
+ *
+ * <p>Each count is a base read from the database plus the changes made since. {@link #reconcile()}
+ * re-reads the bases once the application is ready and then every {@code
+ * orders.stats.reconcile-interval}, which also picks up orders written with plain SQL or by another
+ * instance. A change that commits while the {@code GROUP BY} runs may be counted twice until the
+ * next reconciliation.
+ */
+@Slf4j
+@Component
+public class OrderStatusCounters {
+
+  private final OrderRepository orderRepository;
+  private final Map<Status, LongAdder> changes = new EnumMap<>(Status.class);
+  private final ReentrantLock reconcileLock = new ReentrantLock();
+
+  private volatile Snapshot bases = new Snapshot(new EnumMap<>(Status.class), null);
+
+  public OrderStatusCounters(OrderRepository orderRepository) {
+    this.orderRepository = orderRepository;
+    for (Status status : Status.values()) {
+      changes.put(status, new LongAdder());
+    }
+  }
+
+  public void ordersPlaced(int count) {
+    changes.get(Status.CREATED).add(count);
+  }
+
+  public void ordersMoved(Status source, Status target, int count) {
+    changes.get(source).add(-count);
+    changes.get(target).add(count);
+  }
+
+  public long count(Status status) {
+    return bases.counts().getOrDefault(status, 0L) + changes.get(status).sum();
+  }
+
+  public Map<Status, Long> counts() {
+    Map<Status, Long> counts = new EnumMap<>(Status.class);
+    for (Status status : Status.values()) {
+      counts.put(status, count(status));
+    }
+    return counts;
+  }
+
+  /** When the counts were last reconciled with the database, {@code null} before the first time. */
+  public OffsetDateTime reconciledAt() {
+    return bases.takenAt();
+  }
+
+  /**
+   * Replaces the bases with a fresh {@code GROUP BY} over the orders. The changes recorded before
+   * the query are subtracted from the new bases, so only the ones recorded after it still count.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      fixedDelayString = "${orders.stats.reconcile-interval:5m}",
+      initialDelayString = "${orders.stats.reconcile-interval:5m}")
+  public void reconcile() {
+    reconcileLock.lock();
+    try {
+      Map<Status, Long> before = new EnumMap<>(Status.class);
+      for (Status status : Status.values()) {
+        before.put(status, changes.get(status).sum());
+      }
+      Map<Status, Long> fresh = new EnumMap<>(Status.class);
+      for (StatusCountView row : orderRepository.countByStatus()) {
+        fresh.put(row.getStatus(), row.getCount());
+      }
+
+      Map<Status, Long> next = new EnumMap<>(Status.class);
+      long drift = 0;
+      for (Status status : Status.values()) {
+        long actual = fresh.getOrDefault(status, 0L);
+        drift += Math.abs(actual - bases.counts().getOrDefault(status, 0L) - before.get(status));
+        next.put(status, actual - before.get(status));
+      }
+      bases = new Snapshot(next, OffsetDateTime.now());
+      if (drift > 0) {
+        log.info("Reconciled order status counters with the database, off by {}", drift);
+      }
+    } finally {
+      reconcileLock.unlock();
+    }
+  }
+
+  private record Snapshot(Map<Status, Long> counts, OffsetDateTime takenAt) {}
+}
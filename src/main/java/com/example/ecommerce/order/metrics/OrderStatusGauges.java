@@ -0,0 +1,25 @@
+package com.example.ecommerce.order.metrics;
+
+import com.example.ecommerce.order.model.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@code orders.by.status} gauge per {@link Status}, read from the in-memory {@link
+ * OrderStatusCounters}, so scrapes never query the database.
+ */
+@Component
+public class OrderStatusGauges {
+
+  public static final String NAME = "orders.by.status";
+
+  public OrderStatusGauges(OrderStatusCounters counters, MeterRegistry meterRegistry) {
+    for (Status status : Status.values()) {
+      Gauge.builder(NAME, counters, c -> c.count(status))
+          .description("Orders currently in each status")
+          .tag("status", status.name())
+          .register(meterRegistry);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.ecommerce.order.outbox;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes every {@link OrderEvent} as a Spring application event, so in-process code can react
+ * with an {@code @EventListener(OrderEvent.class)} method. A listener that throws fails the batch,
+ * which is then retried like a failed webhook call.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.outbox.application-events.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ApplicationEventOrderEventSink implements OrderEventSink {
+
+  private final ApplicationEventPublisher publisher;
+
+  public ApplicationEventOrderEventSink(ApplicationEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @Override
+  public String name() {
+    return "application";
+  }
+
+  @Override
+  public void deliver(List<OrderEvent> events) {
+    for (OrderEvent event : events) {
+      publisher.publishEvent(event);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.ecommerce.order.outbox;
+
+import com.example.ecommerce.order.model.Status;
+import java.time.OffsetDateTime;
+
+/**
+ * What sinks receive: order {@code orderId} reached {@code status} at {@code occurredAt}. Delivery
+ * is at least once, so consumers should ignore an {@code eventId} they have already processed.
+ */
+public record OrderEvent(Long eventId, Long orderId, Status status, OffsetDateTime occurredAt) {}
@@ -0,0 +1,16 @@
+package com.example.ecommerce.order.outbox;
+
+import java.util.List;
+
+/**
+ * A destination for order events. Every sink bean receives every event; {@link #deliver} gets at
+ * most one event per order per call, in the order they happened across calls.
+ */
+public interface OrderEventSink {
+
+  /** Used as the {@code sink} tag of the dispatch metrics. */
+  String name();
+
+  /** Delivers the events or throws, in which case the whole batch is retried later. */
+  void deliver(List<OrderEvent> events) throws Exception;
+}
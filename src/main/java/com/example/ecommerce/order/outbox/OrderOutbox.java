@@ -0,0 +1,40 @@
+package com.example.ecommerce.order.outbox;
+
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records order events in the outbox. Callers run these inside the transaction of the order change,
+ * so an event exists exactly when its change committed; {@link OutboxDispatcher} delivers them.
+ */
+@Component
+public class OrderOutbox {
+
+  private final OutboxRepository outboxRepository;
+
+  public OrderOutbox(OutboxRepository outboxRepository) {
+    this.outboxRepository = outboxRepository;
+  }
+
+  public void ordersPlaced(Collection<Order> orders) {
+    List<OutboxEvent> events = new ArrayList<>(orders.size());
+    for (Order order : orders) {
+      events.add(new OutboxEvent(order.getId(), Status.CREATED, order.getCreatedAt()));
+    }
+    outboxRepository.saveAll(events);
+  }
+
+  public void ordersMoved(Status target, Collection<Long> orderIds) {
+    OffsetDateTime now = OffsetDateTime.now();
+    List<OutboxEvent> events = new ArrayList<>(orderIds.size());
+    for (Long orderId : orderIds) {
+      events.add(new OutboxEvent(orderId, target, now));
+    }
+    outboxRepository.saveAll(events);
+  }
+}
@@ -0,0 +1,6 @@
+package com.example.ecommerce.order.outbox;
+
+import java.time.OffsetDateTime;
+
+/** Size of the outbox and the time of its oldest event ({@code null} when it is empty). */
+public record OutboxBacklog(long pending, OffsetDateTime oldest) {}
@@ -0,0 +1,172 @@
+package com.example.ecommerce.order.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the outbox every {@code app.outbox.poll-interval}: due events are read in batches of
+ * {@code app.outbox.batch-size}, handed to every {@link OrderEventSink} and deleted once all of
+ * them accepted the batch. A failed batch stays in the outbox and is retried after a backoff that
+ * doubles with each attempt, from {@code app.outbox.initial-backoff} up to {@code
+ * app.outbox.max-backoff}; sinks that already accepted it get it again (at-least-once).
+ *
+ * <p>Only the oldest pending event of each order is ever due, so an order's events reach the sinks
+ * in the order they happened even across retries, as long as one instance writes them (see {@link
+ * OutboxRepository#findDue}). Runs are serialized; with several application instances on one
+ * database, only one of them should dispatch.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+  public static final String DISPATCHED = "orders.outbox.dispatched";
+  public static final String DELIVERY_DELAY = "orders.outbox.delivery.delay";
+  public static final String PENDING = "orders.outbox.pending";
+  public static final String LAG = "orders.outbox.lag";
+
+  private final OutboxRepository outboxRepository;
+  private final List<OrderEventSink> sinks;
+  private final MeterRegistry meterRegistry;
+  private final int batchSize;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final Timer deliveryDelay;
+  private final ReentrantLock dispatchLock = new ReentrantLock();
+
+  private volatile OutboxBacklog backlog = new OutboxBacklog(0, null);
+
+  public OutboxDispatcher(
+      OutboxRepository outboxRepository,
+      List<OrderEventSink> sinks,
+      MeterRegistry meterRegistry,
+      @Value("${app.outbox.batch-size:100}") int batchSize,
+      @Value("${app.outbox.initial-backoff:1s}") Duration initialBackoff,
+      @Value("${app.outbox.max-backoff:5m}") Duration maxBackoff) {
+    this.outboxRepository = outboxRepository;
+    this.sinks = sinks;
+    this.meterRegistry = meterRegistry;
+    this.batchSize = batchSize;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.deliveryDelay =
+        Timer.builder(DELIVERY_DELAY)
+            .description("Time from an order change to the delivery of its event")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    Gauge.builder(PENDING, this, dispatcher -> dispatcher.backlog.pending())
+        .description("Order events waiting in the outbox after the last dispatch run")
+        .register(meterRegistry);
+    Gauge.builder(LAG, this, OutboxDispatcher::lagSeconds)
+        .description("Age of the oldest order event still in the outbox")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    for (OrderEventSink sink : sinks) {
+      log.info("Order events are dispatched to the {} sink", sink.name());
+    }
+  }
+
+  @Scheduled(
+      fixedDelayString = "${app.outbox.poll-interval:1s}",
+      initialDelayString = "${app.outbox.poll-interval:1s}")
+  void poll() {
+    dispatch();
+  }
+
+  /** Delivers every due event, batch by batch, and returns how many were delivered. */
+  public int dispatch() {
+    dispatchLock.lock();
+    try {
+      int delivered = 0;
+      while (true) {
+        List<OutboxEvent> due = outboxRepository.findDue(OffsetDateTime.now(), Limit.of(batchSize));
+        if (due.isEmpty() || !deliver(due)) {
+          return delivered;
+        }
+        delivered += due.size();
+      }
+    } finally {
+      backlog = outboxRepository.findBacklog();
+      dispatchLock.unlock();
+    }
+  }
+
+  private boolean deliver(List<OutboxEvent> due) {
+    List<OrderEvent> events = due.stream().map(OutboxEvent::toOrderEvent).toList();
+    for (OrderEventSink sink : sinks) {
+      try {
+        sink.deliver(events);
+      } catch (Exception e) {
+        dispatched(sink, "failed").increment(events.size());
+        scheduleRetry(due, sink, e);
+        return false;
+      }
+      dispatched(sink, "delivered").increment(events.size());
+    }
+
+    outboxRepository.deleteByIdIn(due.stream().map(OutboxEvent::getId).toList());
+    OffsetDateTime now = OffsetDateTime.now();
+    for (OutboxEvent event : due) {
+      deliveryDelay.record(Duration.between(event.getOccurredAt(), now));
+    }
+    return true;
+  }
+
+  private void scheduleRetry(List<OutboxEvent> due, OrderEventSink sink, Exception failure) {
+    String error = sink.name() + ": " + failure;
+    if (error.length() > OutboxEvent.MAX_ERROR_LENGTH) {
+      error = error.substring(0, OutboxEvent.MAX_ERROR_LENGTH);
+    }
+    OffsetDateTime now = OffsetDateTime.now();
+    Map<Integer, List<Long>> idsByAttempts =
+        due.stream()
+            .collect(
+                Collectors.groupingBy(
+                    OutboxEvent::getAttempts,
+                    Collectors.mapping(OutboxEvent::getId, Collectors.toList())));
+    for (Map.Entry<Integer, List<Long>> entry : idsByAttempts.entrySet()) {
+      outboxRepository.scheduleRetry(
+          entry.getValue(), now.plus(backoff(entry.getKey() + 1)), error);
+    }
+    log.warn(
+        "Could not deliver {} order events to the {} sink, retrying them later",
+        due.size(),
+        sink.name(),
+        failure);
+  }
+
+  /** {@code initial-backoff} doubled for every attempt after the first, at most {@code max}. */
+  Duration backoff(int attempt) {
+    int doublings = Math.min(attempt - 1, 30);
+    Duration backoff = initialBackoff.multipliedBy(1L << doublings);
+    return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+  }
+
+  private double lagSeconds() {
+    OffsetDateTime oldest = backlog.oldest();
+    if (oldest == null) {
+      return 0;
+    }
+    return Duration.between(oldest, OffsetDateTime.now()).toMillis() / 1000.0;
+  }
+
+  private Counter dispatched(OrderEventSink sink, String outcome) {
+    return Counter.builder(DISPATCHED)
+        .description("Order events handed to a sink, by outcome")
+        .tag("sink", sink.name())
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.ecommerce.order.outbox;
+
+import com.example.ecommerce.order.model.Status;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An order event waiting to be delivered. Written in the transaction of the order change it
+ * describes and deleted once every sink has received it, so the table only holds the backlog.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+    name = "order_outbox",
+    indexes = {
+      // The dispatcher only takes the oldest pending event of each order
+      @Index(name = "order_outbox_order_idx", columnList = "order_id, id"),
+      @Index(name = "order_outbox_next_attempt_idx", columnList = "next_attempt_at")
+    })
+public class OutboxEvent {
+
+  public static final int MAX_ERROR_LENGTH = 500;
+
+  // Pooled like the orders, so the events of a bulk transition are inserted in JDBC batches
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+  @SequenceGenerator(
+      name = "order_outbox_seq",
+      sequenceName = "order_outbox_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long orderId;
+
+  /** The status the order reached; {@code CREATED} for a new order. */
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Status status;
+
+  @Column(nullable = false)
+  private OffsetDateTime occurredAt;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(nullable = false)
+  private OffsetDateTime nextAttemptAt;
+
+  @Column(length = MAX_ERROR_LENGTH)
+  private String lastError;
+
+  public OutboxEvent(Long orderId, Status status, OffsetDateTime occurredAt) {
+    this(null, orderId, status, occurredAt, 0, occurredAt, null);
+  }
+
+  public OrderEvent toOrderEvent() {
+    return new OrderEvent(id, orderId, status, occurredAt);
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.ecommerce.order.outbox;
+
+import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+  /**
+   * Returns the due events, oldest id first. Only the oldest pending event of an order is due: a
+   * later one waits while an earlier one is being retried.
+   *
+   * <p>This keeps every order's events in sequence only while a single instance writes them. Ids
+   * are pooled in blocks of 50 per instance, so with several instances an order's later event can
+   * take a lower id from another instance's block and be delivered first.
+   */
+  @Query(
+      "SELECT e FROM OutboxEvent e WHERE e.nextAttemptAt <= :now"
+          + " AND NOT EXISTS (SELECT 1 FROM OutboxEvent p WHERE p.orderId = e.orderId AND p.id < e.id)"
+          + " ORDER BY e.id")
+  List<OutboxEvent> findDue(@Param("now") OffsetDateTime now, Limit limit);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+  int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt,"
+          + " e.lastError = :error WHERE e.id IN :ids")
+  int scheduleRetry(
+      @Param("ids") Collection<Long> ids,
+      @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+      @Param("error") String error);
+
+  @Query(
+      "SELECT new com.example.ecommerce.order.outbox.OutboxBacklog(COUNT(e), MIN(e.occurredAt))"
+          + " FROM OutboxEvent e")
+  OutboxBacklog findBacklog();
+}
@@ -0,0 +1,49 @@
+package com.example.ecommerce.order.outbox;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * POSTs each batch as a JSON array of {@link OrderEvent}s to {@code app.outbox.webhook.url}. Any
+ * response other than 2xx, or no response within {@code app.outbox.webhook.timeout}, fails the
+ * batch.
+ */
+@Component
+@ConditionalOnProperty("app.outbox.webhook.url")
+public class WebhookOrderEventSink implements OrderEventSink {
+
+  private final RestClient restClient;
+  private final String url;
+
+  public WebhookOrderEventSink(
+      RestClient.Builder restClientBuilder,
+      @Value("${app.outbox.webhook.url}") String url,
+      @Value("${app.outbox.webhook.timeout:5s}") Duration timeout) {
+    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory();
+    requestFactory.setReadTimeout(timeout);
+    this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    this.url = url;
+  }
+
+  @Override
+  public String name() {
+    return "webhook";
+  }
+
+  @Override
+  public void deliver(List<OrderEvent> events) {
+    restClient
+        .post()
+        .uri(url)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(events)
+        .retrieve()
+        .toBodilessEntity();
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.ecommerce.order.pagination;
+
+import com.example.ecommerce.order.exception.InvalidCursorException;
+import com.example.ecommerce.order.projection.OrderRow;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position in an order listing sorted by {@code (createdAt, id)} descending. Clients only
+ * see the opaque token produced by {@link #encode()}, so the format can change without notice.
+ */
+public record OrderCursor(OffsetDateTime createdAt, Long id) {
+
+  public static OrderCursor after(OrderRow row) {
+    return new OrderCursor(row.createdAt(), row.id());
+  }
+
+  public String encode() {
+    Instant instant = createdAt.toInstant();
+    String raw = instant.getEpochSecond() + "." + instant.getNano() + "." + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  public static OrderCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+      String[] parts = raw.split("\\.");
+      if (parts.length != 3) {
+        throw new InvalidCursorException(token);
+      }
+      Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+      return new OrderCursor(instant.atOffset(ZoneOffset.UTC), Long.parseLong(parts[2]));
+    } catch (IllegalArgumentException | DateTimeException e) {
+      throw new InvalidCursorException(token);
+    }
+  }
+}
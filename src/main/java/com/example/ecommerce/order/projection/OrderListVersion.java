@@ -0,0 +1,19 @@
+package com.example.ecommerce.order.projection;
+
+import java.util.List;
+
+/**
+ * Version of a list of orders: how many there are and the sum of their versions. Creating an order
+ * raises the count and every transition the sum, and neither ever goes down, so the pair changes
+ * whenever the list does.
+ */
+public record OrderListVersion(long count, long versionSum) {
+
+  public static OrderListVersion of(List<Long> versions) {
+    long sum = 0;
+    for (Long version : versions) {
+      sum += version;
+    }
+    return new OrderListVersion(versions.size(), sum);
+  }
+}
@@ -0,0 +1,4 @@
+package com.example.ecommerce.order.projection;
+
+/** One {@code orders_product} link. */
+public record OrderProductLink(Long orderId, Long productId) {}
@@ -0,0 +1,22 @@
+package com.example.ecommerce.order.projection;
+
+import com.example.ecommerce.order.model.Status;
+import java.time.OffsetDateTime;
+
+/**
+ * One row of {@code orders LEFT JOIN orders_product}: the order columns repeated for each of its
+ * products ({@code productId} is {@code null} for an order without products).
+ */
+public record OrderProductRow(
+    Long id,
+    OffsetDateTime createdAt,
+    Status status,
+    Long customerId,
+    Long version,
+    Long productId) {
+
+  /** The order columns of this row. */
+  public OrderRow order() {
+    return new OrderRow(id, createdAt, status, customerId, version);
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.ecommerce.order.projection;
+
+import com.example.ecommerce.order.model.Status;
+import java.time.OffsetDateTime;
+
+/**
+ * The scalar columns of one {@code orders} row, read without hydrating an {@code Order}. Only the
+ * queries behind ETags read the {@code version}; it is {@code null} elsewhere.
+ */
+public record OrderRow(
+    Long id, OffsetDateTime createdAt, Status status, Long customerId, Long version) {
+
+  public OrderRow(Long id, OffsetDateTime createdAt, Status status, Long customerId) {
+    this(id, createdAt, status, customerId, null);
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.ecommerce.order.projection;
+
+import com.example.ecommerce.order.model.Status;
+
+/** Just the columns the status transition rules look at, read without loading the order. */
+public interface OrderStateView {
+  Long getId();
+
+  Status getStatus();
+
+  int getProductCount();
+}
@@ -0,0 +1,10 @@
+package com.example.ecommerce.order.projection;
+
+import com.example.ecommerce.order.model.Status;
+
+/** Number of orders in one status. */
+public interface StatusCountView {
+  Status getStatus();
+
+  long getCount();
+}
@@ -1,31 +1,162 @@
 package com.example.ecommerce.order.repository;
 
 import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.projection.OrderListVersion;
+import com.example.ecommerce.order.projection.OrderProductLink;
+import com.example.ecommerce.order.projection.OrderProductRow;
+import com.example.ecommerce.order.projection.OrderRow;
+import com.example.ecommerce.order.projection.OrderStateView;
+import com.example.ecommerce.order.projection.StatusCountView;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
+
+  int EXPORT_FETCH_SIZE = 1_000;
+
+  // Status transitions are compare-and-set: the guard is part of the UPDATE, so the returned row
+  // count is 1 only for the caller that actually moved the order. Each also bumps the version.
+
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE Order o SET o.status = PAID, o.version = o.version + 1"
+          + " WHERE o.id = :orderId AND o.status = CREATED AND o.products IS NOT EMPTY")
+  int updateOrderStatusToPaidById(@Param("orderId") Long orderId);
+
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE Order o SET o.status = SHIPPED, o.version = o.version + 1"
+          + " WHERE o.id = :orderId AND o.status = PAID")
+  int updateOrderStatusToShippedById(@Param("orderId") Long orderId);
+
+  @Modifying
+  @Transactional
+  @Query(
+      "UPDATE Order o SET o.status = DELIVERED, o.version = o.version + 1"
+          + " WHERE o.id = :orderId AND o.status = SHIPPED")
+  int updateOrderStatusToDeliveredById(@Param("orderId") Long orderId);
 
   @Modifying
   @Transactional
-  @Query("UPDATE Order o SET o.status = PAID WHERE o.id = :orderId")
-  void updateOrderStatusToPaidById(@Param("orderId") Long orderId);
+  @Query(
+      "UPDATE Order o SET o.status = PAID, o.version = o.version + 1"
+          + " WHERE o.id IN :orderIds AND o.status = CREATED AND o.products IS NOT EMPTY")
+  int updateOrderStatusToPaidByIdIn(@Param("orderIds") Collection<Long> orderIds);
 
   @Modifying
   @Transactional
-  @Query("UPDATE Order o SET o.status = SHIPPED WHERE o.id = :orderId")
-  void updateOrderStatusToShippedById(@Param("orderId") Long orderId);
+  @Query(
+      "UPDATE Order o SET o.status = SHIPPED, o.version = o.version + 1"
+          + " WHERE o.id IN :orderIds AND o.status = PAID")
+  int updateOrderStatusToShippedByIdIn(@Param("orderIds") Collection<Long> orderIds);
 
   @Modifying
   @Transactional
-  @Query("UPDATE Order o SET o.status = DELIVERED WHERE o.id = :orderId")
-  void updateOrderStatusToDeliveredById(@Param("orderId") Long orderId);
+  @Query(
+      "UPDATE Order o SET o.status = DELIVERED, o.version = o.version + 1"
+          + " WHERE o.id IN :orderIds AND o.status = SHIPPED")
+  int updateOrderStatusToDeliveredByIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+  @Query(
+      "SELECT o.id AS id, o.status AS status, SIZE(o.products) AS productCount FROM Order o"
+          + " WHERE o.id = :orderId")
+  Optional<OrderStateView> findStateById(@Param("orderId") Long orderId);
+
+  @Query(
+      "SELECT o.id AS id, o.status AS status, SIZE(o.products) AS productCount FROM Order o"
+          + " WHERE o.id IN :orderIds")
+  List<OrderStateView> findStatesByIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+  // Read paths project straight into OrderRow and orders_product ids: no entities are hydrated,
+  // so nothing enters the persistence context and there is nothing to dirty check.
+
+  // One order and its product IDs in a single statement: a row per product, or one row with a
+  // null product ID for an order without products. Empty if the order does not exist.
+  @Query(
+      "SELECT new com.example.ecommerce.order.projection.OrderProductRow("
+          + "o.id, o.createdAt, o.status, o.customer.id, o.version, p.id)"
+          + " FROM Order o LEFT JOIN o.products p WHERE o.id = :orderId")
+  List<OrderProductRow> findRowWithProductsById(@Param("orderId") Long orderId);
+
+  @Query(
+      "SELECT new com.example.ecommerce.order.projection.OrderRow("
+          + "o.id, o.createdAt, o.status, o.customer.id, o.version) FROM Order o"
+          + " WHERE o.customer.id = :customerId ORDER BY o.id")
+  List<OrderRow> findRowsByCustomerId(@Param("customerId") Long customerId);
+
+  // Version-only reads for conditional GETs: no products, no mapping.
+
+  @Query("SELECT o.version FROM Order o WHERE o.id = :orderId")
+  Optional<Long> findVersionById(@Param("orderId") Long orderId);
+
+  @Query(
+      "SELECT new com.example.ecommerce.order.projection.OrderListVersion("
+          + "COUNT(o), COALESCE(SUM(o.version), 0)) FROM Order o"
+          + " WHERE o.customer.id = :customerId")
+  OrderListVersion findListVersionByCustomerId(@Param("customerId") Long customerId);
+
+  @Query(
+      "SELECT new com.example.ecommerce.order.projection.OrderRow("
+          + "o.id, o.createdAt, o.status, o.customer.id) FROM Order o"
+          + " WHERE o.customer.id = :customerId"
+          + " ORDER BY o.createdAt DESC, o.id DESC")
+  List<OrderRow> findRowsByCustomerId(@Param("customerId") Long customerId, Limit limit);
+
+  @Query(
+      "SELECT new com.example.ecommerce.order.projection.OrderRow("
+          + "o.id, o.createdAt, o.status, o.customer.id) FROM Order o"
+          + " WHERE o.customer.id = :customerId"
+          + " AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :orderId))"
+          + " ORDER BY o.createdAt DESC, o.id DESC")
+  List<OrderRow> findRowsByCustomerIdBefore(
+      @Param("customerId") Long customerId,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("orderId") Long orderId,
+      Limit limit);
+
+  // Forward-only cursor for exports: rows are fetched from the driver in blocks and never become
+  // managed entities, so memory use does not depend on how many orders match.
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(
+      "SELECT new com.example.ecommerce.order.projection.OrderProductRow("
+          + "o.id, o.createdAt, o.status, o.customer.id, o.version, p.id)"
+          + " FROM Order o LEFT JOIN o.products p"
+          + " WHERE (:status IS NULL OR o.status = :status)"
+          + " AND (:from IS NULL OR o.createdAt >= :from)"
+          + " AND (:to IS NULL OR o.createdAt < :to)"
+          + " ORDER BY o.id")
+  Stream<OrderProductRow> streamForExport(
+      @Param("status") Status status,
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to);
+
+  // A constructor expression rather than an interface projection: Spring Data would wrap every
+  // row in a proxy, which cost more than the rows themselves at 100 products per order.
+  @Query(
+      "SELECT new com.example.ecommerce.order.projection.OrderProductLink(o.id, p.id)"
+          + " FROM Order o JOIN o.products p WHERE o.id IN :orderIds")
+  List<OrderProductLink> findProductIdsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 
-  List<Order> findByCustomerId(Long customerId);
+  @Query("SELECT o.status AS status, COUNT(o) AS count FROM Order o GROUP BY o.status")
+  List<StatusCountView> countByStatus();
 }
@@ -0,0 +1,10 @@
+package com.example.ecommerce.order.repository;
+
+import com.example.ecommerce.order.model.Status;
+import java.time.OffsetDateTime;
+
+/**
+ * Filters of an order search; a {@code null} field does not filter. {@code from} is inclusive and
+ * {@code to} exclusive.
+ */
+public record OrderSearch(Status status, Long customerId, OffsetDateTime from, OffsetDateTime to) {}
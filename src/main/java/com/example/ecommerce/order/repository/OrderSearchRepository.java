@@ -0,0 +1,14 @@
+package com.example.ecommerce.order.repository;
+
+import com.example.ecommerce.order.pagination.OrderCursor;
+import com.example.ecommerce.order.projection.OrderRow;
+import java.util.List;
+
+public interface OrderSearchRepository {
+
+  /**
+   * Returns up to {@code limit} orders matching {@code search}, newest first by {@code (createdAt,
+   * id)}, starting after {@code after} when it is not {@code null}.
+   */
+  List<OrderRow> search(OrderSearch search, OrderCursor after, int limit);
+}
@@ -1,51 +1,272 @@
 package com.example.ecommerce.order.service;
 
 import com.example.ecommerce.customer.model.Customer;
-import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.summary.CustomerSummaryUpdater;
+import com.example.ecommerce.order.cache.OrderCache;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO.RejectedOrderDTO;
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
 import com.example.ecommerce.order.dto.OrderCreateDTO;
 import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.dto.OrderStatsDTO;
 import com.example.ecommerce.order.exception.CustomerNotFoundException;
 import com.example.ecommerce.order.exception.EmptyProductsException;
+import com.example.ecommerce.order.exception.IdempotencyKeyConflictException;
 import com.example.ecommerce.order.exception.OrderNotFoundException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotCreatedException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotPaidException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotShippedException;
+import com.example.ecommerce.order.idempotency.IdempotencyKey;
+import com.example.ecommerce.order.idempotency.OrderIdempotency;
+import com.example.ecommerce.order.idempotency.StoredOrder;
 import com.example.ecommerce.order.mapper.OrderMapper;
+import com.example.ecommerce.order.metrics.OrderMetrics;
+import com.example.ecommerce.order.metrics.OrderStatusCounters;
 import com.example.ecommerce.order.model.Order;
 import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.outbox.OrderOutbox;
+import com.example.ecommerce.order.pagination.OrderCursor;
+import com.example.ecommerce.order.projection.OrderProductLink;
+import com.example.ecommerce.order.projection.OrderProductRow;
+import com.example.ecommerce.order.projection.OrderRow;
+import com.example.ecommerce.order.projection.OrderStateView;
 import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.repository.OrderSearch;
+import com.example.ecommerce.product.catalog.ProductCatalog;
 import com.example.ecommerce.product.model.Product;
-import com.example.ecommerce.product.repository.ProductRepository;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
 @Service
 public class OrderService {
 
+  public static final int MAX_BATCH_SIZE = 10_000;
+  public static final int MAX_BULK_SIZE = 100_000;
+  public static final int BULK_CHUNK_SIZE = 1_000;
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 200;
+
   private final OrderRepository orderRepository;
-  private final CustomerRepository customerRepository;
-  private final ProductRepository productRepository;
+  private final CustomerRegistry customerRegistry;
+  private final ProductCatalog productCatalog;
   private final OrderMapper orderMapper;
+  private final OrderCache orderCache;
+  private final OrderMetrics orderMetrics;
+  private final CustomerSummaryUpdater customerSummaries;
+  private final OrderStatusCounters statusCounters;
+  private final OrderOutbox orderOutbox;
+  private final OrderIdempotency idempotency;
+  private final TransactionOperations transactions;
 
   public OrderService(
       OrderRepository orderRepository,
-      CustomerRepository customerRepository,
-      ProductRepository productRepository,
-      OrderMapper orderMapper) {
+      CustomerRegistry customerRegistry,
+      ProductCatalog productCatalog,
+      OrderMapper orderMapper,
+      OrderCache orderCache,
+      OrderMetrics orderMetrics,
+      CustomerSummaryUpdater customerSummaries,
+      OrderStatusCounters statusCounters,
+      OrderOutbox orderOutbox,
+      OrderIdempotency idempotency,
+      TransactionOperations transactions) {
     this.orderRepository = orderRepository;
-    this.customerRepository = customerRepository;
-    this.productRepository = productRepository;
+    this.customerRegistry = customerRegistry;
+    this.productCatalog = productCatalog;
     this.orderMapper = orderMapper;
+    this.orderCache = orderCache;
+    this.orderMetrics = orderMetrics;
+    this.customerSummaries = customerSummaries;
+    this.statusCounters = statusCounters;
+    this.orderOutbox = orderOutbox;
+    this.idempotency = idempotency;
+    this.transactions = transactions;
   }
 
   public OrderDTO getOrderById(Long orderId) {
-    Order order =
-        orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-    ;
-    return orderMapper.toDTO(order);
+    return orderCache
+        .get(orderId, this::loadOrder)
+        .orElseThrow(() -> new OrderNotFoundException(orderId));
+  }
+
+  /**
+   * The order's current version, for ETags: taken from the cached order when one is loaded, else
+   * read on its own by primary key, without the products. Empty if the order does not exist.
+   */
+  public Optional<Long> getOrderVersion(Long orderId) {
+    Optional<Long> cached = orderCache.getIfLoaded(orderId).map(OrderDTO::getVersion);
+    return cached.isPresent() ? cached : orderRepository.findVersionById(orderId);
+  }
+
+  /** Orders per status from {@link OrderStatusCounters}; never queries the database. */
+  public OrderStatsDTO getStats() {
+    Map<Status, Long> counts = statusCounters.counts();
+    long total = counts.values().stream().mapToLong(Long::longValue).sum();
+    return new OrderStatsDTO(total, counts, statusCounters.reconciledAt());
+  }
+
+  private Optional<OrderDTO> loadOrder(Long orderId) {
+    List<OrderProductRow> rows = orderRepository.findRowWithProductsById(orderId);
+    if (rows.isEmpty()) {
+      return Optional.empty();
+    }
+    List<Long> productIds = new ArrayList<>(rows.size());
+    for (OrderProductRow row : rows) {
+      if (row.productId() != null) {
+        productIds.add(row.productId());
+      }
+    }
+    return Optional.of(orderMapper.toDTO(rows.get(0).order(), productIds));
+  }
+
+  /**
+   * Returns one page of the orders matching {@code search}, newest first, using keyset pagination
+   * on {@code (createdAt, id)} like the customer order history. The page size is capped at {@link
+   * #MAX_PAGE_SIZE}; a page costs two queries, the order rows and the product IDs of those rows.
+   */
+  public OrderPageDTO searchOrders(OrderSearch search, String cursor, int size) {
+    if (search.from() != null && search.to() != null && !search.from().isBefore(search.to())) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    OrderCursor after = cursor == null || cursor.isEmpty() ? null : OrderCursor.decode(cursor);
+
+    List<OrderRow> rows = orderRepository.search(search, after, pageSize + 1);
+    String nextCursor = null;
+    if (rows.size() > pageSize) {
+      rows = rows.subList(0, pageSize);
+      nextCursor = OrderCursor.after(rows.get(pageSize - 1)).encode();
+    }
+
+    if (rows.isEmpty()) {
+      return new OrderPageDTO(List.of(), null);
+    }
+    List<OrderProductLink> productLinks =
+        orderRepository.findProductIdsByOrderIdIn(rows.stream().map(OrderRow::id).toList());
+    return new OrderPageDTO(orderMapper.toDtoList(rows, productLinks), nextCursor);
+  }
+
+  /**
+   * Streams every order matching the filters to {@code sink}, in id order. Rows are read through a
+   * forward-only cursor and each order is handed over as soon as its last product row has been
+   * read, so only one order is held in memory at a time. Any filter may be {@code null}; {@code
+   * from} is inclusive and {@code to} exclusive.
+   */
+  @Transactional(readOnly = true)
+  public void exportOrders(
+      Status status, OffsetDateTime from, OffsetDateTime to, Consumer<OrderDTO> sink) {
+    try (Stream<OrderProductRow> rows = orderRepository.streamForExport(status, from, to)) {
+      OrderRow current = null;
+      List<Long> productIds = new ArrayList<>();
+      for (Iterator<OrderProductRow> it = rows.iterator(); it.hasNext(); ) {
+        OrderProductRow row = it.next();
+        if (current == null || !current.id().equals(row.id())) {
+          if (current != null) {
+            sink.accept(orderMapper.toDTO(current, productIds));
+            productIds = new ArrayList<>();
+          }
+          current = row.order();
+        }
+        if (row.productId() != null) {
+          productIds.add(row.productId());
+        }
+      }
+      if (current != null) {
+        sink.accept(orderMapper.toDTO(current, productIds));
+      }
+    }
+  }
+
+  /**
+   * Throws what {@link #createOrder} would throw for this request, without creating anything. Used
+   * to reject bad requests before they are queued for later creation.
+   */
+  public void validate(OrderCreateDTO orderCreateDto) {
+    if (orderCreateDto.getProductsId() == null || orderCreateDto.getProductsId().isEmpty()) {
+      throw new EmptyProductsException();
+    }
+    if (customerRegistry.findReference(orderCreateDto.getCustomerId()).isEmpty()) {
+      throw new CustomerNotFoundException(orderCreateDto.getCustomerId());
+    }
   }
 
   public OrderDTO createOrder(OrderCreateDTO orderCreateDto) {
+    return create(orderCreateDto, order -> {});
+  }
+
+  /**
+   * Creates the order once per {@code idempotencyKey}. A repeated key with the same customer and
+   * products returns the order the first request created, as it is now, without creating another;
+   * with a different customer or products it fails with {@link IdempotencyKeyConflictException}.
+   * The key is stored in the transaction that creates the order, so a failed creation can be
+   * retried with the same key.
+   */
+  public OrderDTO createOrder(OrderCreateDTO orderCreateDto, String idempotencyKey) {
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyKey.MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException(
+          "Idempotency-Key must have between 1 and "
+              + IdempotencyKey.MAX_KEY_LENGTH
+              + " characters");
+    }
+    String fingerprint = idempotency.fingerprint(orderCreateDto);
+    return idempotency.exclusively(
+        idempotencyKey,
+        () -> {
+          Optional<StoredOrder> stored = idempotency.find(idempotencyKey);
+          if (stored.isPresent()) {
+            return replay(idempotencyKey, fingerprint, stored.get());
+          }
+          StoredOrder[] created = new StoredOrder[1];
+          OrderDTO order;
+          try {
+            order =
+                create(
+                    orderCreateDto,
+                    saved ->
+                        created[0] = idempotency.store(idempotencyKey, fingerprint, saved.getId()));
+          } catch (DataIntegrityViolationException e) {
+            // Another instance stored the key first; our order was rolled back with the insert
+            return idempotency
+                .find(idempotencyKey)
+                .map(winner -> replay(idempotencyKey, fingerprint, winner))
+                .orElseThrow(() -> e);
+          }
+          idempotency.remember(idempotencyKey, created[0]);
+          return order;
+        });
+  }
+
+  private OrderDTO replay(String idempotencyKey, String fingerprint, StoredOrder stored) {
+    if (!stored.fingerprint().equals(fingerprint)) {
+      throw new IdempotencyKeyConflictException(idempotencyKey);
+    }
+    return getOrderById(stored.orderId());
+  }
+
+  /** Creates the order; {@code inTransaction} runs with the saved order before the commit. */
+  private OrderDTO create(OrderCreateDTO orderCreateDto, Consumer<Order> inTransaction) {
     if (orderCreateDto.getProductsId().size() == 0) {
       throw new EmptyProductsException();
     }
@@ -53,54 +274,310 @@ public class OrderService {
     Order order = orderMapper.toEntity(orderCreateDto);
 
     Customer customer =
-        customerRepository
-            .findById(orderCreateDto.getCustomerId())
+        customerRegistry
+            .findReference(orderCreateDto.getCustomerId())
             .orElseThrow(() -> new CustomerNotFoundException(orderCreateDto.getCustomerId()));
     ;
-    List<Product> products = productRepository.findAllById(orderCreateDto.getProductsId());
+    List<Product> products =
+        productCatalog.getAll(new LinkedHashSet<>(orderCreateDto.getProductsId()));
 
     order.setCustomer(customer);
     order.setProducts(products);
 
-    Order createdOrder = orderRepository.save(order);
-    return orderMapper.toDTO(createdOrder);
+    Order createdOrder =
+        transactions.execute(
+            tx -> {
+              Order saved = orderRepository.save(order);
+              orderOutbox.ordersPlaced(List.of(saved));
+              inTransaction.accept(saved);
+              return saved;
+            });
+    OrderDTO created = orderMapper.toDTO(createdOrder);
+    orderCache.put(created);
+    orderMetrics.ordersPlaced(1);
+    statusCounters.ordersPlaced(1);
+    customerSummaries.ordersPlaced(List.of(created.getId()));
+    return created;
   }
 
-  public void updateStatusToPaidById(Long orderId) {
-    Order order =
-        orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-    ;
+  /**
+   * Creates many orders at once. Customers for the whole batch are resolved with one query,
+   * products from the {@link ProductCatalog}, and the orders are persisted with a single {@code
+   * saveAll}, so Hibernate can group the {@code orders} and {@code orders_product} inserts into
+   * JDBC batches, together with their outbox events. Invalid items are reported in the result at
+   * their input index and do not prevent the rest from being created.
+   */
+  public List<OrderBatchResultDTO> createOrders(List<OrderCreateDTO> orderCreateDtos) {
+    if (orderCreateDtos.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(
+          "A batch cannot contain more than " + MAX_BATCH_SIZE + " orders");
+    }
 
-    if (order.getProducts().size() == 0) {
-      throw new EmptyProductsException();
-    } else if (order.getStatus() != Status.CREATED) {
-      throw new OrderStatusIsNotCreatedException();
+    Set<Long> customerIds = new HashSet<>();
+    for (OrderCreateDTO dto : orderCreateDtos) {
+      if (dto.getCustomerId() != null) {
+        customerIds.add(dto.getCustomerId());
+      }
+    }
+
+    Map<Long, Customer> customers = customerRegistry.findReferences(customerIds);
+
+    OrderBatchResultDTO[] results = new OrderBatchResultDTO[orderCreateDtos.size()];
+    List<Order> orders = new ArrayList<>();
+    List<Integer> orderIndexes = new ArrayList<>();
+
+    for (int i = 0; i < orderCreateDtos.size(); i++) {
+      OrderCreateDTO dto = orderCreateDtos.get(i);
+      if (dto.getProductsId() == null || dto.getProductsId().isEmpty()) {
+        results[i] =
+            OrderBatchResultDTO.rejected(
+                i, HttpStatus.CONFLICT, new EmptyProductsException().getMessage());
+        continue;
+      }
+
+      if (dto.getCustomerId() == null) {
+        results[i] =
+            OrderBatchResultDTO.rejected(i, HttpStatus.BAD_REQUEST, "customerId must not be null");
+        continue;
+      }
+
+      Customer customer = customers.get(dto.getCustomerId());
+      if (customer == null) {
+        results[i] =
+            OrderBatchResultDTO.rejected(
+                i,
+                HttpStatus.NOT_FOUND,
+                new CustomerNotFoundException(dto.getCustomerId()).getMessage());
+        continue;
+      }
+
+      Order order = orderMapper.toEntity(dto);
+      order.setCustomer(customer);
+      order.setProducts(productCatalog.getAll(new LinkedHashSet<>(dto.getProductsId())));
+      orders.add(order);
+      orderIndexes.add(i);
+    }
+
+    List<Order> createdOrders =
+        transactions.execute(
+            tx -> {
+              List<Order> saved = orderRepository.saveAll(orders);
+              orderOutbox.ordersPlaced(saved);
+              return saved;
+            });
+    List<Long> createdIds = new ArrayList<>(createdOrders.size());
+    for (int i = 0; i < createdOrders.size(); i++) {
+      int index = orderIndexes.get(i);
+      OrderDTO created = orderMapper.toDTO(createdOrders.get(i));
+      orderCache.put(created);
+      createdIds.add(created.getId());
+      results[index] = OrderBatchResultDTO.created(index, created);
+    }
+    orderMetrics.ordersPlaced(createdOrders.size());
+    statusCounters.ordersPlaced(createdOrders.size());
+    for (int from = 0; from < createdIds.size(); from += BULK_CHUNK_SIZE) {
+      customerSummaries.ordersPlaced(
+          createdIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, createdIds.size())));
     }
 
-    orderRepository.updateOrderStatusToPaidById(orderId);
+    return List.of(results);
+  }
+
+  public void updateStatusToPaidById(Long orderId) {
+    transition(orderId, Transition.PAY, orderRepository::updateOrderStatusToPaidById);
   }
 
   public void updateStatusToShippedById(Long orderId) {
-    Order order =
-        orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-    ;
+    transition(orderId, Transition.SHIP, orderRepository::updateOrderStatusToShippedById);
+  }
 
-    if (order.getStatus() != Status.PAID) {
-      throw new OrderStatusIsNotPaidException();
+  public void updateStatusToDeliveredById(Long orderId) {
+    transition(orderId, Transition.DELIVER, orderRepository::updateOrderStatusToDeliveredById);
+  }
+
+  public BulkTransitionResultDTO updateStatusToPaidByIds(List<Long> orderIds) {
+    return bulkTransition(orderIds, Transition.PAY, orderRepository::updateOrderStatusToPaidByIdIn);
+  }
+
+  public BulkTransitionResultDTO updateStatusToShippedByIds(List<Long> orderIds) {
+    return bulkTransition(
+        orderIds, Transition.SHIP, orderRepository::updateOrderStatusToShippedByIdIn);
+  }
+
+  public BulkTransitionResultDTO updateStatusToDeliveredByIds(List<Long> orderIds) {
+    return bulkTransition(
+        orderIds, Transition.DELIVER, orderRepository::updateOrderStatusToDeliveredByIdIn);
+  }
+
+  private void transition(Long orderId, Transition transition, ToIntFunction<Long> update) {
+    boolean moved =
+        transactions.execute(
+            tx -> {
+              if (update.applyAsInt(orderId) != 1) {
+                return false;
+              }
+              orderOutbox.ordersMoved(transition.target, List.of(orderId));
+              return true;
+            });
+    if (moved) {
+      orderCache.evict(orderId);
+      orderMetrics.transitionsAccepted(transition.target, 1);
+      statusCounters.ordersMoved(transition.source, transition.target, 1);
+      customerSummaries.ordersMoved(transition.target, orderId);
+      return;
     }
 
-    orderRepository.updateOrderStatusToShippedById(orderId);
+    // Only reached when the conditional update matched no row, to tell "missing" from "wrong
+    // state".
+    RuntimeException rejection =
+        transition.rejection(orderId, orderRepository.findStateById(orderId).orElse(null));
+    orderMetrics.transitionRejected(transition.target, rejection);
+    throw rejection;
   }
 
-  public void updateStatusToDeliveredById(Long orderId) {
-    Order order =
-        orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-    ;
+  /**
+   * Applies a transition to many orders with one state query and one guarded UPDATE per chunk of
+   * {@link #BULK_CHUNK_SIZE} IDs. Orders that break a rule are reported with the same exception
+   * message (and HTTP status) that the single-order endpoint would return.
+   *
+   * <p>Each chunk's UPDATE and outbox events commit together. If another request moved some of the
+   * chunk's orders between the read and the UPDATE, the chunk is rolled back and retried with the
+   * orders that are still allowed, so exactly the orders this request moved get events, counters
+   * and summary updates. Orders the other request moved are rejected like any order in the wrong
+   * state, so {@code updated} only lists what this request's UPDATEs committed. Statuses only move
+   * forward, so every retry has fewer orders.
+   */
+  private BulkTransitionResultDTO bulkTransition(
+      List<Long> orderIds, Transition transition, ToIntFunction<Collection<Long>> update) {
+    if (orderIds.size() > MAX_BULK_SIZE) {
+      throw new IllegalArgumentException(
+          "A bulk transition cannot contain more than " + MAX_BULK_SIZE + " orders");
+    }
+
+    BulkTransitionResultDTO result = new BulkTransitionResultDTO();
+    int accepted = 0;
+    List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+
+    for (int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+      List<Long> chunk =
+          distinctIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinctIds.size()));
+      Map<Long, OrderStateView> states = findStatesById(chunk);
 
-    if (order.getStatus() != Status.SHIPPED) {
-      throw new OrderStatusIsNotShippedException();
+      List<Long> allowed = new ArrayList<>();
+      for (Long orderId : chunk) {
+        OrderStateView state = states.get(orderId);
+        if (state != null && transition.allows(state)) {
+          allowed.add(orderId);
+        } else {
+          reject(result, orderId, transition, state);
+        }
+      }
+
+      List<Long> moved = moveChunk(result, allowed, transition, update);
+      if (moved.isEmpty()) {
+        continue;
+      }
+      result.getUpdated().addAll(moved);
+      accepted += moved.size();
+      statusCounters.ordersMoved(transition.source, transition.target, moved.size());
+      customerSummaries.ordersMoved(transition.target, moved);
     }
 
-    orderRepository.updateOrderStatusToDeliveredById(orderId);
+    orderMetrics.transitionsAccepted(transition.target, accepted);
+    return result;
+  }
+
+  /** Moves {@code allowed} in one transaction, retrying without orders that changed meanwhile. */
+  private List<Long> moveChunk(
+      BulkTransitionResultDTO result,
+      List<Long> allowed,
+      Transition transition,
+      ToIntFunction<Collection<Long>> update) {
+    List<Long> pending = allowed;
+    while (!pending.isEmpty()) {
+      List<Long> attempt = pending;
+      boolean committed =
+          transactions.execute(
+              tx -> {
+                if (update.applyAsInt(attempt) != attempt.size()) {
+                  tx.setRollbackOnly();
+                  return false;
+                }
+                orderOutbox.ordersMoved(transition.target, attempt);
+                return true;
+              });
+      orderCache.evictAll(attempt);
+      if (committed) {
+        return attempt;
+      }
+
+      // Orders another request moved meanwhile are rejected; only the rest are retried
+      Map<Long, OrderStateView> current = findStatesById(attempt);
+      pending = new ArrayList<>();
+      for (Long orderId : attempt) {
+        OrderStateView state = current.get(orderId);
+        if (state != null && transition.allows(state)) {
+          pending.add(orderId);
+        } else {
+          reject(result, orderId, transition, state);
+        }
+      }
+    }
+    return List.of();
+  }
+
+  private Map<Long, OrderStateView> findStatesById(Collection<Long> orderIds) {
+    return orderRepository.findStatesByIdIn(orderIds).stream()
+        .collect(Collectors.toMap(OrderStateView::getId, Function.identity()));
+  }
+
+  private void reject(
+      BulkTransitionResultDTO result, Long orderId, Transition transition, OrderStateView state) {
+    RuntimeException rejection = transition.rejection(orderId, state);
+    orderMetrics.transitionRejected(transition.target, rejection);
+    ResponseStatus status =
+        AnnotatedElementUtils.findMergedAnnotation(rejection.getClass(), ResponseStatus.class);
+    result
+        .getRejected()
+        .add(
+            new RejectedOrderDTO(
+                orderId,
+                status != null ? status.value().value() : HttpStatus.CONFLICT.value(),
+                rejection.getMessage()));
+  }
+
+  /** The business rules for each status change, shared by the single and bulk endpoints. */
+  private enum Transition {
+    PAY(Status.CREATED, Status.PAID, true),
+    SHIP(Status.PAID, Status.SHIPPED, false),
+    DELIVER(Status.SHIPPED, Status.DELIVERED, false);
+
+    private final Status source;
+    private final Status target;
+    private final boolean requiresProducts;
+
+    Transition(Status source, Status target, boolean requiresProducts) {
+      this.source = source;
+      this.target = target;
+      this.requiresProducts = requiresProducts;
+    }
+
+    boolean allows(OrderStateView state) {
+      return state.getStatus() == source && (!requiresProducts || state.getProductCount() > 0);
+    }
+
+    RuntimeException rejection(Long orderId, OrderStateView state) {
+      if (state == null) {
+        return new OrderNotFoundException(orderId);
+      }
+      if (requiresProducts && state.getProductCount() == 0) {
+        return new EmptyProductsException();
+      }
+      return switch (this) {
+        case PAY -> new OrderStatusIsNotCreatedException();
+        case SHIP -> new OrderStatusIsNotPaidException();
+        case DELIVER -> new OrderStatusIsNotShippedException();
+      };
+    }
   }
 }
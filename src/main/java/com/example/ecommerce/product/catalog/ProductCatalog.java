@@ -0,0 +1,99 @@
+package com.example.ecommerce.product.catalog;
+
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory copy of the product catalog used to resolve product IDs without a query. Readers get
+ * the current immutable {@link ProductSnapshot}; {@link #refresh()} builds a new one from the
+ * database and swaps it in. {@link ProductCatalogListener} triggers a refresh after every committed
+ * product change.
+ *
+ * <p>The returned products are detached copies shared by all callers and must not be modified. They
+ * carry the id, so they can be used as association targets of new orders.
+ */
+@Component
+public class ProductCatalog implements SmartInitializingSingleton {
+
+  private final ProductRepository productRepository;
+  private final TransactionTemplate readTransaction;
+
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  private volatile ProductSnapshot snapshot = new ProductSnapshot(List.of());
+
+  public ProductCatalog(
+      ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+    this.productRepository = productRepository;
+    // Refreshes run from after-commit callbacks, where the finished transaction is still bound.
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.readTransaction.setReadOnly(true);
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    refresh();
+  }
+
+  /**
+   * Reloads the catalog. Refreshes are serialized, so the last one to run always reads every change
+   * committed before it started and no older snapshot can replace a newer one.
+   */
+  public void refresh() {
+    refreshLock.lock();
+    try {
+      List<Product> products =
+          readTransaction.execute(
+              status ->
+                  productRepository.findAll().stream()
+                      .map(
+                          p -> new Product(p.getId(), p.getName(), p.getPrice(), new ArrayList<>()))
+                      .toList());
+      snapshot = new ProductSnapshot(products);
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /** Returns the product with this id, or {@code null} if the catalog does not contain it. */
+  public Product get(long productId) {
+    return snapshot.get(productId);
+  }
+
+  public boolean contains(long productId) {
+    return snapshot.get(productId) != null;
+  }
+
+  /**
+   * Resolves the given IDs against one snapshot, in input order. Unknown and {@code null} IDs are
+   * skipped; pass a set to get each product once.
+   */
+  public List<Product> getAll(Collection<Long> productIds) {
+    ProductSnapshot current = snapshot;
+    List<Product> products = new ArrayList<>(productIds.size());
+    for (Long productId : productIds) {
+      if (productId == null) {
+        continue;
+      }
+      Product product = current.get(productId);
+      if (product != null) {
+        products.add(product);
+      }
+    }
+    return products;
+  }
+
+  public int size() {
+    return snapshot.size();
+  }
+}
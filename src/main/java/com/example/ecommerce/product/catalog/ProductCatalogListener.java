@@ -0,0 +1,50 @@
+package com.example.ecommerce.product.catalog;
+
+import com.example.ecommerce.product.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Refreshes the {@link ProductCatalog} once per transaction that changed a product, after it
+ * commits. Changes made outside a transaction refresh immediately.
+ */
+@Component
+public class ProductCatalogListener {
+
+  // Hibernate creates entity listeners while the EntityManagerFactory is being built, before the
+  // catalog (which needs a repository) can exist.
+  private final ObjectProvider<ProductCatalog> productCatalog;
+
+  public ProductCatalogListener(ObjectProvider<ProductCatalog> productCatalog) {
+    this.productCatalog = productCatalog;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void productChanged(Product product) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      productCatalog.getObject().refresh();
+      return;
+    }
+    if (TransactionSynchronizationManager.hasResource(this)) {
+      return;
+    }
+    TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(ProductCatalogListener.this);
+            if (status == STATUS_COMMITTED) {
+              productCatalog.getObject().refresh();
+            }
+          }
+        });
+  }
+}
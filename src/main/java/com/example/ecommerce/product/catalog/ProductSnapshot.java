@@ -0,0 +1,59 @@
+package com.example.ecommerce.product.catalog;
+
+import com.example.ecommerce.product.model.Product;
+import java.util.List;
+
+/**
+ * Immutable open-addressing map from primitive product id to {@link Product}. Keys live in a {@code
+ * long[]} next to a parallel value array, so lookups neither box the id nor chase map entries.
+ * Built once per catalog version and never modified afterwards.
+ */
+final class ProductSnapshot {
+
+  private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+  private final long[] keys;
+  private final Product[] values;
+  private final int shift;
+  private final int size;
+
+  ProductSnapshot(List<Product> products) {
+    // Load factor of at most 0.5 keeps probe sequences short.
+    int capacity = Integer.highestOneBit(Math.max(2, products.size() * 2 - 1)) << 1;
+    this.keys = new long[capacity];
+    this.values = new Product[capacity];
+    this.shift = Long.numberOfLeadingZeros(capacity - 1);
+    int count = 0;
+    for (Product product : products) {
+      long id = product.getId();
+      int slot = slot(id);
+      while (values[slot] != null && keys[slot] != id) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      if (values[slot] == null) {
+        count++;
+      }
+      keys[slot] = id;
+      values[slot] = product;
+    }
+    this.size = count;
+  }
+
+  Product get(long id) {
+    int mask = keys.length - 1;
+    for (int slot = slot(id); ; slot = (slot + 1) & mask) {
+      Product product = values[slot];
+      if (product == null || keys[slot] == id) {
+        return product;
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  private int slot(long id) {
+    return (int) ((id * GOLDEN_RATIO) >>> shift);
+  }
+}
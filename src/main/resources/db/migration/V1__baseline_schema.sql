@@ -0,0 +1,71 @@
+-- The schema as Hibernate's ddl-auto=update created it from the entities, before migrations.
+-- Sequences step by 50 to match the pooled-lo allocation size of the entity ids.
+
+CREATE SEQUENCE customer_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE product_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE customer (
+    id    BIGINT       NOT NULL,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT customer_pk PRIMARY KEY (id),
+    CONSTRAINT customer_email_uk UNIQUE (email)
+);
+
+CREATE TABLE product (
+    id    BIGINT         NOT NULL,
+    name  VARCHAR(255)   NOT NULL,
+    price NUMERIC(38, 2) NOT NULL,
+    CONSTRAINT product_pk PRIMARY KEY (id)
+);
+
+CREATE TABLE orders (
+    id          BIGINT                      NOT NULL,
+    status      ENUM ('CREATED', 'PAID', 'SHIPPED', 'DELIVERED'),
+    created_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    customer_id BIGINT                      NOT NULL,
+    CONSTRAINT orders_pk PRIMARY KEY (id),
+    CONSTRAINT orders_customer_fk FOREIGN KEY (customer_id) REFERENCES customer (id)
+);
+
+CREATE TABLE orders_product (
+    order_id   BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    CONSTRAINT orders_product_order_fk FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT orders_product_product_fk FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE customer_summary (
+    customer_id      BIGINT                      NOT NULL,
+    created_orders   BIGINT                      NOT NULL,
+    paid_orders      BIGINT                      NOT NULL,
+    shipped_orders   BIGINT                      NOT NULL,
+    delivered_orders BIGINT                      NOT NULL,
+    lifetime_spend   NUMERIC(38, 2)              NOT NULL,
+    last_order_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT customer_summary_pk PRIMARY KEY (customer_id)
+);
+
+CREATE TABLE order_outbox (
+    id              BIGINT                                             NOT NULL,
+    order_id        BIGINT                                             NOT NULL,
+    status          ENUM ('CREATED', 'PAID', 'SHIPPED', 'DELIVERED')   NOT NULL,
+    occurred_at     TIMESTAMP(6) WITH TIME ZONE                        NOT NULL,
+    attempts        INTEGER                                            NOT NULL,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE                        NOT NULL,
+    last_error      VARCHAR(500),
+    CONSTRAINT order_outbox_pk PRIMARY KEY (id)
+);
+CREATE INDEX order_outbox_order_idx ON order_outbox (order_id, id);
+CREATE INDEX order_outbox_next_attempt_idx ON order_outbox (next_attempt_at);
+
+CREATE TABLE order_idempotency_key (
+    idempotency_key VARCHAR(255)                NOT NULL,
+    fingerprint     VARCHAR(64)                 NOT NULL,
+    order_id        BIGINT                      NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT order_idempotency_key_pk PRIMARY KEY (idempotency_key)
+);
+CREATE INDEX order_idempotency_key_created_idx ON order_idempotency_key (created_at);
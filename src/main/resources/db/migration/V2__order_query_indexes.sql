@@ -0,0 +1,29 @@
+-- Indexes for the order queries of OrderRepository. The foreign keys are dropped and added again
+-- after the indexes, so that they use these composite indexes instead of single-column ones of
+-- their own.
+
+ALTER TABLE orders DROP CONSTRAINT orders_customer_fk;
+ALTER TABLE orders_product DROP CONSTRAINT orders_product_order_fk;
+ALTER TABLE orders_product DROP CONSTRAINT orders_product_product_fk;
+
+-- Customer order history: WHERE customer_id = ? ORDER BY created_at DESC, id DESC, including the
+-- keyset condition on (created_at, id) of the following pages
+CREATE INDEX orders_customer_created_idx ON orders (customer_id, created_at DESC, id DESC);
+
+-- Status filters with an optional createdAt range, and the per-status counts
+CREATE INDEX orders_status_created_idx ON orders (status, created_at, id);
+
+-- createdAt ranges over all statuses
+CREATE INDEX orders_created_idx ON orders (created_at, id);
+
+-- Products of given orders (order side) and orders containing a product (product side); both
+-- cover the whole row, so neither needs to read the table
+CREATE INDEX orders_product_order_idx ON orders_product (order_id, product_id);
+CREATE INDEX orders_product_product_idx ON orders_product (product_id, order_id);
+
+ALTER TABLE orders ADD CONSTRAINT orders_customer_fk
+    FOREIGN KEY (customer_id) REFERENCES customer (id);
+ALTER TABLE orders_product ADD CONSTRAINT orders_product_order_fk
+    FOREIGN KEY (order_id) REFERENCES orders (id);
+ALTER TABLE orders_product ADD CONSTRAINT orders_product_product_fk
+    FOREIGN KEY (product_id) REFERENCES product (id);
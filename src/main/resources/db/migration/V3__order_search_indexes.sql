@@ -0,0 +1,8 @@
+-- GET /orders lists newest first. The status and createdAt indexes are rebuilt in that order, so a
+-- page is read as the first rows of an index range instead of being sorted after the scan.
+
+DROP INDEX orders_status_created_idx;
+CREATE INDEX orders_status_created_idx ON orders (status, created_at DESC, id DESC);
+
+DROP INDEX orders_created_idx;
+CREATE INDEX orders_created_idx ON orders (created_at DESC, id DESC);
@@ -0,0 +1,4 @@
+-- Version of an order for ETags: 0 on creation, bumped by every status transition in the same
+-- UPDATE. Existing rows start at 0 like new ones.
+
+ALTER TABLE orders ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
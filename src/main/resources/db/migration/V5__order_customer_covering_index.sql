@@ -0,0 +1,8 @@
+-- H2 gives every foreign key a single-column index of its own instead of reusing a composite one
+-- (the premise of V2), so the customer queries could be planned on orders_customer_fk's index and
+-- sort or read the table afterwards. The customer index now also carries the remaining columns
+-- that the history page and the list version read, so it covers them and wins that choice.
+
+DROP INDEX orders_customer_created_idx;
+CREATE INDEX orders_customer_created_idx
+    ON orders (customer_id, created_at DESC, id DESC, status, version);
@@ -0,0 +1,33 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.Application;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/** Boots the application without a web server on its own in-memory database for JMH states. */
+public final class BenchmarkContext {
+
+  private BenchmarkContext() {}
+
+  public static ConfigurableApplicationContext start(String... properties) {
+    System.setProperty("spring.devtools.restart.enabled", "false");
+
+    List<String> args = new ArrayList<>();
+    args.add("spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID());
+    args.add("spring.jpa.show-sql=false");
+    args.add("spring.main.banner-mode=off");
+    args.add("logging.level.root=WARN");
+    args.addAll(List.of(properties));
+
+    // Command-line arguments, which override application.properties; builder properties() would
+    // only set defaults beneath it
+    return new SpringApplicationBuilder(Application.class)
+        .web(WebApplicationType.NONE)
+        .logStartupInfo(false)
+        .run(args.stream().map(property -> "--" + property).toArray(String[]::new));
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.service.OrderService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Orders/sec when shipping a warehouse batch: one {@code PATCH /orders/{id}/ship} per order against
+ * a single {@code PATCH /orders/ship} for all of them. The batch is reset to PAID before each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkTransitionBenchmark {
+
+  private static final long FIRST_ORDER_ID = 1_000_000L;
+  private static final int ORDERS = 1_000;
+
+  private ConfigurableApplicationContext context;
+  private OrderService orderService;
+  private JdbcTemplate jdbcTemplate;
+  private List<Long> orderIds;
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context = BenchmarkContext.start();
+    orderService = context.getBean(OrderService.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+    orderIds = LongStream.range(FIRST_ORDER_ID, FIRST_ORDER_ID + ORDERS).boxed().toList();
+    jdbcTemplate.update(
+        "INSERT INTO orders (id, status, created_at, customer_id)"
+            + " SELECT X, 'PAID', CURRENT_TIMESTAMP, 1 FROM SYSTEM_RANGE(?, ?)",
+        FIRST_ORDER_ID,
+        FIRST_ORDER_ID + ORDERS - 1);
+  }
+
+  @Setup(Level.Invocation)
+  public void resetOrders() {
+    jdbcTemplate.update("UPDATE orders SET status = 'PAID' WHERE id >= ?", FIRST_ORDER_ID);
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ORDERS)
+  public void perIdLoop() {
+    for (Long orderId : orderIds) {
+      orderService.updateStatusToShippedById(orderId);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ORDERS)
+  public BulkTransitionResultDTO bulk() {
+    return orderService.updateStatusToShippedByIds(orderIds);
+  }
+}
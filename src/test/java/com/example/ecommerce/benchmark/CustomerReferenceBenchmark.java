@@ -0,0 +1,167 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.mapper.OrderMapper;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.catalog.ProductCatalog;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Cost of attaching the customer to a new order: loading it with {@code findById} against taking a
+ * reference from the {@link CustomerRegistry}, alone and as part of a full {@code createOrder}. The
+ * {@code statements} counter reports JDBC statements prepared per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerReferenceBenchmark {
+
+  private static final int CUSTOMERS = 10_000;
+  private static final int PRODUCTS = 100;
+
+  private ConfigurableApplicationContext context;
+  private Statistics statistics;
+  private CustomerRepository customerRepository;
+  private CustomerRegistry customerRegistry;
+  private ProductCatalog productCatalog;
+  private OrderRepository orderRepository;
+  private OrderMapper orderMapper;
+  private OrderService orderService;
+  private List<Long> customerIds;
+  private List<Long> productIds;
+
+  /** JDBC statements and operations of the iteration; their ratio is the per-order query count. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Statements {
+    public long statements;
+    public long operations;
+
+    void add(long count) {
+      statements += count;
+      operations++;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context = BenchmarkContext.start("spring.jpa.properties.hibernate.generate_statistics=true");
+    statistics =
+        context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    customerRepository = context.getBean(CustomerRepository.class);
+    customerRegistry = context.getBean(CustomerRegistry.class);
+    productCatalog = context.getBean(ProductCatalog.class);
+    orderRepository = context.getBean(OrderRepository.class);
+    orderMapper = context.getBean(OrderMapper.class);
+    orderService = context.getBean(OrderService.class);
+
+    List<Customer> customers = new ArrayList<>();
+    for (int i = 0; i < CUSTOMERS; i++) {
+      Customer customer = new Customer();
+      customer.setName("Customer " + i);
+      customer.setEmail("bench-" + i + "@example.com");
+      customers.add(customer);
+    }
+    customerIds = customerRepository.saveAll(customers).stream().map(Customer::getId).toList();
+
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < PRODUCTS; i++) {
+      Product product = new Product();
+      product.setName("Product " + i);
+      product.setPrice(BigDecimal.valueOf(1 + i));
+      products.add(product);
+    }
+    productIds =
+        context.getBean(ProductRepository.class).saveAll(products).stream()
+            .map(Product::getId)
+            .toList();
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  @Benchmark
+  public Customer findById(Statements counter) {
+    long before = statistics.getPrepareStatementCount();
+    Customer customer = customerRepository.findById(randomCustomer()).orElseThrow();
+    counter.add(statistics.getPrepareStatementCount() - before);
+    return customer;
+  }
+
+  @Benchmark
+  public Customer registryReference(Statements counter) {
+    long before = statistics.getPrepareStatementCount();
+    Customer customer = customerRegistry.findReference(randomCustomer()).orElseThrow();
+    counter.add(statistics.getPrepareStatementCount() - before);
+    return customer;
+  }
+
+  /** {@code createOrder} as it was before the registry: the customer is loaded first. */
+  @Benchmark
+  public OrderDTO createOrderLoadingCustomer(Statements counter) {
+    long before = statistics.getPrepareStatementCount();
+    OrderCreateDTO dto = randomOrder();
+    Order order = orderMapper.toEntity(dto);
+    order.setCustomer(customerRepository.findById(dto.getCustomerId()).orElseThrow());
+    order.setProducts(productCatalog.getAll(new LinkedHashSet<>(dto.getProductsId())));
+    OrderDTO created = orderMapper.toDTO(orderRepository.save(order));
+    counter.add(statistics.getPrepareStatementCount() - before);
+    return created;
+  }
+
+  @Benchmark
+  public OrderDTO createOrder(Statements counter) {
+    long before = statistics.getPrepareStatementCount();
+    OrderDTO created = orderService.createOrder(randomOrder());
+    counter.add(statistics.getPrepareStatementCount() - before);
+    return created;
+  }
+
+  private Long randomCustomer() {
+    return customerIds.get(ThreadLocalRandom.current().nextInt(customerIds.size()));
+  }
+
+  private OrderCreateDTO randomOrder() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    List<Long> products = new ArrayList<>(3);
+    for (int i = 0; i < 3; i++) {
+      products.add(productIds.get(random.nextInt(productIds.size())));
+    }
+    return new OrderCreateDTO(randomCustomer(), products);
+  }
+}
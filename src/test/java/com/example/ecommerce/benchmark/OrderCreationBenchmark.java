@@ -0,0 +1,113 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Orders/sec of {@code POST /orders} (one {@link OrderService#createOrder} per order) against
+ * {@code POST /orders/batch} ({@link OrderService#createOrders} for the whole burst).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderCreationBenchmark {
+
+  private static final int ORDERS_PER_INVOCATION = 1_000;
+  private static final int CUSTOMERS = 200;
+  private static final int PRODUCTS = 500;
+
+  private ConfigurableApplicationContext context;
+  private OrderService orderService;
+  private List<Long> customerIds;
+  private List<Long> productIds;
+  private List<OrderCreateDTO> orders;
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context = BenchmarkContext.start();
+    orderService = context.getBean(OrderService.class);
+
+    CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+    List<Customer> customers = new ArrayList<>();
+    for (int i = 0; i < CUSTOMERS; i++) {
+      Customer customer = new Customer();
+      customer.setName("Customer " + i);
+      customer.setEmail("bench-" + i + "@example.com");
+      customers.add(customer);
+    }
+    customerIds = customerRepository.saveAll(customers).stream().map(Customer::getId).toList();
+
+    ProductRepository productRepository = context.getBean(ProductRepository.class);
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < PRODUCTS; i++) {
+      Product product = new Product();
+      product.setName("Product " + i);
+      product.setPrice(BigDecimal.valueOf(1 + i));
+      products.add(product);
+    }
+    productIds = productRepository.saveAll(products).stream().map(Product::getId).toList();
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareOrders() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    orders = new ArrayList<>(ORDERS_PER_INVOCATION);
+    for (int i = 0; i < ORDERS_PER_INVOCATION; i++) {
+      int productCount = 1 + random.nextInt(5);
+      List<Long> products = new ArrayList<>(productCount);
+      for (int j = 0; j < productCount; j++) {
+        products.add(productIds.get(random.nextInt(productIds.size())));
+      }
+      orders.add(new OrderCreateDTO(customerIds.get(random.nextInt(customerIds.size())), products));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+  public void singleOrderPath(Blackhole blackhole) {
+    for (OrderCreateDTO order : orders) {
+      OrderDTO created = orderService.createOrder(order);
+      blackhole.consume(created);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+  public List<OrderBatchResultDTO> batchPath() {
+    return orderService.createOrders(orders);
+  }
+}
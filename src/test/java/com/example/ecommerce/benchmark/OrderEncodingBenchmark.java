@@ -0,0 +1,99 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.config.BinaryEncodingConfig;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.model.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding a customer's {@code List<OrderDTO>} as JSON, CBOR and Smile with the mappers the HTTP
+ * converters use: a typical 50-order page and a 5,000-order history, for orders of 3 and 50
+ * products. Next to time and allocation, the {@code bytes} and {@code operations} counters give the
+ * payload size per list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderEncodingBenchmark {
+
+  @Param({"json", "cbor", "smile"})
+  public String format;
+
+  @Param({"50", "5000"})
+  public int orders;
+
+  @Param({"3", "50"})
+  public int productsPerOrder;
+
+  private ObjectWriter writer;
+  private List<OrderDTO> dtos;
+
+  /** Encoded bytes and lists of the iteration; their ratio is the payload size. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Payload {
+    public long bytes;
+    public long operations;
+
+    void add(int size) {
+      bytes += size;
+      operations++;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void buildOrders() {
+    // Spring Boot's JSON mapper writes dates as ISO text
+    Jackson2ObjectMapperBuilder json =
+        Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    writer =
+        switch (format) {
+          case "json" -> json.build().writer();
+          case "cbor" -> BinaryEncodingConfig.binaryMapper(json, new CBORFactory()).writer();
+          case "smile" -> BinaryEncodingConfig.binaryMapper(json, new SmileFactory()).writer();
+          default -> throw new IllegalArgumentException(format);
+        };
+
+    OffsetDateTime now = OffsetDateTime.now();
+    dtos = new ArrayList<>(orders);
+    for (long id = 1; id <= orders; id++) {
+      List<Long> productIds =
+          LongStream.rangeClosed(1, productsPerOrder).map(p -> 1_000_000 + p).boxed().toList();
+      dtos.add(new OrderDTO(id, now.minusMinutes(id), Status.PAID, 42L, productIds, 1L));
+    }
+  }
+
+  @Benchmark
+  public byte[] encode(Payload payload) throws JsonProcessingException {
+    byte[] bytes = writer.writeValueAsBytes(dtos);
+    payload.add(bytes.length);
+    return bytes;
+  }
+}
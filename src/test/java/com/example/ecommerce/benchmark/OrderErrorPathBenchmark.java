@@ -0,0 +1,148 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.order.dto.ErrorDTO;
+import com.example.ecommerce.order.exception.OrderExceptionHandler;
+import com.example.ecommerce.order.exception.OrderNotFoundException;
+import com.example.ecommerce.order.exception.OrderStatusIsNotCreatedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * The error path of the order endpoints: building the {@link OrderExceptionHandler} response for an
+ * existing exception, creating, throwing and handling a new one as a rejected request does, and
+ * writing the body as JSON.
+ *
+ * <p>The {@code legacy*} methods keep the previous path as the baseline: an exception that fills in
+ * its stack trace and a {@code HashMap} body per response. Exceptions are thrown {@code depth}
+ * frames down, since a real request throws them below the servlet, filter, Spring MVC and service
+ * frames; 0 shows the cost without any stack to walk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderErrorPathBenchmark {
+
+  @Param({"0", "100"})
+  public int depth;
+
+  private final OrderExceptionHandler handler = new OrderExceptionHandler();
+  private final OrderNotFoundException notFound = new OrderNotFoundException(42L);
+  private final ObjectWriter writer =
+      Jackson2ObjectMapperBuilder.json()
+          .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+          .build()
+          .writer();
+  private long orderId;
+
+  /** The previous exceptions: same message, but with a stack trace. */
+  private static class StackTracedNotFoundException extends RuntimeException {
+    StackTracedNotFoundException(Long orderId) {
+      super("Order with id " + orderId + " not found");
+    }
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorDTO> buildResponse() {
+    return handler.handleOrderNotFound(notFound);
+  }
+
+  @Benchmark
+  public ResponseEntity<Map<String, Object>> legacyBuildResponse() {
+    return legacyResponse(HttpStatus.NOT_FOUND, notFound.getMessage());
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorDTO> throwAndHandleNotFound() {
+    try {
+      throwNotFound(depth);
+      throw new AssertionError();
+    } catch (OrderNotFoundException e) {
+      return handler.handleOrderNotFound(e);
+    }
+  }
+
+  @Benchmark
+  public ResponseEntity<Map<String, Object>> legacyThrowAndHandleNotFound() {
+    try {
+      throwStackTracedNotFound(depth);
+      throw new AssertionError();
+    } catch (StackTracedNotFoundException e) {
+      return legacyResponse(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorDTO> throwAndHandleConflict() {
+    try {
+      throwConflict(depth);
+      throw new AssertionError();
+    } catch (OrderStatusIsNotCreatedException e) {
+      return handler.handleOrderStatusIsNotCreated(e);
+    }
+  }
+
+  @Benchmark
+  public byte[] throwHandleAndWriteNotFound() throws JsonProcessingException {
+    return writer.writeValueAsBytes(throwAndHandleNotFound().getBody());
+  }
+
+  @Benchmark
+  public byte[] legacyThrowHandleAndWriteNotFound() throws JsonProcessingException {
+    return writer.writeValueAsBytes(legacyThrowAndHandleNotFound().getBody());
+  }
+
+  private void throwNotFound(int frames) {
+    if (frames > 0) {
+      throwNotFound(frames - 1);
+      return;
+    }
+    throw new OrderNotFoundException(++orderId);
+  }
+
+  private void throwStackTracedNotFound(int frames) {
+    if (frames > 0) {
+      throwStackTracedNotFound(frames - 1);
+      return;
+    }
+    throw new StackTracedNotFoundException(++orderId);
+  }
+
+  private void throwConflict(int frames) {
+    if (frames > 0) {
+      throwConflict(frames - 1);
+      return;
+    }
+    throw new OrderStatusIsNotCreatedException();
+  }
+
+  private static ResponseEntity<Map<String, Object>> legacyResponse(
+      HttpStatus status, String message) {
+    Map<String, Object> body = new HashMap<>();
+    body.put("timestamp", LocalDateTime.now());
+    body.put("status", status.value());
+    body.put("error", status.getReasonPhrase());
+    body.put("message", message);
+    return new ResponseEntity<>(body, status);
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.mapper.OrderMapper;
+import com.example.ecommerce.order.mapper.OrderMapperImpl;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.projection.OrderProductLink;
+import com.example.ecommerce.order.projection.OrderRow;
+import com.example.ecommerce.product.model.Product;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link OrderMapper} on its own, without Spring or a database: entity and projection mapping of
+ * one order and of a 50-order customer history, for orders of 1, 10 and 100 products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMapperBenchmark {
+
+  private static final int ORDERS_PER_CUSTOMER = 50;
+
+  @Param({"1", "10", "100"})
+  public int productsPerOrder;
+
+  private final OrderMapper orderMapper = new OrderMapperImpl();
+  private Order order;
+  private List<Order> orders;
+  private List<Long> productIds;
+  private OrderRow row;
+  private List<OrderRow> rows;
+  private List<OrderProductLink> productLinks;
+
+  @Setup(Level.Trial)
+  public void buildOrders() {
+    Customer customer = new Customer();
+    customer.setId(1L);
+    List<Product> products = new ArrayList<>();
+    for (long i = 1; i <= productsPerOrder; i++) {
+      products.add(new Product(i, "Product " + i, BigDecimal.valueOf(i), new ArrayList<>()));
+    }
+    productIds = products.stream().map(Product::getId).toList();
+
+    OffsetDateTime now = OffsetDateTime.now();
+    orders = new ArrayList<>();
+    rows = new ArrayList<>();
+    productLinks = new ArrayList<>();
+    for (long id = 1; id <= ORDERS_PER_CUSTOMER; id++) {
+      orders.add(new Order(id, Status.PAID, now.minusMinutes(id), customer, products, 1L));
+      rows.add(new OrderRow(id, now.minusMinutes(id), Status.PAID, customer.getId()));
+      for (Long productId : productIds) {
+        productLinks.add(new OrderProductLink(id, productId));
+      }
+    }
+    order = orders.get(0);
+    row = rows.get(0);
+  }
+
+  @Benchmark
+  public OrderDTO entityToDto() {
+    return orderMapper.toDTO(order);
+  }
+
+  @Benchmark
+  public List<OrderDTO> entityListToDtos() {
+    return orderMapper.toDtoList(orders);
+  }
+
+  @Benchmark
+  public List<Long> mapProductsToIds() {
+    return orderMapper.mapProductsToIds(order.getProducts());
+  }
+
+  @Benchmark
+  public OrderDTO rowToDto() {
+    return orderMapper.toDTO(row, productIds);
+  }
+
+  @Benchmark
+  public List<OrderDTO> rowListToDtos() {
+    return orderMapper.toDtoList(rows, productLinks);
+  }
+}
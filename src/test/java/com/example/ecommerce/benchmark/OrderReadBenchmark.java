@@ -0,0 +1,150 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.customer.service.CustomerService;
+import com.example.ecommerce.order.cache.OrderCache;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.mapper.OrderMapper;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Latency of the order read paths: loading managed entities and mapping them with MapStruct (the
+ * previous implementation, run inside a transaction as open-session-in-view did) against the
+ * projection queries used by {@link OrderService#getOrderById} and {@link
+ * CustomerService#getOrdersByCustomerId}. Run with {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderReadBenchmark {
+
+  private static final int ORDERS_PER_CUSTOMER = 20;
+
+  @Param({"1", "10", "100"})
+  public int productsPerOrder;
+
+  private ConfigurableApplicationContext context;
+  private OrderService orderService;
+  private CustomerService customerService;
+  private OrderRepository orderRepository;
+  private OrderMapper orderMapper;
+  private EntityManager entityManager;
+  private TransactionTemplate readOnlyTransaction;
+  private Long customerId;
+  private Long orderId;
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    // Measure the database read path, not OrderCache hits
+    context = BenchmarkContext.start("orders.cache.maximum-size=0");
+    orderService = context.getBean(OrderService.class);
+    customerService = context.getBean(CustomerService.class);
+    orderRepository = context.getBean(OrderRepository.class);
+    orderMapper = context.getBean(OrderMapper.class);
+    entityManager = context.getBean(EntityManager.class);
+    readOnlyTransaction =
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    readOnlyTransaction.setReadOnly(true);
+
+    Customer customer = new Customer();
+    customer.setName("Reader");
+    customer.setEmail("reader@example.com");
+    customerId = context.getBean(CustomerRepository.class).save(customer).getId();
+
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < productsPerOrder; i++) {
+      Product product = new Product();
+      product.setName("Product " + i);
+      product.setPrice(BigDecimal.TEN);
+      products.add(product);
+    }
+    products = context.getBean(ProductRepository.class).saveAll(products);
+
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < ORDERS_PER_CUSTOMER; i++) {
+      Order order = new Order();
+      order.setCustomer(customer);
+      order.setProducts(products);
+      orders.add(order);
+    }
+    orderId = orderRepository.saveAll(orders).get(0).getId();
+
+    // Two reads of the same order must both reach the database
+    FunctionCounter hits =
+        context
+            .getBean(MeterRegistry.class)
+            .get("cache.gets")
+            .tag("cache", OrderCache.NAME)
+            .tag("result", "hit")
+            .functionCounter();
+    double before = hits.count();
+    orderService.getOrderById(orderId);
+    orderService.getOrderById(orderId);
+    if (hits.count() != before) {
+      throw new IllegalStateException("OrderCache is not disabled; the benchmark would read it");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  @Benchmark
+  public OrderDTO entityGetById() {
+    return readOnlyTransaction.execute(
+        tx -> orderMapper.toDTO(orderRepository.findById(orderId).orElseThrow()));
+  }
+
+  @Benchmark
+  public OrderDTO projectionGetById() {
+    return orderService.getOrderById(orderId);
+  }
+
+  @Benchmark
+  public List<OrderDTO> entityListByCustomer() {
+    return readOnlyTransaction.execute(
+        tx ->
+            orderMapper.toDtoList(
+                entityManager
+                    .createQuery("SELECT o FROM Order o WHERE o.customer.id = :id", Order.class)
+                    .setParameter("id", customerId)
+                    .getResultList()));
+  }
+
+  @Benchmark
+  public List<OrderDTO> projectionListByCustomer() {
+    return customerService.getOrdersByCustomerId(customerId);
+  }
+}
@@ -0,0 +1,161 @@
+package com.example.ecommerce.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.repository.CustomerSummaryRepository;
+import com.example.ecommerce.customer.summary.CustomerSummaryUpdater;
+import com.example.ecommerce.order.cache.OrderCache;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.exception.OrderStatusIsNotCreatedException;
+import com.example.ecommerce.order.idempotency.OrderIdempotency;
+import com.example.ecommerce.order.mapper.OrderMapperImpl;
+import com.example.ecommerce.order.metrics.OrderMetrics;
+import com.example.ecommerce.order.metrics.OrderStatusCounters;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.outbox.OrderOutbox;
+import com.example.ecommerce.order.outbox.OutboxRepository;
+import com.example.ecommerce.order.projection.OrderStateView;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.catalog.ProductCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * The transition rules of {@link OrderService} without a database: the repository is a Mockito stub
+ * in which every tenth order is already {@code PAID}, so pay requests for it are rejected. Measures
+ * a successful and a rejected single transition and bulk transitions of 100, 1,000 and 10,000 IDs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderTransitionLogicBenchmark {
+
+  private OrderService orderService;
+
+  @Setup(Level.Trial)
+  public void createService() {
+    OrderCache orderCache =
+        new OrderCache(
+            10_000, Duration.ofMinutes(10), Duration.ofSeconds(5), new SimpleMeterRegistry());
+    OrderRepository orderRepository = stubRepository();
+    orderService =
+        new OrderService(
+            orderRepository,
+            stub(CustomerRegistry.class),
+            stub(ProductCatalog.class),
+            new OrderMapperImpl(),
+            orderCache,
+            new OrderMetrics(new SimpleMeterRegistry()),
+            new CustomerSummaryUpdater(stub(CustomerSummaryRepository.class)),
+            new OrderStatusCounters(orderRepository),
+            new OrderOutbox(stub(OutboxRepository.class)),
+            stub(OrderIdempotency.class),
+            TransactionOperations.withoutTransaction());
+  }
+
+  @State(Scope.Benchmark)
+  public static class Bulk {
+    @Param({"100", "1000", "10000"})
+    public int bulkSize;
+
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void createIds() {
+      ids = LongStream.rangeClosed(1, bulkSize).boxed().toList();
+    }
+  }
+
+  @Benchmark
+  public Long paySingle() {
+    orderService.updateStatusToPaidById(1L);
+    return 1L;
+  }
+
+  @Benchmark
+  public RuntimeException payRejected() {
+    try {
+      orderService.updateStatusToPaidById(10L);
+      return null;
+    } catch (OrderStatusIsNotCreatedException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public BulkTransitionResultDTO payBulk(Bulk bulk) {
+    return orderService.updateStatusToPaidByIds(bulk.ids);
+  }
+
+  private static OrderStateView state(Long id) {
+    return new StateView(id, id % 10 == 0 ? Status.PAID : Status.CREATED, 2);
+  }
+
+  /** Answers the state and update queries the transitions run; other calls return defaults. */
+  @SuppressWarnings("unchecked")
+  private static OrderRepository stubRepository() {
+    OrderRepository repository = stub(OrderRepository.class);
+    when(repository.updateOrderStatusToPaidById(anyLong()))
+        .thenAnswer(call -> state(call.getArgument(0)).getStatus() == Status.CREATED ? 1 : 0);
+    when(repository.findStateById(anyLong()))
+        .thenAnswer(call -> Optional.of(state(call.getArgument(0))));
+    when(repository.findStatesByIdIn(anyCollection()))
+        .thenAnswer(
+            call ->
+                ((Collection<Long>) call.getArgument(0))
+                    .stream().map(OrderTransitionLogicBenchmark::state).toList());
+    when(repository.updateOrderStatusToPaidByIdIn(anyCollection()))
+        .thenAnswer(call -> ((Collection<Long>) call.getArgument(0)).size());
+    return repository;
+  }
+
+  // Stub-only mocks keep no record of their calls, which would pile up over millions of operations
+  private static <T> T stub(Class<T> type) {
+    return mock(type, withSettings().stubOnly());
+  }
+
+  private record StateView(Long id, Status status, int productCount) implements OrderStateView {
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public Status getStatus() {
+      return status;
+    }
+
+    @Override
+    public int getProductCount() {
+      return productCount;
+    }
+  }
+}
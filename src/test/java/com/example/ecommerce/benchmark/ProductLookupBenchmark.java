@@ -0,0 +1,98 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.product.catalog.ProductCatalog;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Resolving the product IDs of one order through the in-memory {@link ProductCatalog} against
+ * {@code ProductRepository.findAllById}, for orders of 10, 100 and 1,000 products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductLookupBenchmark {
+
+  private static final int PRODUCTS = 10_000;
+  private static final int ORDERS = 64;
+
+  @Param({"10", "100", "1000"})
+  public int productsPerOrder;
+
+  private ConfigurableApplicationContext context;
+  private ProductCatalog productCatalog;
+  private ProductRepository productRepository;
+  private List<Set<Long>> orders;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context = BenchmarkContext.start();
+    productCatalog = context.getBean(ProductCatalog.class);
+    productRepository = context.getBean(ProductRepository.class);
+
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < PRODUCTS; i++) {
+      Product product = new Product();
+      product.setName("Product " + i);
+      product.setPrice(BigDecimal.valueOf(1 + i));
+      products.add(product);
+    }
+    List<Long> productIds =
+        productRepository.saveAll(products).stream().map(Product::getId).toList();
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    orders = new ArrayList<>(ORDERS);
+    for (int i = 0; i < ORDERS; i++) {
+      Set<Long> ids = new LinkedHashSet<>();
+      while (ids.size() < productsPerOrder) {
+        ids.add(productIds.get(random.nextInt(productIds.size())));
+      }
+      orders.add(ids);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<Product> catalog() {
+    return productCatalog.getAll(nextOrder());
+  }
+
+  @Benchmark
+  public List<Product> repository() {
+    return productRepository.findAllById(nextOrder());
+  }
+
+  private Set<Long> nextOrder() {
+    next = (next + 1) & (ORDERS - 1);
+    return orders.get(next);
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.order.exception.OrderNotFoundException;
+import com.example.ecommerce.order.exception.OrderStatusIsNotPaidException;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.OrderService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Throughput of the ship transition: the single conditional UPDATE in {@link OrderService} against
+ * the previous read-check-update sequence ({@code findById}, status check in Java, then UPDATE).
+ * Every iteration starts from a fresh pool of PAID orders so each call performs a real transition.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class StatusTransitionBenchmark {
+
+  private static final long FIRST_ORDER_ID = 1_000_000L;
+  private static final long POOL_SIZE = 200_000L;
+
+  private ConfigurableApplicationContext context;
+  private OrderService orderService;
+  private OrderRepository orderRepository;
+  private TransactionTemplate transactionTemplate;
+  private JdbcTemplate jdbcTemplate;
+  private final AtomicLong nextOrder = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context = BenchmarkContext.start();
+    orderService = context.getBean(OrderService.class);
+    orderRepository = context.getBean(OrderRepository.class);
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+    jdbcTemplate.update(
+        "INSERT INTO orders (id, status, created_at, customer_id)"
+            + " SELECT X, 'PAID', CURRENT_TIMESTAMP, 1 FROM SYSTEM_RANGE(?, ?)",
+        FIRST_ORDER_ID,
+        FIRST_ORDER_ID + POOL_SIZE - 1);
+  }
+
+  @Setup(Level.Iteration)
+  public void resetOrders() {
+    jdbcTemplate.update("UPDATE orders SET status = 'PAID' WHERE id >= ?", FIRST_ORDER_ID);
+    nextOrder.set(0);
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  @Benchmark
+  public void conditionalUpdate() {
+    orderService.updateStatusToShippedById(nextOrderId());
+  }
+
+  @Benchmark
+  public void readThenUpdate() {
+    Long orderId = nextOrderId();
+    transactionTemplate.executeWithoutResult(
+        tx -> {
+          Order order =
+              orderRepository
+                  .findById(orderId)
+                  .orElseThrow(() -> new OrderNotFoundException(orderId));
+          if (order.getStatus() != Status.PAID) {
+            throw new OrderStatusIsNotPaidException();
+          }
+          orderRepository.updateOrderStatusToShippedById(orderId);
+        });
+  }
+
+  private Long nextOrderId() {
+    return FIRST_ORDER_ID + nextOrder.getAndIncrement() % POOL_SIZE;
+  }
+}
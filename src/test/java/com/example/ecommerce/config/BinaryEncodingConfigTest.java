@@ -0,0 +1,119 @@
+package com.example.ecommerce.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class BinaryEncodingConfigTest {
+
+  private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+  private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private Jackson2ObjectMapperBuilder builder;
+
+  private OrderDTO order;
+
+  @BeforeEach
+  void setUp() {
+    Customer customer = new Customer();
+    customer.setName("Binary");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Product product = new Product();
+    product.setName("Widget");
+    product.setPrice(new BigDecimal("5.00"));
+    productRepository.save(product);
+
+    order =
+        orderService.createOrder(new OrderCreateDTO(customer.getId(), List.of(product.getId())));
+  }
+
+  @Test
+  void whenCborIsAccepted_thenTheOrderIsEncodedAsCbor() throws Exception {
+    OrderDTO decoded = fetch(CBOR, new CBORFactory());
+
+    assertEquals(order.getId(), decoded.getId());
+    assertEquals(order.getProductsId(), decoded.getProductsId());
+    assertTrue(order.getCreatedAt().isEqual(decoded.getCreatedAt()));
+  }
+
+  @Test
+  void whenSmileIsAccepted_thenTheOrderIsEncodedAsSmile() throws Exception {
+    OrderDTO decoded = fetch(SMILE, new SmileFactory());
+
+    assertEquals(order.getId(), decoded.getId());
+    assertTrue(order.getCreatedAt().isEqual(decoded.getCreatedAt()));
+  }
+
+  @Test
+  void whenNothingOrAnythingIsAccepted_thenJsonIsTheDefault() throws Exception {
+    mockMvc
+        .perform(get("/orders/{id}", order.getId()))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    mockMvc
+        .perform(get("/orders/{id}", order.getId()).accept(MediaType.ALL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  void whenCborIsAcceptedForCustomerOrders_thenTheListIsEncodedAsCbor() throws Exception {
+    byte[] body =
+        mockMvc
+            .perform(get("/customers/{id}/orders", order.getCustomerId()).accept(CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+    OrderDTO[] orders = mapper.readValue(body, OrderDTO[].class);
+    assertEquals(1, orders.length);
+    assertEquals(order.getId(), orders[0].getId());
+  }
+
+  private OrderDTO fetch(MediaType mediaType, JsonFactory factory) throws Exception {
+    byte[] body =
+        mockMvc
+            .perform(get("/orders/{id}", order.getId()).accept(mediaType))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(mediaType))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    return builder.factory(factory).build().readValue(body, OrderDTO.class);
+  }
+}
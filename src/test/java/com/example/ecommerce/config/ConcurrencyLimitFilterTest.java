@@ -0,0 +1,58 @@
+package com.example.ecommerce.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.servlet.AsyncContext;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+  private final ConcurrencyLimitFilter filter =
+      new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+
+  @Test
+  void whenPermitIsFree_thenRequestPassesAndReleasesIt() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/orders/1"), response, new MockFilterChain());
+
+    assertEquals(200, response.getStatus());
+    assertEquals(1, filter.availablePermits());
+  }
+
+  @Test
+  void whenAllPermitsAreTaken_thenRequestGets503WithRetryAfter() throws Exception {
+    MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/orders/1"),
+        new MockHttpServletResponse(),
+        (request, response) ->
+            filter.doFilter(
+                new MockHttpServletRequest("GET", "/orders/2"), rejected, new MockFilterChain()));
+
+    assertEquals(503, rejected.getStatus());
+    assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    assertEquals(1, filter.availablePermits());
+  }
+
+  @Test
+  void whenResponseIsAsync_thenPermitIsHeldUntilItCompletes() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders/export");
+    request.setAsyncSupported(true);
+    AsyncContext[] async = new AsyncContext[1];
+
+    filter.doFilter(
+        request, new MockHttpServletResponse(), (req, res) -> async[0] = req.startAsync());
+
+    assertEquals(0, filter.availablePermits());
+    async[0].complete();
+    assertEquals(1, filter.availablePermits());
+  }
+}
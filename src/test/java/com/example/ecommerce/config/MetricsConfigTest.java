@@ -0,0 +1,53 @@
+package com.example.ecommerce.config;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void whenScraped_thenRequestTimersCarryHandlerAndUriTemplateButNoIds() throws Exception {
+    mockMvc.perform(get("/orders/{id}", 987_654_321L)).andExpect(status().isNotFound());
+    mockMvc.perform(patch("/orders/{id}/pay", 987_654_321L)).andExpect(status().isNotFound());
+
+    mockMvc
+        .perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("handler=\"OrderController.getOrder\"")))
+        .andExpect(content().string(containsString("uri=\"/orders/{id}\"")))
+        .andExpect(content().string(not(containsString("987654321"))))
+        .andExpect(
+            content()
+                .string(
+                    containsString(
+                        "orders_transitions_total{outcome=\"rejected\",reason=\"OrderNotFound\",target=\"PAID\"}")));
+  }
+
+  @Test
+  void whenScraped_thenStatusGaugesAndPersistenceMetricsArePresent() throws Exception {
+    mockMvc
+        .perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("orders_by_status{status=\"DELIVERED\"}")))
+        .andExpect(content().string(containsString("orders_placed_total")))
+        .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+        .andExpect(content().string(containsString("hibernate_statements_total")))
+        .andExpect(content().string(containsString("hibernate_entities_loads_total")));
+  }
+}
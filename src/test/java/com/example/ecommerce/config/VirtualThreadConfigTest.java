@@ -0,0 +1,50 @@
+package com.example.ecommerce.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+class VirtualThreadConfigTest {
+
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner(
+              () -> {
+                // Same conversions as SpringApplication, for the Duration property
+                AnnotationConfigApplicationContext context =
+                    new AnnotationConfigApplicationContext();
+                context.getBeanFactory().setConversionService(new ApplicationConversionService());
+                return context;
+              })
+          .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+          .withUserConfiguration(VirtualThreadConfig.class)
+          .withPropertyValues(
+              "app.concurrency.max-in-flight=10", "app.concurrency.acquire-timeout=2s");
+
+  @Test
+  void whenVirtualThreadsAreDisabled_thenNoConcurrencyLimitIsRegistered() {
+    contextRunner.run(context -> assertFalse(context.containsBean("concurrencyLimitFilter")));
+  }
+
+  @Test
+  void whenVirtualThreadsAreEnabled_thenLimitIsRegisteredAndTasksRunOnVirtualThreads() {
+    contextRunner
+        .withPropertyValues("spring.threads.virtual.enabled=true")
+        .run(
+            context -> {
+              assertTrue(context.containsBean("concurrencyLimitFilter"));
+              SimpleAsyncTaskExecutor executor =
+                  context.getBean("applicationTaskExecutor", SimpleAsyncTaskExecutor.class);
+              CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+              executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+              assertTrue(virtual.get(5, TimeUnit.SECONDS));
+            });
+  }
+}
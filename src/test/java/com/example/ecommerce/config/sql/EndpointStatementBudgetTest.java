@@ -0,0 +1,206 @@
+package com.example.ecommerce.config.sql;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Statement budgets of the order and customer endpoints against the real database. Every order here
+ * has two products, so a per-order or per-product query would blow the budgets.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "app.sql.diagnostics=true"})
+@AutoConfigureMockMvc
+class EndpointStatementBudgetTest {
+
+  private static final int ORDERS = 20;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private OrderRepository orderRepository;
+
+  private Customer customer;
+  private List<Product> products;
+  private List<Order> orders;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Budget");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Product first = new Product();
+    first.setName("First");
+    first.setPrice(new BigDecimal("1.00"));
+    Product second = new Product();
+    second.setName("Second");
+    second.setPrice(new BigDecimal("2.00"));
+    products = productRepository.saveAll(List.of(first, second));
+
+    // Saved through the repository, so none of them is in the order cache yet
+    orders = new ArrayList<>();
+    for (int i = 0; i < ORDERS; i++) {
+      Order order = new Order();
+      order.setCustomer(customer);
+      order.setProducts(products);
+      order.setCreatedAt(OffsetDateTime.now().minusMinutes(i));
+      order.setStatus(i == ORDERS - 1 ? Status.PAID : Status.CREATED);
+      orders.add(order);
+    }
+    orders = orderRepository.saveAll(orders);
+  }
+
+  // Order, product and outbox rows go in one batch each, then the customer summary is updated;
+  // every 50th order and every 50th event also fetch their sequence
+  @Test
+  @StatementBudget(6)
+  void createOrder() throws Exception {
+    String body =
+        "{\"customerId\":%d,\"productsId\":[%d,%d]}"
+            .formatted(customer.getId(), products.get(0).getId(), products.get(1).getId());
+
+    mockMvc
+        .perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(header().string(StatementCountingFilter.HEADER, startsWith("total=")));
+  }
+
+  @Test
+  @StatementBudget(1)
+  void getOrder() throws Exception {
+    mockMvc
+        .perform(get("/orders/{id}", orders.get(0).getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.productsId.length()").value(2))
+        .andExpect(header().string(StatementCountingFilter.HEADER, startsWith("total=1,")));
+  }
+
+  // The version alone: no order row mapping and no products
+  @Test
+  @StatementBudget(1)
+  void getOrderNotModified() throws Exception {
+    mockMvc
+        .perform(get("/orders/{id}", orders.get(0).getId()).header("If-None-Match", "W/\"0\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(StatementCountingFilter.HEADER, startsWith("total=1,")));
+  }
+
+  @Test
+  @StatementBudget(2)
+  void searchOrders() throws Exception {
+    mockMvc
+        .perform(
+            get("/orders")
+                .param("customerId", customer.getId().toString())
+                .param("status", "CREATED")
+                .param("size", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(10))
+        .andExpect(header().string(StatementCountingFilter.HEADER, startsWith("total=2,")));
+  }
+
+  @Test
+  @StatementBudget(0)
+  void getOrderStats() throws Exception {
+    mockMvc
+        .perform(get("/orders/stats"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(StatementCountingFilter.HEADER, startsWith("total=0,")));
+  }
+
+  // The guarded update and its outbox event, then the customer summary; every 50th event also
+  // fetches the sequence
+  @Test
+  @StatementBudget(4)
+  void payOrder() throws Exception {
+    mockMvc
+        .perform(patch("/orders/{id}/pay", orders.get(0).getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(StatementCountingFilter.HEADER, containsString("update=1,")));
+  }
+
+  @Test
+  @StatementBudget(2)
+  void payOrderWithWrongStatus() throws Exception {
+    mockMvc
+        .perform(patch("/orders/{id}/pay", orders.get(ORDERS - 1).getId()))
+        .andExpect(status().isConflict());
+  }
+
+  // One state query, one guarded update and one batch of outbox events for the whole chunk, one
+  // summary update and at most one sequence fetch
+  @Test
+  @StatementBudget(5)
+  void payOrdersInBulk() throws Exception {
+    String ids = orders.stream().map(order -> order.getId().toString()).toList().toString();
+
+    mockMvc
+        .perform(patch("/orders/pay").contentType(MediaType.APPLICATION_JSON).content(ids))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated.length()").value(ORDERS - 1))
+        .andExpect(jsonPath("$.rejected.length()").value(1));
+  }
+
+  @Test
+  @StatementBudget(1)
+  void getCustomerSummary() throws Exception {
+    mockMvc
+        .perform(get("/customers/{id}/summary", customer.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.customerId").value(customer.getId()));
+  }
+
+  @Test
+  @StatementBudget(2)
+  void getCustomerOrders() throws Exception {
+    mockMvc
+        .perform(get("/customers/{id}/orders", customer.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(ORDERS));
+  }
+
+  @Test
+  @StatementBudget(1)
+  void getCustomerOrdersNotModified() throws Exception {
+    mockMvc
+        .perform(
+            get("/customers/{id}/orders", customer.getId())
+                .header("If-None-Match", "W/\"" + ORDERS + "-0\""))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  @StatementBudget(2)
+  void getCustomerOrderPage() throws Exception {
+    mockMvc
+        .perform(get("/customers/{id}/orders/page", customer.getId()).param("size", "10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(10));
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.ecommerce.config.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Fails the test if its body runs more SQL statements on the test thread than declared; setup in
+ * {@code @BeforeEach} is not counted. On a class it is the default for every test and a
+ * method-level budget overrides it. MockMvc requests run on the test thread, so everything the
+ * endpoint does is counted.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface StatementBudget {
+
+  /** The most statements (queries, inserts, updates, deletes and batch executions) allowed. */
+  long value();
+}
@@ -0,0 +1,51 @@
+package com.example.ecommerce.config.sql;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.Optional;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Opens a {@link StatementCounter} scope around each test method (not its {@code @BeforeEach}
+ * setup) and enforces its {@link StatementBudget}.
+ */
+class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+  private static final ExtensionContext.Namespace NAMESPACE =
+      ExtensionContext.Namespace.create(StatementBudgetExtension.class);
+
+  @Override
+  public void beforeTestExecution(ExtensionContext context) {
+    context.getStore(NAMESPACE).put(context.getUniqueId(), StatementCounter.open());
+  }
+
+  @Override
+  public void afterTestExecution(ExtensionContext context) {
+    StatementCounter.Scope scope =
+        context.getStore(NAMESPACE).remove(context.getUniqueId(), StatementCounter.Scope.class);
+    if (scope == null) {
+      return;
+    }
+    scope.close();
+    long budget =
+        budget(context.getRequiredTestMethod())
+            .or(() -> budget(context.getRequiredTestClass()))
+            .orElseThrow();
+    StatementCounts counts = scope.counts();
+    if (counts.total() > budget) {
+      throw new AssertionFailedError(
+          "%s ran %d SQL statements, over its budget of %d (%s)"
+              .formatted(context.getDisplayName(), counts.total(), budget, counts),
+          budget,
+          counts.total());
+    }
+  }
+
+  private static Optional<Long> budget(AnnotatedElement element) {
+    return AnnotationSupport.findAnnotation(element, StatementBudget.class)
+        .map(StatementBudget::value);
+  }
+}
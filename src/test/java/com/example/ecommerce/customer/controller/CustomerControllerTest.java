@@ -4,9 +4,18 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.ecommerce.config.sql.StatementBudget;
+import com.example.ecommerce.customer.dto.CustomerSummaryDTO;
 import com.example.ecommerce.customer.service.CustomerService;
 import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.exception.CustomerNotFoundException;
+import com.example.ecommerce.order.exception.InvalidCursorException;
+import com.example.ecommerce.order.metrics.OrderMetrics;
 import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.projection.OrderListVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,7 +29,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+// Services are mocked, so the web layer on its own must not run any SQL
 @WebMvcTest(CustomerController.class)
+@StatementBudget(0)
 class CustomerControllerTest {
 
   @Autowired private MockMvc mockMvc;
@@ -35,6 +46,11 @@ class CustomerControllerTest {
     public CustomerService customerService() {
       return mock(CustomerService.class);
     }
+
+    @Bean
+    public OrderMetrics orderMetrics() {
+      return new OrderMetrics(new SimpleMeterRegistry());
+    }
   }
 
   @BeforeEach
@@ -46,12 +62,14 @@ class CustomerControllerTest {
     orderDTO1.setStatus(Status.CREATED);
     orderDTO1.setCustomerId(1L);
     orderDTO1.setProductsId(Arrays.asList(1L, 2L));
+    orderDTO1.setVersion(0L);
 
     OrderDTO orderDTO2 = new OrderDTO();
     orderDTO2.setCreatedAt(OffsetDateTime.now().minusDays(1));
     orderDTO2.setStatus(Status.PAID);
     orderDTO2.setCustomerId(1L);
     orderDTO2.setProductsId(Arrays.asList(3L));
+    orderDTO2.setVersion(0L);
 
     sampleOrderDTOs = Arrays.asList(orderDTO1, orderDTO2);
   }
@@ -78,6 +96,30 @@ class CustomerControllerTest {
     verify(customerService).getOrdersByCustomerId(1L);
   }
 
+  @Test
+  void whenGetOrdersByCustomerId_thenETagIsCountAndVersionSum() throws Exception {
+    sampleOrderDTOs.get(1).setVersion(2L);
+    when(customerService.getOrdersByCustomerId(1L)).thenReturn(sampleOrderDTOs);
+
+    mockMvc
+        .perform(get("/customers/1/orders"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "W/\"2-2\""));
+  }
+
+  @Test
+  void whenGetOrdersByCustomerId_withMatchingIfNoneMatch_thenReturn304WithoutLoadingOrders()
+      throws Exception {
+    when(customerService.getOrdersVersion(1L)).thenReturn(new OrderListVersion(2, 2));
+
+    mockMvc
+        .perform(get("/customers/1/orders").header("If-None-Match", "W/\"1-0\", W/\"2-2\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "W/\"2-2\""));
+
+    verify(customerService, never()).getOrdersByCustomerId(any());
+  }
+
   @Test
   void whenGetOrdersByCustomerId_withCustomerWithoutOrders_thenReturnEmptyList() throws Exception {
     List<OrderDTO> emptyList = new ArrayList<>();
@@ -117,12 +159,14 @@ class CustomerControllerTest {
     orderDTO3.setStatus(Status.SHIPPED);
     orderDTO3.setCustomerId(1L);
     orderDTO3.setProductsId(Arrays.asList(4L, 5L));
+    orderDTO3.setVersion(0L);
 
     OrderDTO orderDTO4 = new OrderDTO();
     orderDTO4.setCreatedAt(OffsetDateTime.now().minusDays(3));
     orderDTO4.setStatus(Status.DELIVERED);
     orderDTO4.setCustomerId(1L);
     orderDTO4.setProductsId(Arrays.asList(6L));
+    orderDTO4.setVersion(0L);
 
     List<OrderDTO> multipleOrders =
         Arrays.asList(sampleOrderDTOs.get(0), sampleOrderDTOs.get(1), orderDTO3, orderDTO4);
@@ -188,4 +232,78 @@ class CustomerControllerTest {
     verify(customerService).getOrdersByCustomerId(5L);
     verify(customerService).getOrdersByCustomerId(10L);
   }
+
+  @Test
+  void whenGetOrderPageByCustomerId_thenReturnItemsAndNextCursor() throws Exception {
+    when(customerService.getOrderPageByCustomerId(1L, "abc", 2))
+        .thenReturn(new OrderPageDTO(sampleOrderDTOs, "def"));
+
+    mockMvc
+        .perform(get("/customers/1/orders/page").param("cursor", "abc").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(2))
+        .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+        .andExpect(jsonPath("$.nextCursor").value("def"));
+
+    verify(customerService).getOrderPageByCustomerId(1L, "abc", 2);
+  }
+
+  @Test
+  void whenGetOrderPageByCustomerId_withoutParameters_thenUseDefaultPageSize() throws Exception {
+    when(customerService.getOrderPageByCustomerId(1L, null, CustomerService.DEFAULT_PAGE_SIZE))
+        .thenReturn(new OrderPageDTO(new ArrayList<>(), null));
+
+    mockMvc
+        .perform(get("/customers/1/orders/page"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(0))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    verify(customerService).getOrderPageByCustomerId(1L, null, CustomerService.DEFAULT_PAGE_SIZE);
+  }
+
+  @Test
+  void whenGetOrderPageByCustomerId_withInvalidCursor_thenReturn400() throws Exception {
+    when(customerService.getOrderPageByCustomerId(1L, "bad", CustomerService.DEFAULT_PAGE_SIZE))
+        .thenThrow(new InvalidCursorException("bad"));
+
+    mockMvc
+        .perform(get("/customers/1/orders/page").param("cursor", "bad"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.timestamp").exists())
+        .andExpect(jsonPath("$.status").value(400))
+        .andExpect(jsonPath("$.error").value("Bad Request"))
+        .andExpect(jsonPath("$.message").value("The cursor bad is not valid"));
+  }
+
+  @Test
+  void whenGetSummary_withExistingCustomer_thenReturnSummary() throws Exception {
+    CustomerSummaryDTO summary = CustomerSummaryDTO.empty(1L);
+    summary.getOrdersByStatus().put(Status.PAID, 2L);
+    summary.setTotalOrders(2);
+    summary.setLifetimeSpend(new BigDecimal("30.00"));
+    when(customerService.getSummary(1L)).thenReturn(summary);
+
+    mockMvc
+        .perform(get("/customers/1/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.customerId").value(1))
+        .andExpect(jsonPath("$.totalOrders").value(2))
+        .andExpect(jsonPath("$.ordersByStatus.PAID").value(2))
+        .andExpect(jsonPath("$.ordersByStatus.CREATED").value(0))
+        .andExpect(jsonPath("$.lifetimeSpend").value(30.0));
+  }
+
+  @Test
+  void whenGetSummary_withUnknownCustomer_thenReturn404() throws Exception {
+    when(customerService.getSummary(99L)).thenThrow(new CustomerNotFoundException(99L));
+
+    mockMvc
+        .perform(get("/customers/99/summary"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.timestamp").exists())
+        .andExpect(jsonPath("$.status").value(404))
+        .andExpect(jsonPath("$.error").value("Not Found"))
+        .andExpect(jsonPath("$.message").value("Customer with id 99 not found"));
+  }
 }
@@ -0,0 +1,156 @@
+package com.example.ecommerce.customer.registry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.exception.CustomerNotFoundException;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "app.outbox.poll-interval=1h"
+    })
+class CustomerRegistryTest {
+
+  @Autowired private CustomerRegistry customerRegistry;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private OrderService orderService;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TransactionTemplate transactionTemplate;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    product = new Product();
+    product.setName("Registry");
+    product.setPrice(new BigDecimal("1.00"));
+    productRepository.save(product);
+  }
+
+  @Test
+  void whenCreatingOrderForKnownCustomer_thenCustomerIsNeitherLoadedNorQueried() {
+    Customer customer = customerRepository.save(customer());
+    assertTrue(customerRegistry.contains(customer.getId()));
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    OrderDTO order =
+        orderService.createOrder(new OrderCreateDTO(customer.getId(), List.of(product.getId())));
+
+    assertEquals(customer.getId(), order.getCustomerId());
+    assertEquals(0, statistics.getEntityStatistics(Customer.class.getName()).getLoadCount());
+    assertEquals(0, statistics.getQueryExecutionCount());
+  }
+
+  @Test
+  void whenCustomerIsMissingFromTheSet_thenDatabaseIsChecked() {
+    long customerId =
+        jdbcTemplate.queryForObject(
+            "SELECT id FROM FINAL TABLE (INSERT INTO customer (id, name, email)"
+                + " VALUES (NEXT VALUE FOR customer_seq, ?, ?))",
+            Long.class,
+            "Direct",
+            UUID.randomUUID() + "@example.com");
+    assertFalse(customerRegistry.contains(customerId));
+
+    assertTrue(customerRegistry.findReference(customerId).isPresent());
+    assertTrue(customerRegistry.contains(customerId));
+  }
+
+  @Test
+  void whenCustomerDoesNotExist_thenCreateOrderThrowsCustomerNotFoundException() {
+    OrderCreateDTO order = new OrderCreateDTO(Long.MAX_VALUE, List.of(product.getId()));
+
+    assertThrows(CustomerNotFoundException.class, () -> orderService.createOrder(order));
+    assertTrue(customerRegistry.findReferences(List.of(Long.MAX_VALUE, -1L)).isEmpty());
+  }
+
+  @Test
+  void whenBatchMixesKnownAndUnknownIds_thenOnlyExistingCustomersAreReturned() {
+    Customer known = customerRepository.save(customer());
+    long direct =
+        jdbcTemplate.queryForObject(
+            "SELECT id FROM FINAL TABLE (INSERT INTO customer (id, name, email)"
+                + " VALUES (NEXT VALUE FOR customer_seq, ?, ?))",
+            Long.class,
+            "Direct",
+            UUID.randomUUID() + "@example.com");
+
+    Map<Long, Customer> references =
+        customerRegistry.findReferences(List.of(known.getId(), direct, Long.MAX_VALUE));
+
+    assertEquals(2, references.size());
+    assertEquals(known.getId(), references.get(known.getId()).getId());
+    assertEquals(direct, references.get(direct).getId());
+    assertTrue(customerRegistry.contains(direct));
+  }
+
+  @Test
+  void whenInsertRollsBack_thenIdIsNotKnown() {
+    Long[] customerId = new Long[1];
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          customerId[0] = customerRepository.save(customer()).getId();
+          status.setRollbackOnly();
+        });
+
+    assertFalse(customerRegistry.contains(customerId[0]));
+    assertTrue(customerRegistry.findReference(customerId[0]).isEmpty());
+  }
+
+  @Test
+  void whenCustomerIsDeleted_thenIdIsNoLongerKnown() {
+    Customer customer = customerRepository.save(customer());
+
+    customerRepository.delete(customer);
+
+    assertFalse(customerRegistry.contains(customer.getId()));
+    assertTrue(customerRegistry.findReference(customer.getId()).isEmpty());
+  }
+
+  @Test
+  void whenIdsAreOutsideTheTrackedRange_thenTheyAreNeverContained() {
+    customerRegistry.add(-5);
+    customerRegistry.add(CustomerRegistry.MAX_TRACKED_ID + 1);
+    customerRegistry.add(CustomerRegistry.MAX_TRACKED_ID);
+
+    assertFalse(customerRegistry.contains(-5));
+    assertFalse(customerRegistry.contains(CustomerRegistry.MAX_TRACKED_ID + 1));
+    assertTrue(customerRegistry.contains(CustomerRegistry.MAX_TRACKED_ID));
+
+    customerRegistry.remove(CustomerRegistry.MAX_TRACKED_ID);
+    assertFalse(customerRegistry.contains(CustomerRegistry.MAX_TRACKED_ID));
+  }
+
+  private static Customer customer() {
+    Customer customer = new Customer();
+    customer.setName("Registered");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    return customer;
+  }
+}
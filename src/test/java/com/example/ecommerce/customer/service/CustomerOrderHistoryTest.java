@@ -0,0 +1,122 @@
+package com.example.ecommerce.customer.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "app.outbox.poll-interval=1h"
+    })
+class CustomerOrderHistoryTest {
+
+  private static final int ORDERS = 120;
+
+  @Autowired private CustomerService customerService;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Customer customer;
+  private List<Long> orderIdsNewestFirst;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("B2B");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Product product = new Product();
+      product.setName("Part " + i);
+      product.setPrice(new BigDecimal("1.00"));
+      products.add(product);
+    }
+    productRepository.saveAll(products);
+
+    // Pairs of orders share a timestamp so the id tie-breaker is exercised across page borders.
+    OffsetDateTime start = OffsetDateTime.now().withNano(0).minusDays(1);
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < ORDERS; i++) {
+      Order order = new Order();
+      order.setCustomer(customer);
+      order.setProducts(products);
+      order.setCreatedAt(start.plusMinutes(i / 2));
+      orders.add(order);
+    }
+    orderIdsNewestFirst =
+        orderRepository.saveAll(orders).stream().map(Order::getId).toList().reversed();
+  }
+
+  @Test
+  void whenPagingThroughHistory_thenEveryPageCostsTwoStatements() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    List<Long> seen = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      statistics.clear();
+      OrderPageDTO page = customerService.getOrderPageByCustomerId(customer.getId(), cursor, 50);
+      assertEquals(2, statistics.getPrepareStatementCount(), "statements for page " + pages);
+      assertEquals(0, statistics.getEntityLoadCount());
+
+      page.getItems().forEach(item -> assertEquals(3, item.getProductsId().size()));
+      page.getItems().stream().map(OrderDTO::getId).forEach(seen::add);
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, pages);
+    assertEquals(orderIdsNewestFirst, seen);
+  }
+
+  @Test
+  void whenListingAllOrders_thenRowsAndProductIdsAreProjectedInTwoStatements() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    List<OrderDTO> orders = customerService.getOrdersByCustomerId(customer.getId());
+
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertEquals(orderIdsNewestFirst.reversed(), orders.stream().map(OrderDTO::getId).toList());
+    orders.forEach(order -> assertEquals(3, order.getProductsId().size()));
+  }
+
+  @Test
+  void whenRequestingMoreThanTheCap_thenPageIsCapped() {
+    OrderPageDTO page = customerService.getOrderPageByCustomerId(customer.getId(), null, 10_000);
+
+    assertEquals(ORDERS, page.getItems().size());
+    assertNull(page.getNextCursor());
+
+    OrderPageDTO single = customerService.getOrderPageByCustomerId(customer.getId(), null, 0);
+    assertEquals(1, single.getItems().size());
+    assertNotNull(single.getNextCursor());
+  }
+}
@@ -1,76 +1,70 @@
 package com.example.ecommerce.customer.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.example.ecommerce.customer.dto.CustomerSummaryDTO;
 import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.model.CustomerSummary;
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.repository.CustomerSummaryRepository;
 import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.exception.CustomerNotFoundException;
+import com.example.ecommerce.order.exception.InvalidCursorException;
 import com.example.ecommerce.order.mapper.OrderMapper;
-import com.example.ecommerce.order.model.Order;
 import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.pagination.OrderCursor;
+import com.example.ecommerce.order.projection.OrderProductLink;
+import com.example.ecommerce.order.projection.OrderRow;
 import com.example.ecommerce.order.repository.OrderRepository;
-import com.example.ecommerce.product.model.Product;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 class CustomerServiceTest {
 
   @Mock private OrderRepository orderRepository;
   @Mock private OrderMapper orderMapper;
+  @Mock private CustomerSummaryRepository customerSummaryRepository;
+  @Mock private CustomerRegistry customerRegistry;
 
   @InjectMocks private CustomerService customerService;
 
-  private Customer sampleCustomer;
-  private List<Order> sampleOrders;
+  private List<OrderRow> sampleRows;
+  private List<OrderProductLink> sampleLinks;
   private List<OrderDTO> sampleOrderDTOs;
-  private Product sampleProduct;
 
   @BeforeEach
   void setUp() {
-    sampleCustomer = new Customer();
-    sampleCustomer.setId(1L);
-    sampleCustomer.setName("John Doe");
-    sampleCustomer.setEmail("john@example.com");
-
-    sampleProduct = new Product();
-    sampleProduct.setId(1L);
-    sampleProduct.setName("Sample Product");
-    sampleProduct.setPrice(new BigDecimal("99.99"));
-
-    Order order1 = new Order();
-    order1.setId(1L);
-    order1.setStatus(Status.CREATED);
-    order1.setCreatedAt(OffsetDateTime.now());
-    order1.setCustomer(sampleCustomer);
-    order1.setProducts(Arrays.asList(sampleProduct));
-
-    Order order2 = new Order();
-    order2.setId(2L);
-    order2.setStatus(Status.PAID);
-    order2.setCreatedAt(OffsetDateTime.now().minusDays(1));
-    order2.setCustomer(sampleCustomer);
-    order2.setProducts(Arrays.asList(sampleProduct));
-
-    sampleOrders = Arrays.asList(order1, order2);
+    OrderRow row1 = new OrderRow(1L, OffsetDateTime.now(), Status.CREATED, 1L);
+    OrderRow row2 = new OrderRow(2L, OffsetDateTime.now().minusDays(1), Status.PAID, 1L);
+    sampleRows = Arrays.asList(row1, row2);
+    sampleLinks = Arrays.asList(link(1L, 1L), link(2L, 1L));
 
     OrderDTO orderDTO1 = new OrderDTO();
-    orderDTO1.setCreatedAt(order1.getCreatedAt());
+    orderDTO1.setId(1L);
+    orderDTO1.setCreatedAt(row1.createdAt());
     orderDTO1.setStatus(Status.CREATED);
     orderDTO1.setCustomerId(1L);
     orderDTO1.setProductsId(Arrays.asList(1L));
 
     OrderDTO orderDTO2 = new OrderDTO();
-    orderDTO2.setCreatedAt(order2.getCreatedAt());
+    orderDTO2.setId(2L);
+    orderDTO2.setCreatedAt(row2.createdAt());
     orderDTO2.setStatus(Status.PAID);
     orderDTO2.setCustomerId(1L);
     orderDTO2.setProductsId(Arrays.asList(1L));
@@ -80,8 +74,9 @@ class CustomerServiceTest {
 
   @Test
   void whenGetOrdersByCustomerId_withExistingCustomer_thenReturnOrderDTOList() {
-    when(orderRepository.findByCustomerId(1L)).thenReturn(sampleOrders);
-    when(orderMapper.toDtoList(sampleOrders)).thenReturn(sampleOrderDTOs);
+    when(orderRepository.findRowsByCustomerId(1L)).thenReturn(sampleRows);
+    when(orderRepository.findProductIdsByOrderIdIn(List.of(1L, 2L))).thenReturn(sampleLinks);
+    when(orderMapper.toDtoList(sampleRows, sampleLinks)).thenReturn(sampleOrderDTOs);
 
     List<OrderDTO> result = customerService.getOrdersByCustomerId(1L);
 
@@ -92,77 +87,58 @@ class CustomerServiceTest {
     assertEquals(1L, result.get(0).getCustomerId());
     assertEquals(1L, result.get(1).getCustomerId());
 
-    verify(orderRepository).findByCustomerId(1L);
-    verify(orderMapper).toDtoList(sampleOrders);
+    verify(orderRepository).findRowsByCustomerId(1L);
+    verify(orderMapper).toDtoList(sampleRows, sampleLinks);
   }
 
   @Test
   void whenGetOrdersByCustomerId_withCustomerWithoutOrders_thenReturnEmptyList() {
-    List<Order> emptyOrders = new ArrayList<>();
-    List<OrderDTO> emptyOrderDTOs = new ArrayList<>();
-
-    when(orderRepository.findByCustomerId(2L)).thenReturn(emptyOrders);
-    when(orderMapper.toDtoList(emptyOrders)).thenReturn(emptyOrderDTOs);
+    when(orderRepository.findRowsByCustomerId(2L)).thenReturn(List.of());
 
     List<OrderDTO> result = customerService.getOrdersByCustomerId(2L);
 
     assertNotNull(result);
     assertTrue(result.isEmpty());
-    assertEquals(0, result.size());
-
-    verify(orderRepository).findByCustomerId(2L);
-    verify(orderMapper).toDtoList(emptyOrders);
+    verify(orderRepository).findRowsByCustomerId(2L);
+    verify(orderRepository, never()).findProductIdsByOrderIdIn(any());
+    verifyNoInteractions(orderMapper);
   }
 
   @Test
   void whenGetOrdersByCustomerId_withSingleOrder_thenReturnSingleOrderDTO() {
-    List<Order> singleOrder = Arrays.asList(sampleOrders.get(0));
-    List<OrderDTO> singleOrderDTO = Arrays.asList(sampleOrderDTOs.get(0));
-
-    when(orderRepository.findByCustomerId(1L)).thenReturn(singleOrder);
-    when(orderMapper.toDtoList(singleOrder)).thenReturn(singleOrderDTO);
+    List<OrderRow> singleRow = List.of(sampleRows.get(0));
+    List<OrderProductLink> singleLink = List.of(sampleLinks.get(0));
+    when(orderRepository.findRowsByCustomerId(1L)).thenReturn(singleRow);
+    when(orderRepository.findProductIdsByOrderIdIn(List.of(1L))).thenReturn(singleLink);
+    when(orderMapper.toDtoList(singleRow, singleLink)).thenReturn(List.of(sampleOrderDTOs.get(0)));
 
     List<OrderDTO> result = customerService.getOrdersByCustomerId(1L);
 
-    assertNotNull(result);
     assertEquals(1, result.size());
     assertEquals(Status.CREATED, result.get(0).getStatus());
     assertEquals(1L, result.get(0).getCustomerId());
-    assertNotNull(result.get(0).getProductsId());
-    assertEquals(1, result.get(0).getProductsId().size());
-    assertEquals(1L, result.get(0).getProductsId().get(0));
-
-    verify(orderRepository).findByCustomerId(1L);
-    verify(orderMapper).toDtoList(singleOrder);
+    assertEquals(List.of(1L), result.get(0).getProductsId());
   }
 
   @Test
   void whenGetOrdersByCustomerId_withMultipleOrdersAndDifferentStatuses_thenReturnAllOrderDTOs() {
-    Order order3 = new Order();
-    order3.setId(3L);
-    order3.setStatus(Status.SHIPPED);
-    order3.setCreatedAt(OffsetDateTime.now().minusDays(2));
-    order3.setCustomer(sampleCustomer);
-    order3.setProducts(Arrays.asList(sampleProduct));
-
-    Order order4 = new Order();
-    order4.setId(4L);
-    order4.setStatus(Status.DELIVERED);
-    order4.setCreatedAt(OffsetDateTime.now().minusDays(3));
-    order4.setCustomer(sampleCustomer);
-    order4.setProducts(Arrays.asList(sampleProduct));
-
-    List<Order> multipleOrders =
-        Arrays.asList(sampleOrders.get(0), sampleOrders.get(1), order3, order4);
+    OrderRow row3 = new OrderRow(3L, OffsetDateTime.now().minusDays(2), Status.SHIPPED, 1L);
+    OrderRow row4 = new OrderRow(4L, OffsetDateTime.now().minusDays(3), Status.DELIVERED, 1L);
+
+    List<OrderRow> multipleRows = Arrays.asList(sampleRows.get(0), sampleRows.get(1), row3, row4);
+    List<OrderProductLink> multipleLinks =
+        Arrays.asList(sampleLinks.get(0), sampleLinks.get(1), link(3L, 1L), link(4L, 1L));
 
     OrderDTO orderDTO3 = new OrderDTO();
-    orderDTO3.setCreatedAt(order3.getCreatedAt());
+    orderDTO3.setId(3L);
+    orderDTO3.setCreatedAt(row3.createdAt());
     orderDTO3.setStatus(Status.SHIPPED);
     orderDTO3.setCustomerId(1L);
     orderDTO3.setProductsId(Arrays.asList(1L));
 
     OrderDTO orderDTO4 = new OrderDTO();
-    orderDTO4.setCreatedAt(order4.getCreatedAt());
+    orderDTO4.setId(4L);
+    orderDTO4.setCreatedAt(row4.createdAt());
     orderDTO4.setStatus(Status.DELIVERED);
     orderDTO4.setCustomerId(1L);
     orderDTO4.setProductsId(Arrays.asList(1L));
@@ -170,8 +146,10 @@ class CustomerServiceTest {
     List<OrderDTO> multipleOrderDTOs =
         Arrays.asList(sampleOrderDTOs.get(0), sampleOrderDTOs.get(1), orderDTO3, orderDTO4);
 
-    when(orderRepository.findByCustomerId(1L)).thenReturn(multipleOrders);
-    when(orderMapper.toDtoList(multipleOrders)).thenReturn(multipleOrderDTOs);
+    when(orderRepository.findRowsByCustomerId(1L)).thenReturn(multipleRows);
+    when(orderRepository.findProductIdsByOrderIdIn(List.of(1L, 2L, 3L, 4L)))
+        .thenReturn(multipleLinks);
+    when(orderMapper.toDtoList(multipleRows, multipleLinks)).thenReturn(multipleOrderDTOs);
 
     List<OrderDTO> result = customerService.getOrdersByCustomerId(1L);
 
@@ -190,19 +168,121 @@ class CustomerServiceTest {
           assertFalse(orderDTO.getProductsId().isEmpty());
         });
 
-    verify(orderRepository).findByCustomerId(1L);
-    verify(orderMapper).toDtoList(multipleOrders);
+    verify(orderRepository).findRowsByCustomerId(1L);
+    verify(orderMapper).toDtoList(multipleRows, multipleLinks);
   }
 
   @Test
   void whenGetOrdersByCustomerId_verifyRepositoryAndMapperInteractions() {
-    when(orderRepository.findByCustomerId(1L)).thenReturn(sampleOrders);
-    when(orderMapper.toDtoList(sampleOrders)).thenReturn(sampleOrderDTOs);
+    when(orderRepository.findRowsByCustomerId(1L)).thenReturn(sampleRows);
+    when(orderRepository.findProductIdsByOrderIdIn(List.of(1L, 2L))).thenReturn(sampleLinks);
+    when(orderMapper.toDtoList(sampleRows, sampleLinks)).thenReturn(sampleOrderDTOs);
 
     customerService.getOrdersByCustomerId(1L);
 
-    verify(orderRepository, times(1)).findByCustomerId(1L);
-    verify(orderMapper, times(1)).toDtoList(sampleOrders);
+    verify(orderRepository, times(1)).findRowsByCustomerId(1L);
+    verify(orderRepository, times(1)).findProductIdsByOrderIdIn(List.of(1L, 2L));
+    verify(orderMapper, times(1)).toDtoList(sampleRows, sampleLinks);
     verifyNoMoreInteractions(orderRepository, orderMapper);
   }
+
+  @Test
+  void whenGetOrderPageByCustomerId_withMoreRowsThanPageSize_thenReturnPageAndCursor() {
+    OrderRow newest = new OrderRow(3L, OffsetDateTime.now(), Status.CREATED, 1L);
+    OrderRow middle = new OrderRow(2L, newest.createdAt().minusHours(1), Status.PAID, 1L);
+    OrderRow oldest = new OrderRow(1L, newest.createdAt().minusHours(2), Status.PAID, 1L);
+    List<OrderProductLink> links = List.of(link(3L, 10L), link(3L, 11L), link(2L, 12L));
+    when(orderRepository.findRowsByCustomerId(1L, Limit.of(3)))
+        .thenReturn(List.of(newest, middle, oldest));
+    when(orderRepository.findProductIdsByOrderIdIn(List.of(3L, 2L))).thenReturn(links);
+    when(orderMapper.toDtoList(List.of(newest, middle), links)).thenReturn(sampleOrderDTOs);
+
+    OrderPageDTO page = customerService.getOrderPageByCustomerId(1L, null, 2);
+
+    assertEquals(sampleOrderDTOs, page.getItems());
+    assertEquals(OrderCursor.after(middle), OrderCursor.decode(page.getNextCursor()));
+  }
+
+  @Test
+  void whenGetOrderPageByCustomerId_withCursor_thenContinueAfterIt() {
+    OrderCursor cursor = new OrderCursor(OffsetDateTime.now().withNano(0), 7L);
+    OrderRow row = new OrderRow(6L, cursor.createdAt().minusHours(1), Status.CREATED, 1L);
+    when(orderRepository.findRowsByCustomerIdBefore(
+            eq(1L),
+            argThat(createdAt -> createdAt.isEqual(cursor.createdAt())),
+            eq(7L),
+            eq(Limit.of(CustomerService.MAX_PAGE_SIZE + 1))))
+        .thenReturn(List.of(row));
+    when(orderRepository.findProductIdsByOrderIdIn(List.of(6L))).thenReturn(List.of());
+    when(orderMapper.toDtoList(List.of(row), List.of()))
+        .thenReturn(List.of(sampleOrderDTOs.get(0)));
+
+    OrderPageDTO page = customerService.getOrderPageByCustomerId(1L, cursor.encode(), 10_000);
+
+    assertEquals(1, page.getItems().size());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void whenGetOrderPageByCustomerId_withInvalidCursor_thenThrowInvalidCursorException() {
+    assertThrows(
+        InvalidCursorException.class,
+        () -> customerService.getOrderPageByCustomerId(1L, "not-a-cursor", 10));
+    verifyNoInteractions(orderRepository);
+  }
+
+  @Test
+  void whenGetOrderPageByCustomerId_withoutOrders_thenReturnEmptyLastPage() {
+    when(orderRepository.findRowsByCustomerId(2L, Limit.of(CustomerService.DEFAULT_PAGE_SIZE + 1)))
+        .thenReturn(List.of());
+
+    OrderPageDTO page =
+        customerService.getOrderPageByCustomerId(2L, null, CustomerService.DEFAULT_PAGE_SIZE);
+
+    assertTrue(page.getItems().isEmpty());
+    assertNull(page.getNextCursor());
+    verify(orderRepository, never()).findProductIdsByOrderIdIn(any());
+  }
+
+  @Test
+  void whenGetSummary_withSummaryRow_thenMapCountsAndTotals() {
+    OffsetDateTime lastOrderAt = OffsetDateTime.now();
+    when(customerSummaryRepository.findById(1L))
+        .thenReturn(
+            Optional.of(new CustomerSummary(1L, 1, 2, 3, 4, new BigDecimal("99.50"), lastOrderAt)));
+
+    CustomerSummaryDTO summary = customerService.getSummary(1L);
+
+    assertEquals(10, summary.getTotalOrders());
+    assertEquals(1L, summary.getOrdersByStatus().get(Status.CREATED));
+    assertEquals(4L, summary.getOrdersByStatus().get(Status.DELIVERED));
+    assertEquals(new BigDecimal("99.50"), summary.getLifetimeSpend());
+    assertEquals(lastOrderAt, summary.getLastOrderAt());
+    verifyNoInteractions(orderRepository, customerRegistry);
+  }
+
+  @Test
+  void whenGetSummary_withCustomerWithoutOrders_thenReturnEmptySummary() {
+    when(customerSummaryRepository.findById(2L)).thenReturn(Optional.empty());
+    when(customerRegistry.findReference(2L)).thenReturn(Optional.of(new Customer()));
+
+    CustomerSummaryDTO summary = customerService.getSummary(2L);
+
+    assertEquals(0, summary.getTotalOrders());
+    assertEquals(0L, summary.getOrdersByStatus().get(Status.PAID));
+    assertEquals(BigDecimal.ZERO, summary.getLifetimeSpend());
+    assertNull(summary.getLastOrderAt());
+  }
+
+  @Test
+  void whenGetSummary_withUnknownCustomer_thenThrowCustomerNotFoundException() {
+    when(customerSummaryRepository.findById(3L)).thenReturn(Optional.empty());
+    when(customerRegistry.findReference(3L)).thenReturn(Optional.empty());
+
+    assertThrows(CustomerNotFoundException.class, () -> customerService.getSummary(3L));
+  }
+
+  private static OrderProductLink link(Long orderId, Long productId) {
+    return new OrderProductLink(orderId, productId);
+  }
 }
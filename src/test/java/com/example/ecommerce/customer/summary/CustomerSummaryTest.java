@@ -0,0 +1,227 @@
+package com.example.ecommerce.customer.summary;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.ecommerce.customer.dto.CustomerSummaryDTO;
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.customer.service.CustomerService;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.exception.CustomerNotFoundException;
+import com.example.ecommerce.order.exception.OrderStatusIsNotPaidException;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class CustomerSummaryTest {
+
+  private static final int ROUNDS = 10;
+  private static final int ORDERS_PER_ROUND = 60;
+
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerService customerService;
+  @Autowired private CustomerSummaryRebuildJob rebuildJob;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+
+  private Customer customer;
+  private Product cheap;
+  private Product expensive;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Summarized");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    cheap = new Product();
+    cheap.setName("Cheap");
+    cheap.setPrice(new BigDecimal("2.50"));
+    expensive = new Product();
+    expensive.setName("Expensive");
+    expensive.setPrice(new BigDecimal("100.00"));
+    productRepository.saveAll(List.of(cheap, expensive));
+  }
+
+  @Test
+  void whenCustomerHasNoOrders_thenSummaryIsEmpty() {
+    CustomerSummaryDTO summary = customerService.getSummary(customer.getId());
+
+    assertEquals(0, summary.getTotalOrders());
+    assertEquals(0, BigDecimal.ZERO.compareTo(summary.getLifetimeSpend()));
+    assertNull(summary.getLastOrderAt());
+  }
+
+  @Test
+  void whenCustomerIsNotTrackedByTheRegistry_thenSummaryIsStillFound() {
+    Long untracked = CustomerRegistry.MAX_TRACKED_ID + customer.getId();
+    jdbcTemplate.update(
+        "INSERT INTO customer (id, name, email) VALUES (?, 'Untracked', ?)",
+        untracked,
+        UUID.randomUUID() + "@example.com");
+    try {
+      CustomerSummaryDTO summary = customerService.getSummary(untracked);
+
+      assertEquals(untracked, summary.getCustomerId());
+      assertEquals(0, summary.getTotalOrders());
+      assertThrows(
+          CustomerNotFoundException.class, () -> customerService.getSummary(untracked + 1));
+    } finally {
+      // Other tests take the highest customer id as their starting point
+      jdbcTemplate.update("DELETE FROM customer WHERE id = ?", untracked);
+    }
+  }
+
+  @Test
+  void whenOrdersAreCreatedAndMoved_thenSummaryFollows() {
+    OrderDTO first = createOrder(cheap, expensive);
+    List<Long> batch =
+        orderService
+            .createOrders(
+                List.of(
+                    new OrderCreateDTO(customer.getId(), List.of(cheap.getId())),
+                    new OrderCreateDTO(customer.getId(), List.of(expensive.getId()))))
+            .stream()
+            .map(result -> result.getOrder().getId())
+            .toList();
+
+    orderService.updateStatusToPaidById(first.getId());
+    orderService.updateStatusToPaidByIds(batch);
+    orderService.updateStatusToShippedByIds(List.of(first.getId(), batch.get(0)));
+    orderService.updateStatusToDeliveredById(first.getId());
+
+    CustomerSummaryDTO summary = customerService.getSummary(customer.getId());
+    assertEquals(3, summary.getTotalOrders());
+    assertEquals(0L, summary.getOrdersByStatus().get(Status.CREATED));
+    assertEquals(1L, summary.getOrdersByStatus().get(Status.PAID));
+    assertEquals(1L, summary.getOrdersByStatus().get(Status.SHIPPED));
+    assertEquals(1L, summary.getOrdersByStatus().get(Status.DELIVERED));
+    assertEquals(0, new BigDecimal("205.00").compareTo(summary.getLifetimeSpend()));
+    assertEquals(
+        orderService.getOrderById(batch.get(1)).getCreatedAt().toInstant(),
+        summary.getLastOrderAt().toInstant());
+  }
+
+  @Test
+  void whenTransitionIsRejected_thenSummaryIsUnchanged() {
+    OrderDTO order = createOrder(cheap);
+
+    assertThrows(
+        OrderStatusIsNotPaidException.class,
+        () -> orderService.updateStatusToShippedById(order.getId()));
+    orderService.updateStatusToDeliveredByIds(List.of(order.getId()));
+
+    CustomerSummaryDTO summary = customerService.getSummary(customer.getId());
+    assertEquals(1, summary.getTotalOrders());
+    assertEquals(1L, summary.getOrdersByStatus().get(Status.CREATED));
+  }
+
+  @Test
+  void whenSummaryDrifted_thenRebuildCorrectsIt() {
+    OrderDTO order = createOrder(cheap, expensive);
+    jdbcTemplate.update(
+        "UPDATE customer_summary SET paid_orders = 42, lifetime_spend = 0 WHERE customer_id = ?",
+        customer.getId());
+
+    assertTrue(rebuildJob.rebuild().drifted() >= 1);
+
+    CustomerSummaryDTO summary = customerService.getSummary(customer.getId());
+    assertEquals(1, summary.getTotalOrders());
+    assertEquals(0L, summary.getOrdersByStatus().get(Status.PAID));
+    assertEquals(0, new BigDecimal("102.50").compareTo(summary.getLifetimeSpend()));
+    assertEquals(0, rebuildJob.rebuild().drifted());
+
+    jdbcTemplate.update("DELETE FROM orders_product WHERE order_id = ?", order.getId());
+    jdbcTemplate.update("DELETE FROM orders WHERE id = ?", order.getId());
+    assertEquals(1, rebuildJob.rebuild().drifted());
+    assertEquals(0, customerService.getSummary(customer.getId()).getTotalOrders());
+  }
+
+  @Test
+  void whenOverlappingBulkPaymentsRace_thenSummaryMatchesRecompute() throws Exception {
+    rebuildJob.rebuild();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      for (int round = 0; round < ROUNDS; round++) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS_PER_ROUND; i++) {
+          ids.add(createOrder(cheap).getId());
+        }
+        // Both requests pay the middle third
+        List<Long> first = ids.subList(0, ORDERS_PER_ROUND * 2 / 3);
+        List<Long> second = ids.subList(ORDERS_PER_ROUND / 3, ORDERS_PER_ROUND);
+
+        CountDownLatch start = new CountDownLatch(1);
+        Future<BulkTransitionResultDTO> a = executor.submit(() -> payInBulk(start, first));
+        Future<BulkTransitionResultDTO> b = executor.submit(() -> payInBulk(start, second));
+        start.countDown();
+        List<Long> updatedByA = a.get(30, TimeUnit.SECONDS).getUpdated();
+        List<Long> updatedByB = b.get(30, TimeUnit.SECONDS).getUpdated();
+
+        Set<Long> updated = new HashSet<>(updatedByA);
+        updatedByB.forEach(id -> assertTrue(updated.add(id), "Order " + id + " paid twice"));
+        assertEquals(Set.copyOf(ids), updated);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(0, rebuildJob.rebuild().drifted());
+    CustomerSummaryDTO summary = customerService.getSummary(customer.getId());
+    assertEquals((long) ROUNDS * ORDERS_PER_ROUND, summary.getOrdersByStatus().get(Status.PAID));
+    assertEquals(0L, summary.getOrdersByStatus().get(Status.CREATED));
+  }
+
+  private BulkTransitionResultDTO payInBulk(CountDownLatch start, List<Long> ids) throws Exception {
+    start.await();
+    String body =
+        mockMvc
+            .perform(
+                patch("/orders/pay")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(ids)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readValue(body, BulkTransitionResultDTO.class);
+  }
+
+  private OrderDTO createOrder(Product... products) {
+    return orderService.createOrder(
+        new OrderCreateDTO(
+            customer.getId(), List.of(products).stream().map(Product::getId).toList()));
+  }
+}
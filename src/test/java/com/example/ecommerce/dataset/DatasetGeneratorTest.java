@@ -0,0 +1,121 @@
+package com.example.ecommerce.dataset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.catalog.ProductCatalog;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class DatasetGeneratorTest {
+
+  private static final DatasetSpec SPEC = new DatasetSpec(500, 100, 10_000);
+
+  @Autowired private DatasetGenerator datasetGenerator;
+  @Autowired private ProductCatalog productCatalog;
+  @Autowired private CustomerRegistry customerRegistry;
+  @Autowired private OrderService orderService;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private long customersBefore;
+  private long productsBefore;
+  private long ordersBefore;
+  private DatasetReport report;
+
+  @BeforeEach
+  void generate() {
+    customersBefore = maxId("customer");
+    productsBefore = maxId("product");
+    ordersBefore = maxId("orders");
+    report = datasetGenerator.generate(SPEC);
+  }
+
+  @Test
+  void whenGenerating_thenEveryRowIsWrittenAndReported() {
+    assertEquals(SPEC.customers(), countAfter("customer", customersBefore));
+    assertEquals(SPEC.products(), countAfter("product", productsBefore));
+    assertEquals(SPEC.orders(), countAfter("orders", ordersBefore));
+    assertEquals(
+        report.orderProducts(),
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM orders_product WHERE order_id > ?", Long.class, ordersBefore));
+    assertEquals(
+        SPEC.customers() + SPEC.products() + SPEC.orders() + report.orderProducts(), report.rows());
+    assertTrue(report.rowsPerSecond() > 0);
+  }
+
+  @Test
+  void whenGenerating_thenOrdersHaveDistinctProductsAndEveryStatus() {
+    List<Map<String, Object>> productsPerOrder =
+        jdbcTemplate.queryForList(
+            "SELECT COUNT(*) AS products, COUNT(DISTINCT product_id) AS distinct_products"
+                + " FROM orders_product WHERE order_id > ? GROUP BY order_id",
+            ordersBefore);
+    assertEquals(SPEC.orders(), productsPerOrder.size());
+    for (Map<String, Object> row : productsPerOrder) {
+      long products = ((Number) row.get("PRODUCTS")).longValue();
+      assertTrue(products >= 1 && products <= 5);
+      assertEquals(products, ((Number) row.get("DISTINCT_PRODUCTS")).longValue());
+    }
+
+    List<String> statuses =
+        jdbcTemplate.queryForList(
+            "SELECT DISTINCT status FROM orders WHERE id > ?", String.class, ordersBefore);
+    assertEquals(
+        List.of(Status.values()).stream().map(Status::name).sorted().toList(),
+        statuses.stream().sorted().toList());
+  }
+
+  @Test
+  void whenGenerating_thenATenthOfCustomersPlaceOverFortyPercentOfOrders() {
+    List<Long> ordersPerCustomer =
+        jdbcTemplate.queryForList(
+            "SELECT COUNT(*) FROM orders WHERE id > ? GROUP BY customer_id ORDER BY 1 DESC",
+            Long.class,
+            ordersBefore);
+    long topTenPercent =
+        ordersPerCustomer.stream().limit(SPEC.customers() / 10).mapToLong(Long::longValue).sum();
+
+    assertTrue(
+        topTenPercent > SPEC.orders() * 4 / 10,
+        "top 10% of customers placed " + topTenPercent + " orders");
+  }
+
+  @Test
+  void whenGenerating_thenNewRowsCanBeOrderedWithoutIdClashes() {
+    long customerId =
+        jdbcTemplate.queryForObject(
+            "SELECT MIN(id) FROM customer WHERE id > ?", Long.class, customersBefore);
+    long productId =
+        jdbcTemplate.queryForObject(
+            "SELECT MIN(id) FROM product WHERE id > ?", Long.class, productsBefore);
+    assertTrue(customerRegistry.contains(customerId));
+    assertTrue(productCatalog.contains(productId));
+
+    // Would fail with a primary key violation if Hibernate handed out one of the generated IDs
+    OrderDTO order = orderService.createOrder(new OrderCreateDTO(customerId, List.of(productId)));
+
+    assertEquals(customerId, order.getCustomerId());
+    assertEquals(List.of(productId), order.getProductsId());
+  }
+
+  private long maxId(String table) {
+    Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+    return max == null ? 0 : max;
+  }
+
+  private long countAfter(String table, long id) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM " + table + " WHERE id > ?", Long.class, id);
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.ecommerce.load;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.HdrHistogram.Histogram;
+
+/** Latencies and failures of one endpoint, recorded by one client and merged for the report. */
+final class EndpointStats {
+
+  private final Histogram latencies = new Histogram(3);
+  private final Map<Integer, Long> errorStatuses = new TreeMap<>();
+  private long failures;
+
+  void record(int status, long nanos) {
+    latencies.recordValue(nanos);
+    if (status >= 400) {
+      errorStatuses.merge(status, 1L, Long::sum);
+    }
+  }
+
+  /** A request that got no response at all (timeout, connection refused). */
+  void fail(long nanos) {
+    latencies.recordValue(nanos);
+    failures++;
+  }
+
+  void add(EndpointStats other) {
+    latencies.add(other.latencies);
+    other.errorStatuses.forEach((status, count) -> errorStatuses.merge(status, count, Long::sum));
+    failures += other.failures;
+  }
+
+  long requests() {
+    return latencies.getTotalCount();
+  }
+
+  long errors() {
+    return failures + errorStatuses.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  double percentileMillis(double percentile) {
+    return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+  }
+
+  double maxMillis() {
+    return latencies.getMaxValue() / 1_000_000.0;
+  }
+
+  /** Error responses by status, e.g. {@code 404:3 409:120}, plus {@code io:n} for failures. */
+  String errorBreakdown() {
+    String statuses =
+        errorStatuses.entrySet().stream()
+            .map(entry -> entry.getKey() + ":" + entry.getValue())
+            .collect(Collectors.joining(" "));
+    if (failures == 0) {
+      return statuses.isEmpty() ? "-" : statuses;
+    }
+    return (statuses + " io:" + failures).strip();
+  }
+}
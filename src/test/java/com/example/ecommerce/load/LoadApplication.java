@@ -0,0 +1,81 @@
+package com.example.ecommerce.load;
+
+import com.example.ecommerce.Application;
+import com.example.ecommerce.dataset.DatasetGenerator;
+import com.example.ecommerce.order.intake.OrderIntake;
+import com.example.ecommerce.order.service.OrderService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/** The application on a random port with its own in-memory database, for the load drivers. */
+final class LoadApplication implements AutoCloseable {
+
+  private final ConfigurableApplicationContext context;
+
+  private LoadApplication(ConfigurableApplicationContext context) {
+    this.context = context;
+  }
+
+  static LoadApplication start(String... properties) {
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    List<String> args =
+        new ArrayList<>(
+            List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:load-"
+                    + UUID.randomUUID()
+                    + ";LAZY_QUERY_EXECUTION=1",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+    args.addAll(List.of(properties));
+    // Passed as command-line arguments, which override application.properties
+    return new LoadApplication(
+        new SpringApplicationBuilder(Application.class)
+            .logStartupInfo(false)
+            .run(args.stream().map(property -> "--" + property).toArray(String[]::new)));
+  }
+
+  String baseUrl() {
+    return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+  }
+
+  LoadDataset.Seeded seed(LoadDataset dataset) {
+    return dataset.seed(
+        context.getBean(DatasetGenerator.class), context.getBean(JdbcTemplate.class));
+  }
+
+  /**
+   * Orders in the database once creation has settled: the intake queue, if any, is empty and the
+   * live status counters did not change for a second (a group may still be committing).
+   */
+  long settledOrderCount() throws InterruptedException {
+    OrderService orderService = context.getBean(OrderService.class);
+    MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+    long previous = -1;
+    long current = orderService.getStats().getTotal();
+    while (current != previous || queuedForIntake(meterRegistry) > 0) {
+      Thread.sleep(1_000);
+      previous = current;
+      current = orderService.getStats().getTotal();
+    }
+    return current;
+  }
+
+  private static double queuedForIntake(MeterRegistry meterRegistry) {
+    Gauge queued = meterRegistry.find(OrderIntake.QUEUED).gauge();
+    return queued == null ? 0 : queued.value();
+  }
+
+  @Override
+  public void close() {
+    context.close();
+  }
+}
@@ -0,0 +1,45 @@
+package com.example.ecommerce.load;
+
+import com.example.ecommerce.dataset.DatasetGenerator;
+import com.example.ecommerce.dataset.DatasetSpec;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds the load database through {@link DatasetGenerator} on top of the default seed. The
+ * generator reserves each table's IDs in one go, so the new rows of a table have consecutive IDs.
+ */
+record LoadDataset(int customers, int products, int orders) {
+
+  Seeded seed(DatasetGenerator generator, JdbcTemplate jdbcTemplate) {
+    long customersBefore = maxId(jdbcTemplate, "customer");
+    long productsBefore = maxId(jdbcTemplate, "product");
+    long ordersBefore = maxId(jdbcTemplate, "orders");
+    generator.generate(new DatasetSpec(customers, products, orders));
+    return new Seeded(
+        firstIdAfter(jdbcTemplate, "customer", customersBefore),
+        customers,
+        firstIdAfter(jdbcTemplate, "product", productsBefore),
+        products,
+        firstIdAfter(jdbcTemplate, "orders", ordersBefore),
+        orders);
+  }
+
+  private static long maxId(JdbcTemplate jdbcTemplate, String table) {
+    Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+    return max == null ? 0 : max;
+  }
+
+  private static long firstIdAfter(JdbcTemplate jdbcTemplate, String table, long id) {
+    return jdbcTemplate.queryForObject(
+        "SELECT MIN(id) FROM " + table + " WHERE id > ?", Long.class, id);
+  }
+
+  /** ID ranges of the seeded rows. */
+  record Seeded(
+      long firstCustomer,
+      int customers,
+      long firstProduct,
+      int products,
+      long firstOrder,
+      int orders) {}
+}
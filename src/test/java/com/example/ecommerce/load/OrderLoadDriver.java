@@ -0,0 +1,379 @@
+package com.example.ecommerce.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mixed-traffic load driver for the order endpoints. Starts the application with its own database,
+ * seeds a {@link LoadDataset}, warms up and then runs {@code clients} closed-loop clients that each
+ * pick the next operation from the mix as soon as the previous response arrives:
+ *
+ * <ul>
+ *   <li>{@code create}: {@code POST /orders} for a random customer with one to three products;
+ *   <li>{@code poll}: {@code GET /orders/{id}}, half of the time for an order the client created;
+ *   <li>{@code transition}: moves one of the client's own orders one step through pay, ship and
+ *       deliver, or, while it has none, pays a random seeded order (mostly rejected with 409);
+ *   <li>{@code history}: {@code GET /customers/{id}/orders} for a random customer.
+ * </ul>
+ *
+ * <p>Prints throughput, p50/p95/p99/p99.9/max latency and error responses by status per endpoint.
+ * Latency is measured from send to last byte, so it is service time under the offered concurrency
+ * rather than the response time a fixed-rate workload would see.
+ *
+ * <p>With {@code --async true} the application runs with the group-commit intake and creates send
+ * {@code Prefer: respond-async}, so the create latency is the time to a {@code 202 Accepted}. The
+ * sustained creation rate is then reported separately: orders committed during the run, including
+ * the time the intake needed to drain its queue afterwards.
+ *
+ * <pre>
+ * mvn -Pload test-compile exec:exec -Dload.args="--clients 200 --orders 1000000 --mix create=10,poll=50,transition=20,history=20"
+ * </pre>
+ */
+public final class OrderLoadDriver {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private OrderLoadDriver() {}
+
+  public static void main(String[] args) throws Exception {
+    int clients = intArg(args, "--clients", 200);
+    Duration warmup = Duration.ofSeconds(intArg(args, "--warmup", 10));
+    Duration duration = Duration.ofSeconds(intArg(args, "--duration", 30));
+    LoadDataset dataset =
+        new LoadDataset(
+            intArg(args, "--customers", 10_000),
+            intArg(args, "--products", 1_000),
+            intArg(args, "--orders", 200_000));
+    Mix mix = Mix.parse(arg(args, "--mix", "create=10,poll=50,transition=20,history=20"));
+    boolean virtual = Boolean.parseBoolean(arg(args, "--virtual", "false"));
+    boolean async = Boolean.parseBoolean(arg(args, "--async", "false"));
+    int groupSize = intArg(args, "--group-size", 500);
+
+    try (LoadApplication application =
+        LoadApplication.start(
+            "spring.threads.virtual.enabled=" + virtual,
+            "app.intake.enabled=" + async,
+            "app.intake.group-size=" + groupSize)) {
+      long start = System.nanoTime();
+      LoadDataset.Seeded seeded = application.seed(dataset);
+      System.out.printf("Seeded %s in %d ms%n", dataset, (System.nanoTime() - start) / 1_000_000);
+
+      drive(application.baseUrl(), seeded, mix, clients, warmup, async);
+      long ordersBefore = application.settledOrderCount();
+      long measureStart = System.nanoTime();
+      Map<Endpoint, EndpointStats> stats =
+          drive(application.baseUrl(), seeded, mix, clients, duration, async);
+      long committed = application.settledOrderCount() - ordersBefore;
+      double seconds = (System.nanoTime() - measureStart) / 1e9;
+      report(stats, clients, duration, virtual);
+      System.out.printf(
+          "%nOrders committed: %d in %.1f s including drain, %.0f orders/s (%s creation)%n",
+          committed,
+          seconds,
+          committed / seconds,
+          async ? "async group-commit, group size " + groupSize : "synchronous");
+    }
+  }
+
+  private static Map<Endpoint, EndpointStats> drive(
+      String base,
+      LoadDataset.Seeded seeded,
+      Mix mix,
+      int clients,
+      Duration duration,
+      boolean async)
+      throws Exception {
+    AtomicBoolean running = new AtomicBoolean(true);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http =
+            HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+      List<Future<Client>> futures = new ArrayList<>(clients);
+      for (int i = 0; i < clients; i++) {
+        futures.add(
+            executor.submit(() -> new Client(http, base, seeded, mix, async).runWhile(running)));
+      }
+      Thread.sleep(duration.toMillis());
+      running.set(false);
+
+      Map<Endpoint, EndpointStats> total = new EnumMap<>(Endpoint.class);
+      for (Endpoint endpoint : Endpoint.values()) {
+        total.put(endpoint, new EndpointStats());
+      }
+      for (Future<Client> future : futures) {
+        future.get().stats.forEach((endpoint, stats) -> total.get(endpoint).add(stats));
+      }
+      return total;
+    }
+  }
+
+  private static void report(
+      Map<Endpoint, EndpointStats> stats, int clients, Duration duration, boolean virtual) {
+    System.out.printf(
+        "%n%d clients, %d s, %s threads%n",
+        clients, duration.toSeconds(), virtual ? "virtual" : "platform");
+    System.out.printf(
+        "%-28s %9s %9s %8s %8s %8s %8s %8s %8s  %s%n",
+        "endpoint",
+        "requests",
+        "req/s",
+        "p50 ms",
+        "p95 ms",
+        "p99 ms",
+        "p999 ms",
+        "max ms",
+        "errors",
+        "by status");
+    EndpointStats all = new EndpointStats();
+    for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+      all.add(entry.getValue());
+      System.out.println(row(entry.getKey().label, entry.getValue(), duration));
+    }
+    System.out.println(row("all", all, duration));
+  }
+
+  private static String row(String label, EndpointStats stats, Duration duration) {
+    long requests = stats.requests();
+    return String.format(
+        "%-28s %9d %9.0f %8.1f %8.1f %8.1f %8.1f %8.1f %7.2f%%  %s",
+        label,
+        requests,
+        requests / (double) duration.toSeconds(),
+        stats.percentileMillis(50),
+        stats.percentileMillis(95),
+        stats.percentileMillis(99),
+        stats.percentileMillis(99.9),
+        stats.maxMillis(),
+        requests == 0 ? 0 : 100.0 * stats.errors() / requests,
+        stats.errorBreakdown());
+  }
+
+  private static String arg(String[] args, String name, String defaultValue) {
+    for (int i = 0; i < args.length - 1; i++) {
+      if (args[i].equals(name)) {
+        return args[i + 1];
+      }
+    }
+    return defaultValue;
+  }
+
+  private static int intArg(String[] args, String name, int defaultValue) {
+    return Integer.parseInt(arg(args, name, String.valueOf(defaultValue)));
+  }
+
+  enum Operation {
+    CREATE,
+    POLL,
+    TRANSITION,
+    HISTORY
+  }
+
+  enum Endpoint {
+    CREATE("POST /orders"),
+    GET("GET /orders/{id}"),
+    PAY("PATCH /orders/{id}/pay"),
+    SHIP("PATCH /orders/{id}/ship"),
+    DELIVER("PATCH /orders/{id}/deliver"),
+    HISTORY("GET /customers/{id}/orders");
+
+    private final String label;
+
+    Endpoint(String label) {
+      this.label = label;
+    }
+  }
+
+  /** Relative operation weights, e.g. {@code create=10,poll=50,transition=20,history=20}. */
+  record Mix(int[] cumulativeWeights) {
+
+    static Mix parse(String spec) {
+      int[] weights = new int[Operation.values().length];
+      for (String part : spec.split(",")) {
+        String[] pair = part.trim().split("=");
+        weights[Operation.valueOf(pair[0].trim().toUpperCase()).ordinal()] =
+            Integer.parseInt(pair[1].trim());
+      }
+      for (int i = 1; i < weights.length; i++) {
+        weights[i] += weights[i - 1];
+      }
+      if (weights[weights.length - 1] <= 0) {
+        throw new IllegalArgumentException("Operation mix has no weight: " + spec);
+      }
+      return new Mix(weights);
+    }
+
+    Operation next(ThreadLocalRandom random) {
+      int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+      int i = 0;
+      while (pick >= cumulativeWeights[i]) {
+        i++;
+      }
+      return Operation.values()[i];
+    }
+  }
+
+  /** An order this client created, with the status its last successful transition left it in. */
+  private record OwnOrder(long id, int step) {}
+
+  private static final class Client {
+    private static final int MAX_OWN_ORDERS = 64;
+    private static final Endpoint[] STEPS = {Endpoint.PAY, Endpoint.SHIP, Endpoint.DELIVER};
+
+    private final HttpClient http;
+    private final String base;
+    private final LoadDataset.Seeded seeded;
+    private final Mix mix;
+    private final boolean async;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final ArrayDeque<OwnOrder> ownOrders = new ArrayDeque<>();
+
+    Client(HttpClient http, String base, LoadDataset.Seeded seeded, Mix mix, boolean async) {
+      this.http = http;
+      this.base = base;
+      this.seeded = seeded;
+      this.mix = mix;
+      this.async = async;
+      for (Endpoint endpoint : Endpoint.values()) {
+        stats.put(endpoint, new EndpointStats());
+      }
+    }
+
+    Client runWhile(AtomicBoolean running) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      while (running.get()) {
+        switch (mix.next(random)) {
+          case CREATE -> create(random);
+          case POLL -> poll(random);
+          case TRANSITION -> transition(random);
+          case HISTORY ->
+              send(
+                  Endpoint.HISTORY,
+                  get(
+                      "/customers/"
+                          + (seeded.firstCustomer() + random.nextInt(seeded.customers()))
+                          + "/orders"));
+        }
+      }
+      return this;
+    }
+
+    private void create(ThreadLocalRandom random) {
+      List<Long> products = new ArrayList<>();
+      int count = random.nextInt(10) < 6 ? 1 : random.nextInt(10) < 8 ? 2 : 3;
+      for (int i = 0; i < count; i++) {
+        products.add(seeded.firstProduct() + skewed(random, seeded.products()));
+      }
+      long customer = seeded.firstCustomer() + skewed(random, seeded.customers());
+      String body =
+          "{\"customerId\":"
+              + customer
+              + ",\"productsId\":"
+              + products.toString().replace(" ", "")
+              + "}";
+      HttpRequest.Builder request =
+          HttpRequest.newBuilder(URI.create(base + "/orders"))
+              .timeout(Duration.ofSeconds(30))
+              .header("Content-Type", "application/json")
+              .POST(HttpRequest.BodyPublishers.ofString(body));
+      if (async) {
+        // Answered with 202 and a ticket; the order ID is not known yet, so it is not tracked
+        request.header("Prefer", "respond-async");
+      }
+      HttpResponse<String> response = send(Endpoint.CREATE, request.build());
+      if (response != null && response.statusCode() == 200) {
+        try {
+          ownOrders.addLast(new OwnOrder(JSON.readTree(response.body()).get("id").asLong(), 0));
+        } catch (Exception e) {
+          throw new IllegalStateException("Unexpected create response: " + response.body(), e);
+        }
+        if (ownOrders.size() > MAX_OWN_ORDERS) {
+          ownOrders.removeFirst();
+        }
+      }
+    }
+
+    private void poll(ThreadLocalRandom random) {
+      long id =
+          !ownOrders.isEmpty() && random.nextBoolean()
+              ? ownOrders.peekLast().id()
+              : seeded.firstOrder() + skewed(random, seeded.orders());
+      send(Endpoint.GET, get("/orders/" + id));
+    }
+
+    private void transition(ThreadLocalRandom random) {
+      OwnOrder order = ownOrders.pollFirst();
+      if (order == null) {
+        long id = seeded.firstOrder() + random.nextInt(seeded.orders());
+        send(Endpoint.PAY, patch("/orders/" + id + "/pay"));
+        return;
+      }
+      HttpResponse<String> response =
+          send(STEPS[order.step()], patch("/orders/" + order.id() + "/" + stepPath(order.step())));
+      boolean advanced = response != null && response.statusCode() < 400;
+      int step = advanced ? order.step() + 1 : order.step();
+      if (step < STEPS.length) {
+        ownOrders.addLast(new OwnOrder(order.id(), step));
+      }
+    }
+
+    private static String stepPath(int step) {
+      return switch (step) {
+        case 0 -> "pay";
+        case 1 -> "ship";
+        default -> "deliver";
+      };
+    }
+
+    /** Recent orders, best sellers and big customers come up more often than the rest. */
+    private static int skewed(ThreadLocalRandom random, int size) {
+      double uniform = random.nextDouble();
+      return (int) (size * uniform * uniform);
+    }
+
+    private HttpRequest get(String path) {
+      return HttpRequest.newBuilder(URI.create(base + path))
+          .timeout(Duration.ofSeconds(30))
+          .build();
+    }
+
+    private HttpRequest patch(String path) {
+      return HttpRequest.newBuilder(URI.create(base + path))
+          .timeout(Duration.ofSeconds(30))
+          .method("PATCH", HttpRequest.BodyPublishers.noBody())
+          .build();
+    }
+
+    private HttpResponse<String> send(Endpoint endpoint, HttpRequest request) {
+      long start = System.nanoTime();
+      try {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        stats.get(endpoint).record(response.statusCode(), System.nanoTime() - start);
+        return response;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        stats.get(endpoint).fail(System.nanoTime() - start);
+        return null;
+      } catch (Exception e) {
+        stats.get(endpoint).fail(System.nanoTime() - start);
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.ecommerce.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closed-loop load comparison of platform-thread and virtual-thread request handling. For each mode
+ * the application is started on a random port with its own database, seeded, warmed up and then
+ * driven by {@code clients} concurrent clients that each send a request as soon as the previous one
+ * returns: 80% customer order pages, 20% single-order reads.
+ *
+ * <pre>
+ * mvn -Pload test-compile exec:exec -Dload.class=VirtualThreadLoadComparison -Dload.args="--clients 1000 --warmup 10 --duration 30"
+ * </pre>
+ */
+public final class VirtualThreadLoadComparison {
+
+  private static final LoadDataset DATASET = new LoadDataset(1_000, 100, 100_000);
+
+  private VirtualThreadLoadComparison() {}
+
+  public static void main(String[] args) throws Exception {
+    int clients = intArg(args, "--clients", 1_000);
+    Duration warmup = Duration.ofSeconds(intArg(args, "--warmup", 10));
+    Duration duration = Duration.ofSeconds(intArg(args, "--duration", 30));
+
+    List<String> rows = new ArrayList<>();
+    for (boolean virtual : new boolean[] {false, true}) {
+      rows.add(run(virtual, clients, warmup, duration));
+    }
+
+    System.out.printf(
+        "%n%-9s %8s %10s %10s %9s %9s %9s %8s%n",
+        "mode", "clients", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+    rows.forEach(System.out::println);
+  }
+
+  private static String run(boolean virtual, int clients, Duration warmup, Duration duration)
+      throws Exception {
+    try (LoadApplication application =
+        LoadApplication.start("spring.threads.virtual.enabled=" + virtual)) {
+      LoadDataset.Seeded seeded = application.seed(DATASET);
+      drive(application.baseUrl(), seeded, clients, warmup);
+      EndpointStats stats = drive(application.baseUrl(), seeded, clients, duration);
+      return String.format(
+          "%-9s %8d %10d %10.0f %9.1f %9.1f %9.1f %8d",
+          virtual ? "virtual" : "platform",
+          clients,
+          stats.requests(),
+          stats.requests() / (double) duration.toSeconds(),
+          stats.percentileMillis(50),
+          stats.percentileMillis(99),
+          stats.maxMillis(),
+          stats.errors());
+    }
+  }
+
+  private static EndpointStats drive(
+      String base, LoadDataset.Seeded seeded, int clients, Duration duration) throws Exception {
+    AtomicBoolean running = new AtomicBoolean(true);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http =
+            HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+      List<Future<EndpointStats>> futures = new ArrayList<>(clients);
+      for (int i = 0; i < clients; i++) {
+        futures.add(executor.submit(() -> runClient(http, base, seeded, running)));
+      }
+      Thread.sleep(duration.toMillis());
+      running.set(false);
+
+      EndpointStats total = new EndpointStats();
+      for (Future<EndpointStats> future : futures) {
+        total.add(future.get());
+      }
+      return total;
+    }
+  }
+
+  private static EndpointStats runClient(
+      HttpClient http, String base, LoadDataset.Seeded seeded, AtomicBoolean running) {
+    EndpointStats stats = new EndpointStats();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (running.get()) {
+      String path =
+          random.nextInt(10) < 8
+              ? "/customers/"
+                  + (seeded.firstCustomer() + random.nextInt(seeded.customers()))
+                  + "/orders/page?size=20"
+              : "/orders/" + (seeded.firstOrder() + random.nextInt(seeded.orders()));
+      HttpRequest request =
+          HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30)).build();
+      long start = System.nanoTime();
+      try {
+        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        stats.record(response.statusCode(), System.nanoTime() - start);
+      } catch (Exception e) {
+        stats.fail(System.nanoTime() - start);
+      }
+    }
+    return stats;
+  }
+
+  private static int intArg(String[] args, String name, int defaultValue) {
+    for (int i = 0; i < args.length - 1; i++) {
+      if (args[i].equals(name)) {
+        return Integer.parseInt(args[i + 1]);
+      }
+    }
+    return defaultValue;
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.ecommerce.order.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.exception.OrderNotFoundException;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class OrderCacheTest {
+
+  private static final int POLLERS = 4;
+  private static final int ROUNDS = 50;
+
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Customer customer;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Poller");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    product = new Product();
+    product.setName("Polled");
+    product.setPrice(new BigDecimal("1.00"));
+    productRepository.save(product);
+  }
+
+  @Test
+  void whenTransitionReturns_thenPollersNeverSeeTheOldStatusAgain() throws Exception {
+    ExecutorService pollers = Executors.newFixedThreadPool(POLLERS);
+    try {
+      for (int round = 0; round < ROUNDS; round++) {
+        Long orderId = createOrder().getId();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean paid = new AtomicBoolean(false);
+        AtomicLong staleReads = new AtomicLong();
+        for (int i = 0; i < POLLERS; i++) {
+          pollers.submit(
+              () -> {
+                while (running.get()) {
+                  boolean paidBeforeRead = paid.get();
+                  Status status = orderService.getOrderById(orderId).getStatus();
+                  if (paidBeforeRead && status != Status.PAID) {
+                    staleReads.incrementAndGet();
+                  }
+                }
+              });
+        }
+
+        try {
+          orderService.updateStatusToPaidById(orderId);
+          paid.set(true);
+          assertEquals(Status.PAID, orderService.getOrderById(orderId).getStatus());
+          Thread.sleep(2);
+        } finally {
+          running.set(false);
+        }
+
+        assertEquals(0, staleReads.get(), "stale reads after pay in round " + round);
+      }
+    } finally {
+      pollers.shutdown();
+      assertTrue(pollers.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void whenOrderIsRead_thenHitsAndMissesAreCounted() {
+    Long orderId = createOrder().getId();
+    double hits = gets("hit");
+    double misses = gets("miss");
+
+    orderService.getOrderById(orderId);
+    orderService.getOrderById(orderId);
+    assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(Long.MAX_VALUE));
+    assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(Long.MAX_VALUE));
+
+    assertEquals(hits + 3, gets("hit"));
+    assertEquals(misses + 1, gets("miss"));
+    assertNotNull(meterRegistry.find("cache.evictions").tag("cache", OrderCache.NAME).meter());
+  }
+
+  private OrderDTO createOrder() {
+    return orderService.createOrder(new OrderCreateDTO(customer.getId(), List.of(product.getId())));
+  }
+
+  private double gets(String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", OrderCache.NAME)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+}
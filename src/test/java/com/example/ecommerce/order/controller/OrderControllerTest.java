@@ -1,29 +1,60 @@
 package com.example.ecommerce.order.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.ecommerce.config.sql.StatementBudget;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO.RejectedOrderDTO;
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
 import com.example.ecommerce.order.dto.OrderCreateDTO;
 import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO.State;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.dto.OrderStatsDTO;
 import com.example.ecommerce.order.exception.CustomerNotFoundException;
 import com.example.ecommerce.order.exception.EmptyProductsException;
+import com.example.ecommerce.order.exception.IdempotencyKeyConflictException;
+import com.example.ecommerce.order.exception.IntakeQueueFullException;
 import com.example.ecommerce.order.exception.OrderNotFoundException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotCreatedException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotPaidException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotShippedException;
+import com.example.ecommerce.order.intake.OrderIntake;
+import com.example.ecommerce.order.metrics.OrderMetrics;
 import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderSearch;
 import com.example.ecommerce.order.service.OrderService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -31,15 +62,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+// Services are mocked, so the web layer on its own must not run any SQL
 @WebMvcTest(OrderController.class)
+@StatementBudget(0)
 class OrderControllerTest {
 
   @Autowired private MockMvc mockMvc;
   @Autowired private ObjectMapper objectMapper;
   @Autowired private OrderService orderService;
+  @Autowired private OrderIntake orderIntake;
 
   @TestConfiguration
   static class MockConfig {
@@ -47,6 +83,16 @@ class OrderControllerTest {
     OrderService orderService() {
       return Mockito.mock(OrderService.class);
     }
+
+    @Bean
+    OrderIntake orderIntake() {
+      return Mockito.mock(OrderIntake.class);
+    }
+
+    @Bean
+    OrderMetrics orderMetrics() {
+      return new OrderMetrics(new SimpleMeterRegistry());
+    }
   }
 
   private OrderDTO sampleOrderDTO;
@@ -54,7 +100,7 @@ class OrderControllerTest {
 
   @BeforeEach
   void setUp() {
-    Mockito.reset(orderService);
+    Mockito.reset(orderService, orderIntake);
 
     sampleOrderCreateDTO = new OrderCreateDTO(1L, Arrays.asList(1L, 2L, 3L));
 
@@ -63,6 +109,7 @@ class OrderControllerTest {
     sampleOrderDTO.setStatus(Status.CREATED);
     sampleOrderDTO.setCustomerId(1L);
     sampleOrderDTO.setProductsId(Arrays.asList(1L, 2L, 3L));
+    sampleOrderDTO.setVersion(0L);
   }
 
   @Test
@@ -78,7 +125,125 @@ class OrderControllerTest {
         .andExpect(jsonPath("$.customerId").value(1L))
         .andExpect(jsonPath("$.productsId").isArray());
 
-    verify(orderService).createOrder(any(OrderCreateDTO.class));
+    verify(orderService)
+        .createOrder(
+            Mockito.argThat(
+                dto ->
+                    dto.getCustomerId().equals(sampleOrderCreateDTO.getCustomerId())
+                        && dto.getProductsId().equals(sampleOrderCreateDTO.getProductsId())));
+  }
+
+  @Test
+  void whenCreateWithIdempotencyKey_thenCreateSynchronouslyUnderThatKey() throws Exception {
+    when(orderService.createOrder(any(OrderCreateDTO.class), eq("retry-1")))
+        .thenReturn(sampleOrderDTO);
+    mockMvc
+        .perform(
+            post("/orders")
+                .header("Idempotency-Key", "retry-1")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleOrderCreateDTO)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("CREATED"));
+
+    verifyNoInteractions(orderIntake);
+  }
+
+  @Test
+  void whenIdempotencyKeyWasUsedForAnotherOrder_thenReturnConflict() throws Exception {
+    when(orderService.createOrder(any(OrderCreateDTO.class), eq("retry-1")))
+        .thenThrow(new IdempotencyKeyConflictException("retry-1"));
+    mockMvc
+        .perform(
+            post("/orders")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleOrderCreateDTO)))
+        .andExpect(status().isConflict())
+        .andExpect(
+            jsonPath("$.message")
+                .value("Idempotency key retry-1 was already used for a different order"));
+  }
+
+  @Test
+  void whenCreateWithRespondAsync_thenReturnAcceptedTicket() throws Exception {
+    UUID ticket = UUID.randomUUID();
+    when(orderIntake.submit(any(OrderCreateDTO.class)))
+        .thenReturn(
+            new OrderIntakeDTO(ticket, State.QUEUED, OffsetDateTime.now(), null, null, null));
+    mockMvc
+        .perform(
+            post("/orders")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleOrderCreateDTO)))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "http://localhost/orders/intake/" + ticket))
+        .andExpect(header().string("Preference-Applied", "respond-async"))
+        .andExpect(jsonPath("$.ticket").value(ticket.toString()))
+        .andExpect(jsonPath("$.state").value("QUEUED"));
+
+    verify(orderService, never()).createOrder(any());
+  }
+
+  @Test
+  void whenIntakeQueueIsFull_thenReturn503WithRetryAfter() throws Exception {
+    when(orderIntake.submit(any(OrderCreateDTO.class))).thenThrow(new IntakeQueueFullException());
+    mockMvc
+        .perform(
+            post("/orders")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleOrderCreateDTO)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"));
+  }
+
+  @Test
+  void whenGetIntakeTicket_thenReturnItsStateOr404() throws Exception {
+    UUID ticket = UUID.randomUUID();
+    when(orderIntake.find(ticket))
+        .thenReturn(
+            Optional.of(
+                new OrderIntakeDTO(
+                    ticket, State.CREATED, OffsetDateTime.now(), sampleOrderDTO, null, null)));
+    mockMvc
+        .perform(get("/orders/intake/{ticket}", ticket))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("CREATED"))
+        .andExpect(jsonPath("$.order.customerId").value(1L));
+
+    when(orderIntake.find(any())).thenReturn(Optional.empty());
+    mockMvc
+        .perform(get("/orders/intake/{ticket}", UUID.randomUUID()))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void whenCreateBatchRequest_thenReturnPerItemResults() throws Exception {
+    List<OrderCreateDTO> batch =
+        Arrays.asList(sampleOrderCreateDTO, new OrderCreateDTO(999L, Arrays.asList(1L)));
+    when(orderService.createOrders(any()))
+        .thenReturn(
+            List.of(
+                OrderBatchResultDTO.created(0, sampleOrderDTO),
+                OrderBatchResultDTO.rejected(
+                    1, HttpStatus.NOT_FOUND, "Customer with id 999 not found")));
+    mockMvc
+        .perform(
+            post("/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].status").value(201))
+        .andExpect(jsonPath("$[0].order.status").value("CREATED"))
+        .andExpect(jsonPath("$[1].index").value(1))
+        .andExpect(jsonPath("$[1].status").value(404))
+        .andExpect(jsonPath("$[1].message").value("Customer with id 999 not found"));
+
+    verify(orderService).createOrders(any());
   }
 
   @Test
@@ -94,6 +259,33 @@ class OrderControllerTest {
     verify(orderService).getOrderById(orderId);
   }
 
+  @Test
+  void whenIfNoneMatchIsTheCurrentVersion_thenReturn304WithoutLoadingTheOrder() throws Exception {
+    when(orderService.getOrderVersion(1L)).thenReturn(Optional.of(3L));
+
+    mockMvc
+        .perform(get("/orders/{id}", 1L).header("If-None-Match", "W/\"3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "W/\"3\""))
+        .andExpect(content().string(""));
+
+    verify(orderService, never()).getOrderById(any());
+  }
+
+  @Test
+  void whenIfNoneMatchIsAnOlderVersion_thenReturnOrderWithCurrentETag() throws Exception {
+    sampleOrderDTO.setVersion(4L);
+    when(orderService.getOrderVersion(1L)).thenReturn(Optional.of(4L));
+    when(orderService.getOrderById(1L)).thenReturn(sampleOrderDTO);
+
+    mockMvc
+        .perform(get("/orders/{id}", 1L).header("If-None-Match", "W/\"3\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "W/\"4\""))
+        .andExpect(jsonPath("$.status").value("CREATED"))
+        .andExpect(jsonPath("$.version").doesNotExist());
+  }
+
   @Test
   void whenGetOrderWithNonExistentId_thenReturn404() throws Exception {
     Long nonExistentId = 999L;
@@ -102,6 +294,53 @@ class OrderControllerTest {
     mockMvc.perform(get("/orders/{id}", nonExistentId)).andExpect(status().isNotFound());
   }
 
+  @Test
+  void whenOrderIsNotFound_thenErrorBodyKeepsItsFields() throws Exception {
+    when(orderService.getOrderById(999L)).thenThrow(new OrderNotFoundException(999L));
+
+    mockMvc
+        .perform(get("/orders/{id}", 999L))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.timestamp").isString())
+        .andExpect(jsonPath("$.status").value(404))
+        .andExpect(jsonPath("$.error").value("Not Found"))
+        .andExpect(jsonPath("$.message").value("Order with id 999 not found"))
+        .andExpect(jsonPath("$.errors").doesNotExist());
+  }
+
+  @Test
+  void whenValidationFails_thenErrorBodyListsTheInvalidFields() throws Exception {
+    try (ValidatorFactory validation = Validation.buildDefaultValidatorFactory()) {
+      when(orderService.getOrderById(1L))
+          .thenThrow(
+              new ConstraintViolationException(
+                  validation.getValidator().validate(new OrderCreateDTO(1L, null))));
+    }
+
+    mockMvc
+        .perform(get("/orders/{id}", 1L))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.timestamp").isString())
+        .andExpect(jsonPath("$.status").value(400))
+        .andExpect(jsonPath("$.error").value("Validation Failed"))
+        .andExpect(jsonPath("$.message").doesNotExist())
+        .andExpect(jsonPath("$.errors.productsId").value("must not be null"));
+  }
+
+  @Test
+  void whenTransitionIsRejected_thenReturn409WithStacklessException() throws Exception {
+    OrderStatusIsNotCreatedException rejection = new OrderStatusIsNotCreatedException();
+    doThrow(rejection).when(orderService).updateStatusToPaidById(1L);
+
+    mockMvc
+        .perform(patch("/orders/{id}/pay", 1L))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.status").value(409))
+        .andExpect(jsonPath("$.error").value("Conflict"))
+        .andExpect(jsonPath("$.message").value(rejection.getMessage()));
+    assertEquals(0, rejection.getStackTrace().length);
+  }
+
   @Test
   void whenUpdateStatusToPaid_thenReturnOk() throws Exception {
     Long orderId = 1L;
@@ -129,6 +368,30 @@ class OrderControllerTest {
     verify(orderService).updateStatusToDeliveredById(orderId);
   }
 
+  @Test
+  void whenUpdateStatusToShippedInBulk_thenReturnMovedAndRejectedIds() throws Exception {
+    BulkTransitionResultDTO result =
+        new BulkTransitionResultDTO(
+            new ArrayList<>(List.of(1L, 2L)),
+            new ArrayList<>(
+                List.of(
+                    new RejectedOrderDTO(
+                        3L, 409, new OrderStatusIsNotPaidException().getMessage()))));
+    when(orderService.updateStatusToShippedByIds(List.of(1L, 2L, 3L))).thenReturn(result);
+
+    mockMvc
+        .perform(
+            patch("/orders/ship")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(1L, 2L, 3L))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated.length()").value(2))
+        .andExpect(jsonPath("$.rejected[0].id").value(3))
+        .andExpect(jsonPath("$.rejected[0].status").value(409));
+
+    verify(orderService).updateStatusToShippedByIds(List.of(1L, 2L, 3L));
+  }
+
   @Test
   void whenCreateOrderWithNonExistentCustomer_thenReturn404() throws Exception {
     when(orderService.createOrder(any(OrderCreateDTO.class)))
@@ -183,4 +446,83 @@ class OrderControllerTest {
         .updateStatusToDeliveredById(orderId);
     mockMvc.perform(patch("/orders/{id}/deliver", orderId)).andExpect(status().isConflict());
   }
+
+  @Test
+  void whenExportOrders_thenWriteOneJsonObjectPerLine() throws Exception {
+    OrderDTO second = new OrderDTO();
+    second.setId(2L);
+    second.setStatus(Status.PAID);
+    second.setCustomerId(1L);
+    second.setProductsId(List.of());
+    sampleOrderDTO.setId(1L);
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+    doAnswer(
+            invocation -> {
+              Consumer<OrderDTO> sink = invocation.getArgument(3);
+              sink.accept(sampleOrderDTO);
+              sink.accept(second);
+              return null;
+            })
+        .when(orderService)
+        .exportOrders(eq(Status.PAID), eq(from), isNull(), any());
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/orders/export").param("status", "PAID").param("from", from.toString()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    String body =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String[] lines = body.split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(body.endsWith("\n"));
+    assertEquals(1L, objectMapper.readValue(lines[0], OrderDTO.class).getId());
+    assertEquals(List.of(), objectMapper.readValue(lines[1], OrderDTO.class).getProductsId());
+  }
+
+  @Test
+  void whenSearchOrders_thenPassFiltersCursorAndSize() throws Exception {
+    OffsetDateTime from = OffsetDateTime.parse("2024-01-01T10:00:00Z");
+    OffsetDateTime to = OffsetDateTime.parse("2024-01-01T11:00:00Z");
+    OrderSearch search = new OrderSearch(Status.PAID, null, from, to);
+    when(orderService.searchOrders(search, "abc", 20))
+        .thenReturn(new OrderPageDTO(List.of(sampleOrderDTO), "next"));
+
+    mockMvc
+        .perform(
+            get("/orders")
+                .param("status", "PAID")
+                .param("from", "2024-01-01T10:00:00Z")
+                .param("to", "2024-01-01T11:00:00Z")
+                .param("cursor", "abc")
+                .param("size", "20"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.nextCursor").value("next"));
+  }
+
+  @Test
+  void whenGetStats_thenReturnCountsPerStatus() throws Exception {
+    Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+    byStatus.put(Status.CREATED, 3L);
+    byStatus.put(Status.PAID, 2L);
+    byStatus.put(Status.SHIPPED, 0L);
+    byStatus.put(Status.DELIVERED, 5L);
+    when(orderService.getStats()).thenReturn(new OrderStatsDTO(10, byStatus, null));
+
+    mockMvc
+        .perform(get("/orders/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(10))
+        .andExpect(jsonPath("$.byStatus.CREATED").value(3))
+        .andExpect(jsonPath("$.byStatus.DELIVERED").value(5));
+    verify(orderService, never()).getOrderById(any());
+  }
 }
@@ -0,0 +1,133 @@
+package com.example.ecommerce.order.etag;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.metrics.OrderMetrics;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Customer customer;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Poller");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    product = new Product();
+    product.setName("Polled");
+    product.setPrice(new BigDecimal("1.00"));
+    productRepository.save(product);
+  }
+
+  @Test
+  void whenOrderIsUnchanged_thenItsETagIsAnsweredWith304() throws Exception {
+    OrderDTO order = createOrder();
+    String etag = etagOf("/orders/{id}", order.getId());
+    assertEquals("W/\"0\"", etag);
+
+    double notModified = conditionalGets("order", "not_modified");
+    mockMvc
+        .perform(get("/orders/{id}", order.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+    assertEquals(notModified + 1, conditionalGets("order", "not_modified"));
+  }
+
+  @Test
+  void whenStatusChanges_thenTheOldETagNoLongerMatches() throws Exception {
+    OrderDTO order = createOrder();
+    String created = etagOf("/orders/{id}", order.getId());
+
+    orderService.updateStatusToPaidById(order.getId());
+
+    mockMvc
+        .perform(get("/orders/{id}", order.getId()).header(HttpHeaders.IF_NONE_MATCH, created))
+        .andExpect(status().isOk());
+    assertEquals("W/\"1\"", etagOf("/orders/{id}", order.getId()));
+    assertEquals(Long.valueOf(1), orderService.getOrderVersion(order.getId()).orElseThrow());
+  }
+
+  @Test
+  void whenACustomerOrderIsCreatedOrChanged_thenTheListETagChanges() throws Exception {
+    OrderDTO first = createOrder();
+    String one = etagOf("/customers/{id}/orders", customer.getId());
+    assertEquals("W/\"1-0\"", one);
+
+    mockMvc
+        .perform(
+            get("/customers/{id}/orders", customer.getId()).header(HttpHeaders.IF_NONE_MATCH, one))
+        .andExpect(status().isNotModified());
+
+    createOrder();
+    assertEquals("W/\"2-0\"", etagOf("/customers/{id}/orders", customer.getId()));
+
+    orderService.updateStatusToPaidById(first.getId());
+    String paid = etagOf("/customers/{id}/orders", customer.getId());
+    assertEquals("W/\"2-1\"", paid);
+    mockMvc
+        .perform(
+            get("/customers/{id}/orders", customer.getId()).header(HttpHeaders.IF_NONE_MATCH, one))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void whenOrderDoesNotExist_thenAConditionalGetIsStill404() throws Exception {
+    mockMvc
+        .perform(get("/orders/{id}", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "*"))
+        .andExpect(status().isNotFound());
+  }
+
+  private OrderDTO createOrder() {
+    return orderService.createOrder(new OrderCreateDTO(customer.getId(), List.of(product.getId())));
+  }
+
+  private String etagOf(String uri, Long id) throws Exception {
+    return mockMvc
+        .perform(get(uri, id))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getHeader(HttpHeaders.ETAG);
+  }
+
+  private double conditionalGets(String resource, String outcome) {
+    return meterRegistry
+        .get(OrderMetrics.CONDITIONAL_GETS)
+        .tag("resource", resource)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+}
@@ -0,0 +1,165 @@
+package com.example.ecommerce.order.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.exception.IdempotencyKeyConflictException;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "app.idempotency.ttl=1h"})
+class OrderIdempotencyTest {
+
+  private static final int THREADS = 16;
+
+  @Autowired private OrderService orderService;
+  @Autowired private OrderIdempotency idempotency;
+  @Autowired private IdempotencyKeyRepository idempotencyKeyRepository;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private OrderCreateDTO request;
+
+  @BeforeEach
+  void setUp() {
+    Customer customer = new Customer();
+    customer.setName("Retrying");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Product product = new Product();
+    product.setName("Widget");
+    product.setPrice(new BigDecimal("5.00"));
+    productRepository.save(product);
+
+    request = new OrderCreateDTO(customer.getId(), List.of(product.getId()));
+  }
+
+  @Test
+  void whenKeyIsRepeated_thenTheFirstOrderIsReturnedWithoutCreatingAnother() {
+    String key = UUID.randomUUID().toString();
+    OrderDTO first = orderService.createOrder(request, key);
+    long orders = orderRepository.count();
+
+    OrderDTO retry = orderService.createOrder(request, key);
+
+    assertEquals(first.getId(), retry.getId());
+    assertEquals(orders, orderRepository.count());
+    assertEquals(first.getId(), idempotencyKeyRepository.findById(key).orElseThrow().getOrderId());
+  }
+
+  @Test
+  void whenKeyIsReusedForADifferentOrder_thenThrowConflict() {
+    String key = UUID.randomUUID().toString();
+    orderService.createOrder(request, key);
+    long orders = orderRepository.count();
+
+    Long productId = request.getProductsId().get(0);
+    OrderCreateDTO other =
+        new OrderCreateDTO(request.getCustomerId(), List.of(productId, productId));
+
+    assertThrows(IdempotencyKeyConflictException.class, () -> orderService.createOrder(other, key));
+    assertEquals(orders, orderRepository.count());
+  }
+
+  @Test
+  void whenKeyIsNoLongerInMemory_thenItIsFoundInTheTable() {
+    String key = UUID.randomUUID().toString();
+    OrderDTO first = orderService.createOrder(request, key);
+    idempotency.clearMemory();
+    double databaseHits = hits("database");
+
+    assertEquals(first.getId(), orderService.createOrder(request, key).getId());
+    assertEquals(databaseHits + 1, hits("database"));
+
+    double memoryHits = hits("memory");
+    assertEquals(first.getId(), orderService.createOrder(request, key).getId());
+    assertEquals(memoryHits + 1, hits("memory"));
+  }
+
+  @Test
+  void whenKeyHasExpired_thenANewOrderIsCreatedAndTheRowReplaced() {
+    String key = UUID.randomUUID().toString();
+    String fingerprint = idempotency.fingerprint(request);
+    idempotencyKeyRepository.save(
+        new IdempotencyKey(key, fingerprint, -1L, OffsetDateTime.now().minusHours(2)));
+
+    OrderDTO created = orderService.createOrder(request, key);
+
+    assertNotEquals(-1L, created.getId());
+    assertEquals(
+        created.getId(), idempotencyKeyRepository.findById(key).orElseThrow().getOrderId());
+  }
+
+  @Test
+  void whenCleanupRuns_thenOnlyExpiredKeysAreDeleted() {
+    String expired = UUID.randomUUID().toString();
+    String live = UUID.randomUUID().toString();
+    idempotencyKeyRepository.save(
+        new IdempotencyKey(expired, "f", 1L, OffsetDateTime.now().minusHours(2)));
+    idempotencyKeyRepository.save(new IdempotencyKey(live, "f", 1L, OffsetDateTime.now()));
+
+    idempotency.deleteExpired();
+
+    assertFalse(idempotencyKeyRepository.existsById(expired));
+    assertTrue(idempotencyKeyRepository.existsById(live));
+  }
+
+  @Test
+  void whenManyThreadsUseTheSameKey_thenExactlyOneOrderIsCreated() throws Exception {
+    String key = UUID.randomUUID().toString();
+    long orders = orderRepository.count();
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<OrderDTO>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return orderService.createOrder(request, key);
+                }));
+      }
+      start.countDown();
+
+      Set<Long> ids = new HashSet<>();
+      for (Future<OrderDTO> future : futures) {
+        ids.add(future.get(30, TimeUnit.SECONDS).getId());
+      }
+      assertEquals(1, ids.size());
+      assertEquals(orders + 1, orderRepository.count());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private double hits(String source) {
+    return meterRegistry.get(OrderIdempotency.HITS).tag("source", source).counter().count();
+  }
+}
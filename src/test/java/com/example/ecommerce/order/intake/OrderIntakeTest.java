@@ -0,0 +1,126 @@
+package com.example.ecommerce.order.intake;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO;
+import com.example.ecommerce.order.dto.OrderIntakeDTO.State;
+import com.example.ecommerce.order.exception.CustomerNotFoundException;
+import com.example.ecommerce.order.exception.IntakeQueueFullException;
+import com.example.ecommerce.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeTest {
+
+  @Mock private OrderService orderService;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private OrderIntake intake;
+
+  @AfterEach
+  void tearDown() {
+    if (intake != null && intake.isRunning()) {
+      intake.stop();
+    }
+  }
+
+  @Test
+  void whenRequestsAreQueued_thenTheyAreCreatedInGroups() {
+    List<Integer> groupSizes = new CopyOnWriteArrayList<>();
+    when(orderService.createOrders(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<OrderCreateDTO> group = invocation.getArgument(0);
+              groupSizes.add(group.size());
+              List<OrderBatchResultDTO> results = new ArrayList<>();
+              for (int i = 0; i < group.size(); i++) {
+                OrderDTO order = new OrderDTO();
+                order.setCustomerId(group.get(i).getCustomerId());
+                results.add(
+                    group.get(i).getCustomerId() == 99L
+                        ? OrderBatchResultDTO.rejected(i, HttpStatus.NOT_FOUND, "gone")
+                        : OrderBatchResultDTO.created(i, order));
+              }
+              return results;
+            });
+    intake = new OrderIntake(orderService, meterRegistry, 100, 3, Duration.ofSeconds(1), ttl());
+
+    // Queued before the writer starts, so the groups are deterministic
+    List<OrderIntakeDTO> tickets = new ArrayList<>();
+    for (long customerId : new long[] {1, 2, 99, 4, 5}) {
+      OrderIntakeDTO ticket = intake.submit(new OrderCreateDTO(customerId, List.of(1L)));
+      assertEquals(State.QUEUED, ticket.getState());
+      tickets.add(ticket);
+    }
+    intake.start();
+    intake.stop();
+
+    assertEquals(List.of(3, 2), groupSizes);
+    OrderIntakeDTO created = intake.find(tickets.get(0).getTicket()).orElseThrow();
+    assertEquals(State.CREATED, created.getState());
+    assertEquals(1L, created.getOrder().getCustomerId());
+    OrderIntakeDTO rejected = intake.find(tickets.get(2).getTicket()).orElseThrow();
+    assertEquals(State.REJECTED, rejected.getState());
+    assertEquals(404, rejected.getStatus());
+    assertEquals(5, meterRegistry.get(OrderIntake.COMMIT_DELAY).timer().count());
+  }
+
+  @Test
+  void whenQueueIsFull_thenSubmitFailsAtOnce() {
+    intake = new OrderIntake(orderService, meterRegistry, 2, 10, Duration.ofMillis(5), ttl());
+    OrderCreateDTO request = new OrderCreateDTO(1L, List.of(1L));
+
+    intake.submit(request);
+    intake.submit(request);
+
+    assertThrows(IntakeQueueFullException.class, () -> intake.submit(request));
+    assertEquals(2, meterRegistry.get(OrderIntake.QUEUED).gauge().value());
+    assertEquals(1, meterRegistry.get(OrderIntake.REJECTED).counter().count());
+  }
+
+  @Test
+  void whenRequestIsInvalid_thenItIsNotQueued() {
+    OrderCreateDTO request = new OrderCreateDTO(7L, List.of(1L));
+    doThrow(new CustomerNotFoundException(7L)).when(orderService).validate(request);
+    intake = new OrderIntake(orderService, meterRegistry, 2, 10, Duration.ofMillis(5), ttl());
+
+    assertThrows(CustomerNotFoundException.class, () -> intake.submit(request));
+    assertEquals(0, meterRegistry.get(OrderIntake.QUEUED).gauge().value());
+  }
+
+  @Test
+  void whenGroupFails_thenEveryTicketIsRejected() {
+    when(orderService.createOrders(anyList())).thenThrow(new IllegalStateException("db down"));
+    intake = new OrderIntake(orderService, meterRegistry, 10, 10, Duration.ofMillis(5), ttl());
+    OrderIntakeDTO first = intake.submit(new OrderCreateDTO(1L, List.of(1L)));
+    OrderIntakeDTO second = intake.submit(new OrderCreateDTO(2L, List.of(1L)));
+
+    intake.start();
+    intake.stop();
+
+    for (OrderIntakeDTO ticket : List.of(first, second)) {
+      OrderIntakeDTO current = intake.find(ticket.getTicket()).orElseThrow();
+      assertEquals(State.REJECTED, current.getState());
+      assertEquals(500, current.getStatus());
+    }
+  }
+
+  private static Duration ttl() {
+    return Duration.ofMinutes(1);
+  }
+}
@@ -0,0 +1,108 @@
+package com.example.ecommerce.order.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.projection.StatusCountView;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class OrderStatusCountersTest {
+
+  @Autowired private OrderStatusCounters counters;
+  @Autowired private OrderService orderService;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private Customer customer;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Counted");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    product = new Product();
+    product.setName("Counted");
+    product.setPrice(new BigDecimal("1.00"));
+    productRepository.save(product);
+
+    counters.reconcile();
+  }
+
+  @Test
+  void whenReconciled_thenCountsMatchTheDatabase() {
+    assertEquals(databaseCounts(), counters.counts());
+    assertNotNull(counters.reconciledAt());
+  }
+
+  @Test
+  void whenOrdersAreCreatedAndMoved_thenCountsFollowWithoutQueries() {
+    Map<Status, Long> before = counters.counts();
+    List<Long> ids =
+        List.of(createOrder(), createOrder(), createOrder(), createOrder(), createOrder());
+
+    orderService.updateStatusToPaidById(ids.get(0));
+    orderService.updateStatusToPaidByIds(List.of(ids.get(1), ids.get(2), ids.get(0)));
+    orderService.updateStatusToShippedByIds(List.of(ids.get(0), ids.get(1), ids.get(3)));
+    orderService.updateStatusToDeliveredById(ids.get(0));
+
+    Map<Status, Long> after = counters.counts();
+    assertEquals(2, after.get(Status.CREATED) - before.get(Status.CREATED));
+    assertEquals(1, after.get(Status.PAID) - before.get(Status.PAID));
+    assertEquals(1, after.get(Status.SHIPPED) - before.get(Status.SHIPPED));
+    assertEquals(1, after.get(Status.DELIVERED) - before.get(Status.DELIVERED));
+    assertEquals(databaseCounts(), after);
+  }
+
+  @Test
+  void whenOrdersAreWrittenBehindTheServicesBack_thenReconcilePicksThemUp() {
+    long orderId = createOrder();
+    Map<Status, Long> before = counters.counts();
+    jdbcTemplate.update("UPDATE orders SET status = 'SHIPPED' WHERE id = ?", orderId);
+
+    assertEquals(before, counters.counts());
+    counters.reconcile();
+
+    assertEquals(before.get(Status.CREATED) - 1, counters.count(Status.CREATED));
+    assertEquals(before.get(Status.SHIPPED) + 1, counters.count(Status.SHIPPED));
+    assertEquals(databaseCounts(), counters.counts());
+  }
+
+  private long createOrder() {
+    return orderService
+        .createOrder(new OrderCreateDTO(customer.getId(), List.of(product.getId())))
+        .getId();
+  }
+
+  private Map<Status, Long> databaseCounts() {
+    Map<Status, Long> counts = new EnumMap<>(Status.class);
+    for (Status status : Status.values()) {
+      counts.put(status, 0L);
+    }
+    for (StatusCountView row : orderRepository.countByStatus()) {
+      counts.put(row.getStatus(), row.getCount());
+    }
+    return counts;
+  }
+}
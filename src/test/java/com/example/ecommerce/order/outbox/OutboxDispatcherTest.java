@@ -0,0 +1,168 @@
+package com.example.ecommerce.order.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Its own database, so the dispatchers of other cached test contexts cannot drain these events
+@SpringBootTest(
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.datasource.url=jdbc:h2:mem:outbox;LAZY_QUERY_EXECUTION=1",
+      "app.outbox.poll-interval=1h",
+      "app.outbox.initial-backoff=1h",
+      "app.outbox.max-backoff=4h"
+    })
+class OutboxDispatcherTest {
+
+  @Autowired private OutboxDispatcher dispatcher;
+  @Autowired private RecordingSink sink;
+  @Autowired private OrderService orderService;
+  @Autowired private OutboxRepository outboxRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Customer customer;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Notified");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    product = new Product();
+    product.setName("Notified");
+    product.setPrice(new BigDecimal("1.00"));
+    productRepository.save(product);
+
+    jdbcTemplate.update("UPDATE order_outbox SET next_attempt_at = ?", OffsetDateTime.now());
+    sink.failing = false;
+    dispatcher.dispatch();
+    sink.events.clear();
+  }
+
+  @Test
+  void whenOrdersChange_thenEventsAreDeliveredInOrderAndRemoved() {
+    long first = createOrder();
+    long second = createOrder();
+    orderService.updateStatusToPaidById(first);
+    orderService.updateStatusToPaidByIds(List.of(first, second));
+    orderService.updateStatusToShippedById(first);
+
+    // The bulk pay only moved the second order, the first one was already paid
+    assertEquals(5, outboxRepository.count());
+    assertEquals(5, dispatcher.dispatch());
+
+    assertEquals(List.of(Status.CREATED, Status.PAID, Status.SHIPPED), statuses(first));
+    assertEquals(List.of(Status.CREATED, Status.PAID), statuses(second));
+    assertEquals(0, outboxRepository.count());
+    assertEquals(0, meterRegistry.get(OutboxDispatcher.PENDING).gauge().value());
+    assertEquals(0, meterRegistry.get(OutboxDispatcher.LAG).gauge().value());
+  }
+
+  @Test
+  void whenSinkFails_thenEventsAreRetriedAfterBackoffAndLaterOnesWait() {
+    long orderId = createOrder();
+    sink.failing = true;
+
+    assertEquals(0, dispatcher.dispatch());
+    OutboxEvent failed = outboxRepository.findAll().get(0);
+    assertEquals(1, failed.getAttempts());
+    assertTrue(failed.getNextAttemptAt().isAfter(OffsetDateTime.now().plusMinutes(59)));
+    assertTrue(failed.getLastError().startsWith("recording: "), failed.getLastError());
+
+    // The PAID event must not overtake the CREATED event that is waiting for its retry
+    sink.failing = false;
+    orderService.updateStatusToPaidById(orderId);
+    long other = createOrder();
+    assertEquals(1, dispatcher.dispatch());
+    assertEquals(List.of(), statuses(orderId));
+    assertEquals(List.of(Status.CREATED), statuses(other));
+    assertEquals(2, meterRegistry.get(OutboxDispatcher.PENDING).gauge().value());
+    assertTrue(meterRegistry.get(OutboxDispatcher.LAG).gauge().value() > 0);
+
+    jdbcTemplate.update("UPDATE order_outbox SET next_attempt_at = ?", OffsetDateTime.now());
+    assertEquals(2, dispatcher.dispatch());
+    assertEquals(List.of(Status.CREATED, Status.PAID), statuses(orderId));
+    assertEquals(
+        1,
+        meterRegistry
+            .get(OutboxDispatcher.DISPATCHED)
+            .tag("sink", "recording")
+            .tag("outcome", "failed")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void whenRetriedRepeatedly_thenBackoffDoublesUpToTheMaximum() {
+    assertEquals(Duration.ofHours(1), dispatcher.backoff(1));
+    assertEquals(Duration.ofHours(2), dispatcher.backoff(2));
+    assertEquals(Duration.ofHours(4), dispatcher.backoff(3));
+    assertEquals(Duration.ofHours(4), dispatcher.backoff(40));
+  }
+
+  private long createOrder() {
+    return orderService
+        .createOrder(new OrderCreateDTO(customer.getId(), List.of(product.getId())))
+        .getId();
+  }
+
+  private List<Status> statuses(long orderId) {
+    return sink.events.stream()
+        .filter(event -> event.orderId() == orderId)
+        .map(OrderEvent::status)
+        .toList();
+  }
+
+  static class RecordingSink implements OrderEventSink {
+
+    final List<OrderEvent> events = new CopyOnWriteArrayList<>();
+    volatile boolean failing;
+
+    @Override
+    public String name() {
+      return "recording";
+    }
+
+    @Override
+    public void deliver(List<OrderEvent> batch) {
+      if (failing) {
+        throw new IllegalStateException("sink is down");
+      }
+      events.addAll(batch);
+    }
+  }
+
+  @TestConfiguration
+  static class SinkConfig {
+    @Bean
+    RecordingSink recordingSink() {
+      return new RecordingSink();
+    }
+  }
+}
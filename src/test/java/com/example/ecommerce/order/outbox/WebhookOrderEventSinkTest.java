@@ -0,0 +1,77 @@
+package com.example.ecommerce.order.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.order.model.Status;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+class WebhookOrderEventSinkTest {
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private volatile int responseStatus = 204;
+  private HttpServer server;
+  private WebhookOrderEventSink sink;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/events",
+        exchange -> {
+          String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+          String body =
+              new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+          requests.add(exchange.getRequestMethod() + " " + contentType + " " + body);
+          exchange.sendResponseHeaders(responseStatus, -1);
+          exchange.close();
+        });
+    server.start();
+    sink =
+        new WebhookOrderEventSink(
+            RestClient.builder(),
+            "http://localhost:" + server.getAddress().getPort() + "/events",
+            Duration.ofSeconds(5));
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void whenDelivering_thenBatchIsPostedAsJsonArray() {
+    OffsetDateTime now = OffsetDateTime.now();
+
+    sink.deliver(
+        List.of(
+            new OrderEvent(1L, 10L, Status.CREATED, now),
+            new OrderEvent(2L, 11L, Status.PAID, now)));
+
+    assertEquals(1, requests.size());
+    String request = requests.get(0);
+    assertTrue(request.startsWith("POST application/json [{"), request);
+    assertTrue(request.contains("\"orderId\":10,\"status\":\"CREATED\""), request);
+    assertTrue(request.contains("\"orderId\":11,\"status\":\"PAID\""), request);
+  }
+
+  @Test
+  void whenWebhookFails_thenDeliveryThrows() {
+    responseStatus = 503;
+    List<OrderEvent> events =
+        List.of(new OrderEvent(1L, 10L, Status.CREATED, OffsetDateTime.now()));
+
+    assertThrows(RestClientException.class, () -> sink.deliver(events));
+    assertEquals(1, requests.size());
+  }
+}
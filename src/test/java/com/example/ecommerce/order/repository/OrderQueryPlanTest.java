@@ -0,0 +1,167 @@
+package com.example.ecommerce.order.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks H2's plans for the SQL that the hot {@link OrderRepository} queries generate, so a query
+ * or migration change that loses its index shows up as a failing test instead of a slow endpoint.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class OrderQueryPlanTest {
+
+  private static final String TABLE_SCAN = ".tableScan";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+
+  private Long customerId;
+  private Long productId;
+
+  @BeforeEach
+  void setUp() {
+    Customer customer = new Customer();
+    customer.setName("Planner");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerId = customerRepository.save(customer).getId();
+
+    Product product = new Product();
+    product.setName("Widget");
+    product.setPrice(new BigDecimal("5.00"));
+    productId = productRepository.save(product).getId();
+
+    // Enough rows for the optimizer's estimates to favour indexes the way a real table would
+    List<OrderCreateDTO> orders = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      orders.add(new OrderCreateDTO(customerId, List.of(productId)));
+    }
+    orderService.createOrders(orders);
+    jdbcTemplate.execute("ANALYZE");
+  }
+
+  @Test
+  void customerHistoryUsesTheCustomerCreatedIndex() {
+    assertUsesIndex(
+        "orders_customer_created_idx",
+        "SELECT o.id, o.created_at, o.status, o.customer_id FROM orders o"
+            + " WHERE o.customer_id = ? ORDER BY o.created_at DESC, o.id DESC"
+            + " FETCH FIRST 20 ROWS ONLY",
+        customerId);
+  }
+
+  @Test
+  void customerHistoryNextPageUsesTheCustomerCreatedIndex() {
+    OffsetDateTime now = OffsetDateTime.now();
+    assertUsesIndex(
+        "orders_customer_created_idx",
+        "SELECT o.id, o.created_at, o.status, o.customer_id FROM orders o"
+            + " WHERE o.customer_id = ?"
+            + " AND (o.created_at < ? OR (o.created_at = ? AND o.id < ?))"
+            + " ORDER BY o.created_at DESC, o.id DESC FETCH FIRST 20 ROWS ONLY",
+        customerId,
+        now,
+        now,
+        Long.MAX_VALUE);
+  }
+
+  @Test
+  void customerListVersionUsesTheCustomerCreatedIndex() {
+    assertUsesIndex(
+        "orders_customer_created_idx",
+        "SELECT COUNT(o.id), COALESCE(SUM(o.version), 0) FROM orders o WHERE o.customer_id = ?",
+        customerId);
+  }
+
+  @Test
+  void statusWithinTimeRangeUsesTheStatusCreatedIndex() {
+    OffsetDateTime now = OffsetDateTime.now();
+    assertUsesIndex(
+        "orders_status_created_idx",
+        "SELECT o.id, o.created_at, o.status, o.customer_id FROM orders o"
+            + " WHERE o.status = 'PAID' AND o.created_at >= ? AND o.created_at < ?"
+            + " ORDER BY o.created_at DESC, o.id DESC FETCH FIRST 51 ROWS ONLY",
+        now.minusHours(1),
+        now);
+  }
+
+  @Test
+  void statusSearchNextPageUsesTheStatusCreatedIndex() {
+    OffsetDateTime now = OffsetDateTime.now();
+    assertUsesIndex(
+        "orders_status_created_idx",
+        "SELECT o.id, o.created_at, o.status, o.customer_id FROM orders o"
+            + " WHERE o.status = 'CREATED' AND o.created_at <= ?"
+            + " AND (o.created_at < ? OR o.id < ?)"
+            + " ORDER BY o.created_at DESC, o.id DESC FETCH FIRST 51 ROWS ONLY",
+        now,
+        now,
+        Long.MAX_VALUE);
+  }
+
+  @Test
+  void timeRangeAloneUsesTheCreatedIndex() {
+    OffsetDateTime now = OffsetDateTime.now();
+    assertUsesIndex(
+        "orders_created_idx",
+        "SELECT o.id, o.created_at, o.status, o.customer_id FROM orders o"
+            + " WHERE o.created_at >= ? AND o.created_at < ?"
+            + " ORDER BY o.created_at DESC, o.id DESC FETCH FIRST 51 ROWS ONLY",
+        now.minusMinutes(5),
+        now);
+  }
+
+  @Test
+  void productsOfOrdersUseTheOrderSideIndex() {
+    assertUsesIndex(
+        "orders_product_order_idx",
+        "SELECT op.order_id, op.product_id FROM orders_product op WHERE op.order_id IN (?, ?, ?)",
+        1L,
+        2L,
+        3L);
+  }
+
+  @Test
+  void ordersOfAProductUseTheProductSideIndex() {
+    assertUsesIndex(
+        "orders_product_product_idx",
+        "SELECT op.order_id FROM orders_product op WHERE op.product_id = ?",
+        productId);
+  }
+
+  @Test
+  void orderStateCountsProductsThroughAnOrderSideIndex() {
+    // SIZE(o.products) in findStateById becomes a correlated count over orders_product. It only
+    // needs order_id, so H2's own foreign key index serves as well as orders_product_order_idx.
+    assertUsesIndex(
+        "orders_product_order_",
+        "SELECT o.id, o.status,"
+            + " (SELECT COUNT(*) FROM orders_product op WHERE op.order_id = o.id)"
+            + " FROM orders o WHERE o.id = ?",
+        1L);
+  }
+
+  private void assertUsesIndex(String index, String sql, Object... args) {
+    String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+    assertFalse(plan.contains(TABLE_SCAN), () -> "Full table scan in plan:\n" + plan);
+    assertTrue(
+        plan.toLowerCase().contains(index), () -> "Plan does not use " + index + ":\n" + plan);
+  }
+}
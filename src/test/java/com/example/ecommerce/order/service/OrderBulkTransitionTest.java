@@ -0,0 +1,74 @@
+package com.example.ecommerce.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO.RejectedOrderDTO;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class OrderBulkTransitionTest {
+
+  @Autowired private OrderService orderService;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+
+  @Test
+  void whenPayingMoreOrdersThanOneChunk_thenOnlyEligibleOrdersMove() {
+    Customer customer = new Customer();
+    customer.setName("Warehouse");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Product product = new Product();
+    product.setName("Box");
+    product.setPrice(new BigDecimal("3.00"));
+    productRepository.save(product);
+
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < OrderService.BULK_CHUNK_SIZE + 200; i++) {
+      Order order = new Order();
+      order.setCustomer(customer);
+      order.setProducts(List.of(product));
+      orders.add(order);
+    }
+    Order alreadyPaid = new Order();
+    alreadyPaid.setCustomer(customer);
+    alreadyPaid.setProducts(List.of(product));
+    alreadyPaid.setStatus(Status.PAID);
+    orders.add(alreadyPaid);
+    Order empty = new Order();
+    empty.setCustomer(customer);
+    orders.add(empty);
+
+    List<Long> ids = orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+    List<Long> request = new ArrayList<>(ids);
+    request.add(Long.MAX_VALUE);
+
+    BulkTransitionResultDTO result = orderService.updateStatusToPaidByIds(request);
+
+    assertEquals(ids.subList(0, OrderService.BULK_CHUNK_SIZE + 200), result.getUpdated());
+    assertEquals(
+        List.of(alreadyPaid.getId(), empty.getId(), Long.MAX_VALUE),
+        result.getRejected().stream().map(RejectedOrderDTO::getId).toList());
+    assertEquals(
+        List.of(409, 409, 404),
+        result.getRejected().stream().map(RejectedOrderDTO::getStatus).toList());
+    assertEquals(Status.PAID, orderRepository.findById(ids.get(0)).orElseThrow().getStatus());
+    assertEquals(Status.CREATED, orderRepository.findById(empty.getId()).orElseThrow().getStatus());
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.ecommerce.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class OrderExportTest {
+
+  private static final long FIRST_ORDER_ID = 50_000_000L;
+  private static final int ORDER_COUNT = 200_000;
+  private static final int SAMPLE_EVERY = 25_000;
+  private static final long MAX_HEAP_GROWTH = 8L * 1024 * 1024;
+  private static final OffsetDateTime FROM =
+      OffsetDateTime.of(2001, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private Customer customer;
+  private List<Product> products;
+
+  @BeforeEach
+  void seed() {
+    customer = new Customer();
+    customer.setName("Exporter");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Product first = new Product();
+    first.setName("First");
+    first.setPrice(new BigDecimal("1.00"));
+    Product second = new Product();
+    second.setName("Second");
+    second.setPrice(new BigDecimal("2.00"));
+    products = productRepository.saveAll(List.of(first, second));
+
+    // One order per second from FROM; even orders get both products, odd orders have none.
+    jdbcTemplate.update(
+        "INSERT INTO orders (id, status, created_at, customer_id)"
+            + " SELECT CAST(? AS BIGINT) + X, CASEWHEN(MOD(X, 2) = 0, 'PAID', 'CREATED'),"
+            + " DATEADD(SECOND, X, CAST(? AS TIMESTAMP WITH TIME ZONE)), ? FROM SYSTEM_RANGE(0, ?)",
+        FIRST_ORDER_ID,
+        FROM,
+        customer.getId(),
+        ORDER_COUNT - 1);
+    for (Product product : products) {
+      jdbcTemplate.update(
+          "INSERT INTO orders_product (order_id, product_id)"
+              + " SELECT CAST(? AS BIGINT) + X, ? FROM SYSTEM_RANGE(0, ?) WHERE MOD(X, 2) = 0",
+          FIRST_ORDER_ID,
+          product.getId(),
+          ORDER_COUNT - 1);
+    }
+  }
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM orders_product WHERE order_id >= ?", FIRST_ORDER_ID);
+    jdbcTemplate.update("DELETE FROM orders WHERE id >= ?", FIRST_ORDER_ID);
+  }
+
+  @Test
+  void whenExportingManyOrders_thenHeapStaysFlat() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    System.gc();
+    long baseline = memory.getHeapMemoryUsage().getUsed();
+    long[] peak = {baseline};
+    long[] exported = {0};
+    long[] lastId = {0};
+
+    orderService.exportOrders(
+        null,
+        FROM,
+        FROM.plusSeconds(ORDER_COUNT),
+        order -> {
+          assertTrue(order.getId() > lastId[0]);
+          lastId[0] = order.getId();
+          if (++exported[0] % SAMPLE_EVERY == 0) {
+            System.gc();
+            peak[0] = Math.max(peak[0], memory.getHeapMemoryUsage().getUsed());
+          }
+        });
+
+    assertEquals(ORDER_COUNT, exported[0]);
+    long growth = peak[0] - baseline;
+    assertTrue(growth < MAX_HEAP_GROWTH, "heap grew by " + growth / 1024 + " KiB during export");
+  }
+
+  @Test
+  void whenExportingWithFilters_thenOnlyMatchingOrdersAreWrittenWithTheirProducts() {
+    List<OrderDTO> exported = new ArrayList<>();
+
+    orderService.exportOrders(Status.PAID, FROM, FROM.plusSeconds(6), exported::add);
+
+    assertEquals(3, exported.size());
+    List<Long> productIds = products.stream().map(Product::getId).toList();
+    for (int i = 0; i < exported.size(); i++) {
+      OrderDTO order = exported.get(i);
+      assertEquals(FIRST_ORDER_ID + 2L * i, order.getId());
+      assertEquals(Status.PAID, order.getStatus());
+      assertEquals(customer.getId(), order.getCustomerId());
+      assertEquals(productIds, order.getProductsId());
+    }
+  }
+
+  @Test
+  void whenExportingOrdersWithoutProducts_thenProductListIsEmpty() {
+    List<OrderDTO> exported = new ArrayList<>();
+
+    orderService.exportOrders(Status.CREATED, FROM, FROM.plusSeconds(2), exported::add);
+
+    assertEquals(1, exported.size());
+    assertEquals(FIRST_ORDER_ID + 1, exported.get(0).getId());
+    assertEquals(List.of(), exported.get(0).getProductsId());
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.ecommerce.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.exception.OrderNotFoundException;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "app.outbox.poll-interval=1h"
+    })
+class OrderReadTest {
+
+  @Autowired private OrderService orderService;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void whenGetOrderById_thenDtoIsProjectedWithoutLoadingEntities() {
+    Customer customer = new Customer();
+    customer.setName("Reader");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Product first = new Product();
+    first.setName("First");
+    first.setPrice(new BigDecimal("1.00"));
+    Product second = new Product();
+    second.setName("Second");
+    second.setPrice(new BigDecimal("2.00"));
+    productRepository.saveAll(List.of(first, second));
+
+    Order order = new Order();
+    order.setCustomer(customer);
+    order.setProducts(List.of(first, second));
+    order.setStatus(Status.PAID);
+    orderRepository.save(order);
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    OrderDTO dto = orderService.getOrderById(order.getId());
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertEquals(order.getId(), dto.getId());
+    assertEquals(Status.PAID, dto.getStatus());
+    assertEquals(customer.getId(), dto.getCustomerId());
+    assertEquals(List.of(first.getId(), second.getId()), dto.getProductsId());
+    // H2 stores microseconds, rounding the nanoseconds of the in-memory value
+    assertTrue(Duration.between(order.getCreatedAt(), dto.getCreatedAt()).abs().toNanos() < 1_000);
+  }
+
+  @Test
+  void whenGetOrderById_withoutProducts_thenProductListIsEmpty() {
+    Customer customer = new Customer();
+    customer.setName("Empty");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Order order = new Order();
+    order.setCustomer(customer);
+    orderRepository.save(order);
+
+    OrderDTO dto = orderService.getOrderById(order.getId());
+
+    assertEquals(order.getId(), dto.getId());
+    assertEquals(List.of(), dto.getProductsId());
+  }
+
+  @Test
+  void whenGetOrderById_withUnknownId_thenThrowOrderNotFoundException() {
+    assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(Long.MAX_VALUE));
+  }
+}
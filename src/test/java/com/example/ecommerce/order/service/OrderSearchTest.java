@@ -0,0 +1,138 @@
+package com.example.ecommerce.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.dto.OrderPageDTO;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.repository.OrderSearch;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "app.outbox.poll-interval=1h"
+    })
+class OrderSearchTest {
+
+  private static final int ORDERS = 120;
+
+  @Autowired private OrderService orderService;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Customer customer;
+  private OffsetDateTime start;
+  private List<Order> orders;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Shipping");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    Product product = new Product();
+    product.setName("Parcel");
+    product.setPrice(new BigDecimal("1.00"));
+    productRepository.save(product);
+
+    // Every third order is PAID; pairs share a timestamp so the id tie-breaker crosses page borders
+    start = OffsetDateTime.now().withNano(0).minusDays(1);
+    List<Order> created = new ArrayList<>();
+    for (int i = 0; i < ORDERS; i++) {
+      Order order = new Order();
+      order.setCustomer(customer);
+      order.setProducts(List.of(product));
+      order.setCreatedAt(start.plusMinutes(i / 2));
+      order.setStatus(i % 3 == 0 ? Status.PAID : Status.CREATED);
+      created.add(order);
+    }
+    orders = orderRepository.saveAll(created);
+  }
+
+  @Test
+  void whenPagingThroughAStatus_thenEveryPageCostsTwoStatementsAndNothingIsSkipped() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    OrderSearch search = new OrderSearch(Status.PAID, customer.getId(), null, null);
+
+    List<Long> seen = new ArrayList<>();
+    String cursor = null;
+    do {
+      statistics.clear();
+      OrderPageDTO page = orderService.searchOrders(search, cursor, 15);
+      assertEquals(2, statistics.getPrepareStatementCount());
+      assertEquals(0, statistics.getEntityLoadCount());
+      page.getItems().forEach(item -> assertEquals(Status.PAID, item.getStatus()));
+      page.getItems().forEach(item -> assertEquals(1, item.getProductsId().size()));
+      page.getItems().stream().map(OrderDTO::getId).forEach(seen::add);
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    List<Long> expected =
+        orders.stream()
+            .filter(order -> order.getStatus() == Status.PAID)
+            .map(Order::getId)
+            .toList()
+            .reversed();
+    assertEquals(expected, seen);
+  }
+
+  @Test
+  void whenFilteringByTimeRange_thenFromIsInclusiveAndToExclusive() {
+    OrderSearch search =
+        new OrderSearch(null, customer.getId(), start.plusMinutes(10), start.plusMinutes(20));
+
+    OrderPageDTO page = orderService.searchOrders(search, null, OrderService.MAX_PAGE_SIZE);
+
+    // Minutes 10 to 19, two orders each
+    assertEquals(20, page.getItems().size());
+    assertNull(page.getNextCursor());
+    page.getItems()
+        .forEach(
+            item -> {
+              assertFalse(item.getCreatedAt().isBefore(start.plusMinutes(10)));
+              assertTrue(item.getCreatedAt().isBefore(start.plusMinutes(20)));
+            });
+  }
+
+  @Test
+  void whenRequestingMoreThanTheCap_thenPageIsCapped() {
+    OrderSearch search = new OrderSearch(null, customer.getId(), null, null);
+
+    OrderPageDTO page = orderService.searchOrders(search, null, 10_000);
+
+    assertEquals(ORDERS, page.getItems().size());
+    assertNull(page.getNextCursor());
+    OrderPageDTO single = orderService.searchOrders(search, null, 0);
+    assertEquals(1, single.getItems().size());
+    assertNotNull(single.getNextCursor());
+  }
+
+  @Test
+  void whenRangeIsEmptyOrReversed_thenThrowIllegalArgumentException() {
+    OrderSearch search = new OrderSearch(null, null, start, start);
+
+    assertThrows(IllegalArgumentException.class, () -> orderService.searchOrders(search, null, 10));
+  }
+}
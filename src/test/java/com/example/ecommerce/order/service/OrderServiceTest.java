@@ -2,11 +2,17 @@ package com.example.ecommerce.order.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 import com.example.ecommerce.customer.model.Customer;
-import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.customer.registry.CustomerRegistry;
+import com.example.ecommerce.customer.summary.CustomerSummaryUpdater;
+import com.example.ecommerce.order.cache.OrderCache;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO;
+import com.example.ecommerce.order.dto.BulkTransitionResultDTO.RejectedOrderDTO;
+import com.example.ecommerce.order.dto.OrderBatchResultDTO;
 import com.example.ecommerce.order.dto.OrderCreateDTO;
 import com.example.ecommerce.order.dto.OrderDTO;
 import com.example.ecommerce.order.exception.CustomerNotFoundException;
@@ -15,34 +21,53 @@ import com.example.ecommerce.order.exception.OrderNotFoundException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotCreatedException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotPaidException;
 import com.example.ecommerce.order.exception.OrderStatusIsNotShippedException;
+import com.example.ecommerce.order.idempotency.OrderIdempotency;
 import com.example.ecommerce.order.mapper.OrderMapper;
+import com.example.ecommerce.order.metrics.OrderMetrics;
+import com.example.ecommerce.order.metrics.OrderStatusCounters;
 import com.example.ecommerce.order.model.Order;
 import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.outbox.OrderOutbox;
+import com.example.ecommerce.order.projection.OrderProductRow;
+import com.example.ecommerce.order.projection.OrderRow;
+import com.example.ecommerce.order.projection.OrderStateView;
 import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.product.catalog.ProductCatalog;
 import com.example.ecommerce.product.model.Product;
-import com.example.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
 
   @Mock private OrderRepository orderRepository;
-  @Mock private CustomerRepository customerRepository;
-  @Mock private ProductRepository productRepository;
+  @Mock private CustomerRegistry customerRegistry;
+  @Mock private ProductCatalog productCatalog;
   @Mock private OrderMapper orderMapper;
+  @Mock private CustomerSummaryUpdater customerSummaries;
+  @Mock private OrderOutbox orderOutbox;
+  @Mock private OrderIdempotency idempotency;
 
-  @InjectMocks private OrderService orderService;
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private OrderStatusCounters statusCounters;
+  private OrderService orderService;
 
   private Order sampleOrder;
   private OrderDTO sampleOrderDTO;
@@ -52,6 +77,22 @@ class OrderServiceTest {
 
   @BeforeEach
   void setUp() {
+    statusCounters = new OrderStatusCounters(orderRepository);
+    orderService =
+        new OrderService(
+            orderRepository,
+            customerRegistry,
+            productCatalog,
+            orderMapper,
+            new OrderCache(
+                100, Duration.ofMinutes(10), Duration.ofSeconds(5), new SimpleMeterRegistry()),
+            new OrderMetrics(meterRegistry),
+            customerSummaries,
+            statusCounters,
+            orderOutbox,
+            idempotency,
+            TransactionOperations.withoutTransaction());
+
     sampleCustomer = new Customer();
     sampleCustomer.setId(1L);
     sampleCustomer.setName("John Doe");
@@ -77,6 +118,7 @@ class OrderServiceTest {
     sampleOrder.setProducts(sampleProducts);
 
     sampleOrderDTO = new OrderDTO();
+    sampleOrderDTO.setId(1L);
     sampleOrderDTO.setCreatedAt(OffsetDateTime.now());
     sampleOrderDTO.setStatus(Status.CREATED);
     sampleOrderDTO.setCustomerId(1L);
@@ -89,32 +131,100 @@ class OrderServiceTest {
 
   @Test
   void whenGetOrderById_withValidId_thenReturnOrderDTO() {
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
-    when(orderMapper.toDTO(sampleOrder)).thenReturn(sampleOrderDTO);
+    OrderRow row = new OrderRow(1L, OffsetDateTime.now(), Status.CREATED, 1L);
+    when(orderRepository.findRowWithProductsById(1L)).thenReturn(rows(row, 1L, 2L));
+    when(orderMapper.toDTO(row, List.of(1L, 2L))).thenReturn(sampleOrderDTO);
 
     OrderDTO result = orderService.getOrderById(1L);
 
     assertNotNull(result);
     assertEquals(sampleOrderDTO.getStatus(), result.getStatus());
     assertEquals(sampleOrderDTO.getCustomerId(), result.getCustomerId());
-    verify(orderRepository).findById(1L);
-    verify(orderMapper).toDTO(sampleOrder);
+    verify(orderRepository).findRowWithProductsById(1L);
+    verify(orderMapper).toDTO(row, List.of(1L, 2L));
+    verify(orderRepository, never()).findById(any());
   }
 
   @Test
   void whenGetOrderById_withInvalidId_thenThrowOrderNotFoundException() {
-    when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+    when(orderRepository.findRowWithProductsById(999L)).thenReturn(List.of());
 
     assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(999L));
-    verify(orderRepository).findById(999L);
-    verify(orderMapper, never()).toDTO(any());
+    verify(orderRepository).findRowWithProductsById(999L);
+    verifyNoInteractions(orderMapper);
+  }
+
+  @Test
+  void whenGetOrderByIdTwice_thenSecondCallIsServedFromCache() {
+    OrderRow row = new OrderRow(1L, OffsetDateTime.now(), Status.CREATED, 1L);
+    when(orderRepository.findRowWithProductsById(1L)).thenReturn(rows(row, 1L, 2L));
+    when(orderMapper.toDTO(row, List.of(1L, 2L))).thenReturn(sampleOrderDTO);
+
+    orderService.getOrderById(1L);
+    OrderDTO result = orderService.getOrderById(1L);
+
+    assertSame(sampleOrderDTO, result);
+    verify(orderRepository, times(1)).findRowWithProductsById(1L);
+  }
+
+  @Test
+  void whenGetUnknownOrderTwice_thenNotFoundIsCached() {
+    when(orderRepository.findRowWithProductsById(999L)).thenReturn(List.of());
+
+    assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(999L));
+    assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(999L));
+
+    verify(orderRepository, times(1)).findRowWithProductsById(999L);
+  }
+
+  @Test
+  void whenOrderIsPaid_thenCachedEntryIsEvicted() {
+    OrderRow created = new OrderRow(1L, OffsetDateTime.now(), Status.CREATED, 1L);
+    OrderRow paid = new OrderRow(1L, created.createdAt(), Status.PAID, 1L);
+    OrderDTO paidDTO = new OrderDTO();
+    paidDTO.setId(1L);
+    paidDTO.setStatus(Status.PAID);
+    when(orderRepository.findRowWithProductsById(1L))
+        .thenReturn(rows(created, 1L))
+        .thenReturn(rows(paid, 1L));
+    when(orderMapper.toDTO(created, List.of(1L))).thenReturn(sampleOrderDTO);
+    when(orderMapper.toDTO(paid, List.of(1L))).thenReturn(paidDTO);
+    when(orderRepository.updateOrderStatusToPaidById(1L)).thenReturn(1);
+
+    assertEquals(Status.CREATED, orderService.getOrderById(1L).getStatus());
+    orderService.updateStatusToPaidById(1L);
+
+    assertEquals(Status.PAID, orderService.getOrderById(1L).getStatus());
+  }
+
+  @Test
+  void whenOrdersAreShippedInBulk_thenCachedEntriesAreEvicted() {
+    OrderRow paid = new OrderRow(1L, OffsetDateTime.now(), Status.PAID, 1L);
+    OrderRow shipped = new OrderRow(1L, paid.createdAt(), Status.SHIPPED, 1L);
+    OrderDTO shippedDTO = new OrderDTO();
+    shippedDTO.setId(1L);
+    shippedDTO.setStatus(Status.SHIPPED);
+    sampleOrderDTO.setStatus(Status.PAID);
+    when(orderRepository.findRowWithProductsById(1L))
+        .thenReturn(rows(paid, 1L))
+        .thenReturn(rows(shipped, 1L));
+    when(orderMapper.toDTO(paid, List.of(1L))).thenReturn(sampleOrderDTO);
+    when(orderMapper.toDTO(shipped, List.of(1L))).thenReturn(shippedDTO);
+    when(orderRepository.findStatesByIdIn(List.of(1L)))
+        .thenReturn(List.of(state(1L, Status.PAID, 1)));
+    when(orderRepository.updateOrderStatusToShippedByIdIn(List.of(1L))).thenReturn(1);
+
+    assertEquals(Status.PAID, orderService.getOrderById(1L).getStatus());
+    orderService.updateStatusToShippedByIds(List.of(1L));
+
+    assertEquals(Status.SHIPPED, orderService.getOrderById(1L).getStatus());
   }
 
   @Test
   void whenCreateOrder_withValidData_thenReturnOrderDTO() {
     when(orderMapper.toEntity(sampleOrderCreateDTO)).thenReturn(sampleOrder);
-    when(customerRepository.findById(1L)).thenReturn(Optional.of(sampleCustomer));
-    when(productRepository.findAllById(Arrays.asList(1L, 2L))).thenReturn(sampleProducts);
+    when(customerRegistry.findReference(1L)).thenReturn(Optional.of(sampleCustomer));
+    when(productCatalog.getAll(Set.of(1L, 2L))).thenReturn(sampleProducts);
     when(orderRepository.save(any(Order.class))).thenReturn(sampleOrder);
     when(orderMapper.toDTO(sampleOrder)).thenReturn(sampleOrderDTO);
 
@@ -124,10 +234,14 @@ class OrderServiceTest {
     assertEquals(sampleOrderDTO.getStatus(), result.getStatus());
     assertEquals(sampleOrderDTO.getCustomerId(), result.getCustomerId());
     verify(orderMapper).toEntity(sampleOrderCreateDTO);
-    verify(customerRepository).findById(1L);
-    verify(productRepository).findAllById(Arrays.asList(1L, 2L));
+    verify(customerRegistry).findReference(1L);
+    verify(productCatalog).getAll(Set.of(1L, 2L));
     verify(orderRepository).save(any(Order.class));
     verify(orderMapper).toDTO(sampleOrder);
+    verify(orderOutbox).ordersPlaced(List.of(sampleOrder));
+    verify(customerSummaries).ordersPlaced(List.of(sampleOrderDTO.getId()));
+    assertEquals(1, statusCounters.count(Status.CREATED));
+    assertEquals(1, meterRegistry.get(OrderMetrics.PLACED).counter().count());
   }
 
   @Test
@@ -138,138 +252,343 @@ class OrderServiceTest {
 
     assertThrows(EmptyProductsException.class, () -> orderService.createOrder(emptyProductsDTO));
     verify(orderMapper, never()).toEntity(any());
-    verify(customerRepository, never()).findById(any());
-    verify(productRepository, never()).findAllById(anyList());
+    verify(customerRegistry, never()).findReference(any());
+    verifyNoInteractions(productCatalog);
     verify(orderRepository, never()).save(any());
   }
 
   @Test
   void whenCreateOrder_withNonExistentCustomer_thenThrowCustomerNotFoundException() {
     when(orderMapper.toEntity(sampleOrderCreateDTO)).thenReturn(sampleOrder);
-    when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+    when(customerRegistry.findReference(1L)).thenReturn(Optional.empty());
 
     assertThrows(
         CustomerNotFoundException.class, () -> orderService.createOrder(sampleOrderCreateDTO));
     verify(orderMapper).toEntity(sampleOrderCreateDTO);
-    verify(customerRepository).findById(1L);
-    verify(productRepository, never()).findAllById(anyList());
+    verify(customerRegistry).findReference(1L);
+    verifyNoInteractions(productCatalog);
+    verify(orderRepository, never()).save(any());
+  }
+
+  @Test
+  void whenCreateOrder_withBlankOrTooLongIdempotencyKey_thenThrowIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class, () -> orderService.createOrder(sampleOrderCreateDTO, " "));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> orderService.createOrder(sampleOrderCreateDTO, "k".repeat(256)));
+    verifyNoInteractions(idempotency, orderRepository);
+  }
+
+  @Test
+  void whenValidate_thenRejectWhatCreateOrderWouldRejectWithoutWriting() {
+    when(customerRegistry.findReference(1L)).thenReturn(Optional.of(sampleCustomer));
+    when(customerRegistry.findReference(2L)).thenReturn(Optional.empty());
+
+    orderService.validate(sampleOrderCreateDTO);
+    assertThrows(
+        EmptyProductsException.class, () -> orderService.validate(new OrderCreateDTO(1L, null)));
+    assertThrows(
+        CustomerNotFoundException.class,
+        () -> orderService.validate(new OrderCreateDTO(2L, List.of(1L))));
+    verifyNoInteractions(orderRepository, orderOutbox);
+  }
+
+  @Test
+  void whenCreateOrders_withMixedItems_thenCreateValidOnesAndReportRejections() {
+    OrderCreateDTO unknownCustomer = new OrderCreateDTO(999L, Arrays.asList(1L));
+    OrderCreateDTO emptyProducts = new OrderCreateDTO(1L, new ArrayList<>());
+    List<OrderCreateDTO> batch =
+        Arrays.asList(sampleOrderCreateDTO, unknownCustomer, emptyProducts);
+
+    when(customerRegistry.findReferences(Set.of(1L, 999L))).thenReturn(Map.of(1L, sampleCustomer));
+    when(productCatalog.getAll(Set.of(1L, 2L))).thenReturn(sampleProducts);
+    when(orderMapper.toEntity(sampleOrderCreateDTO)).thenReturn(sampleOrder);
+    when(orderRepository.saveAll(anyList())).thenReturn(List.of(sampleOrder));
+    when(orderMapper.toDTO(sampleOrder)).thenReturn(sampleOrderDTO);
+
+    List<OrderBatchResultDTO> results = orderService.createOrders(batch);
+
+    assertEquals(3, results.size());
+    assertEquals(201, results.get(0).getStatus());
+    assertEquals(sampleOrderDTO, results.get(0).getOrder());
+    assertEquals(404, results.get(1).getStatus());
+    assertEquals(1, results.get(1).getIndex());
+    assertEquals(409, results.get(2).getStatus());
+    assertNull(results.get(2).getOrder());
+    assertEquals(sampleCustomer, sampleOrder.getCustomer());
+    assertEquals(sampleProducts, sampleOrder.getProducts());
+    verify(customerRegistry).findReferences(Set.of(1L, 999L));
+    verify(productCatalog).getAll(Set.of(1L, 2L));
+    verify(orderRepository).saveAll(List.of(sampleOrder));
+    verify(customerRegistry, never()).findReference(any());
     verify(orderRepository, never()).save(any());
   }
 
+  @Test
+  void whenCreateOrders_withTooManyItems_thenThrowIllegalArgumentException() {
+    List<OrderCreateDTO> batch =
+        Collections.nCopies(OrderService.MAX_BATCH_SIZE + 1, sampleOrderCreateDTO);
+
+    assertThrows(IllegalArgumentException.class, () -> orderService.createOrders(batch));
+    verify(orderRepository, never()).saveAll(anyList());
+  }
+
   @Test
   void whenUpdateStatusToPaid_withValidOrder_thenUpdateStatus() {
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+    when(orderRepository.updateOrderStatusToPaidById(1L)).thenReturn(1);
 
     orderService.updateStatusToPaidById(1L);
 
-    verify(orderRepository).findById(1L);
     verify(orderRepository).updateOrderStatusToPaidById(1L);
+    verify(orderRepository, never()).findStateById(any());
+    verify(orderRepository, never()).findById(any());
+    verify(orderOutbox).ordersMoved(Status.PAID, List.of(1L));
+    verify(customerSummaries).ordersMoved(Status.PAID, 1L);
+    assertEquals(-1, statusCounters.count(Status.CREATED));
+    assertEquals(1, statusCounters.count(Status.PAID));
+    assertEquals(1, transitions(Status.PAID, "accepted", "none"));
   }
 
   @Test
   void whenUpdateStatusToPaid_withNonExistentOrder_thenThrowOrderNotFoundException() {
-    when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+    when(orderRepository.updateOrderStatusToPaidById(999L)).thenReturn(0);
+    when(orderRepository.findStateById(999L)).thenReturn(Optional.empty());
 
     assertThrows(OrderNotFoundException.class, () -> orderService.updateStatusToPaidById(999L));
-    verify(orderRepository).findById(999L);
-    verify(orderRepository, never()).updateOrderStatusToPaidById(any());
+    verify(orderRepository).updateOrderStatusToPaidById(999L);
+    verify(orderRepository).findStateById(999L);
   }
 
   @Test
   void whenUpdateStatusToPaid_withEmptyProducts_thenThrowEmptyProductsException() {
-    Order orderWithoutProducts = new Order();
-    orderWithoutProducts.setId(1L);
-    orderWithoutProducts.setStatus(Status.CREATED);
-    orderWithoutProducts.setProducts(new ArrayList<>());
-
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(orderWithoutProducts));
+    when(orderRepository.updateOrderStatusToPaidById(1L)).thenReturn(0);
+    when(orderRepository.findStateById(1L)).thenReturn(Optional.of(state(Status.CREATED, 0)));
 
     assertThrows(EmptyProductsException.class, () -> orderService.updateStatusToPaidById(1L));
-    verify(orderRepository).findById(1L);
-    verify(orderRepository, never()).updateOrderStatusToPaidById(any());
+    verify(orderRepository).findStateById(1L);
   }
 
   @Test
   void whenUpdateStatusToPaid_withWrongStatus_thenThrowOrderStatusIsNotCreatedException() {
-    Order paidOrder = new Order();
-    paidOrder.setId(1L);
-    paidOrder.setStatus(Status.PAID);
-    paidOrder.setProducts(sampleProducts);
-
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(paidOrder));
+    when(orderRepository.updateOrderStatusToPaidById(1L)).thenReturn(0);
+    when(orderRepository.findStateById(1L)).thenReturn(Optional.of(state(Status.PAID, 2)));
 
     assertThrows(
         OrderStatusIsNotCreatedException.class, () -> orderService.updateStatusToPaidById(1L));
-    verify(orderRepository).findById(1L);
-    verify(orderRepository, never()).updateOrderStatusToPaidById(any());
+    verify(orderRepository).findStateById(1L);
+    assertEquals(1, transitions(Status.PAID, "rejected", "OrderStatusIsNotCreated"));
+    assertEquals(0, transitions(Status.PAID, "accepted", "none"));
   }
 
   @Test
   void whenUpdateStatusToShipped_withValidOrder_thenUpdateStatus() {
-    Order paidOrder = new Order();
-    paidOrder.setId(1L);
-    paidOrder.setStatus(Status.PAID);
-    paidOrder.setProducts(sampleProducts);
-
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(paidOrder));
+    when(orderRepository.updateOrderStatusToShippedById(1L)).thenReturn(1);
 
     orderService.updateStatusToShippedById(1L);
 
-    verify(orderRepository).findById(1L);
     verify(orderRepository).updateOrderStatusToShippedById(1L);
+    verify(orderRepository, never()).findStateById(any());
   }
 
   @Test
   void whenUpdateStatusToShipped_withNonExistentOrder_thenThrowOrderNotFoundException() {
-    when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+    when(orderRepository.updateOrderStatusToShippedById(999L)).thenReturn(0);
+    when(orderRepository.findStateById(999L)).thenReturn(Optional.empty());
 
     assertThrows(OrderNotFoundException.class, () -> orderService.updateStatusToShippedById(999L));
-    verify(orderRepository).findById(999L);
-    verify(orderRepository, never()).updateOrderStatusToShippedById(any());
+    verify(orderRepository).updateOrderStatusToShippedById(999L);
   }
 
   @Test
   void whenUpdateStatusToShipped_withWrongStatus_thenThrowOrderStatusIsNotPaidException() {
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+    when(orderRepository.updateOrderStatusToShippedById(1L)).thenReturn(0);
+    when(orderRepository.findStateById(1L)).thenReturn(Optional.of(state(Status.CREATED, 2)));
 
     assertThrows(
         OrderStatusIsNotPaidException.class, () -> orderService.updateStatusToShippedById(1L));
-    verify(orderRepository).findById(1L);
-    verify(orderRepository, never()).updateOrderStatusToShippedById(any());
+    verify(orderRepository).findStateById(1L);
   }
 
   @Test
   void whenUpdateStatusToDelivered_withValidOrder_thenUpdateStatus() {
-    Order shippedOrder = new Order();
-    shippedOrder.setId(1L);
-    shippedOrder.setStatus(Status.SHIPPED);
-    shippedOrder.setProducts(sampleProducts);
-
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(shippedOrder));
+    when(orderRepository.updateOrderStatusToDeliveredById(1L)).thenReturn(1);
 
     orderService.updateStatusToDeliveredById(1L);
 
-    verify(orderRepository).findById(1L);
     verify(orderRepository).updateOrderStatusToDeliveredById(1L);
+    verify(orderRepository, never()).findStateById(any());
   }
 
   @Test
   void whenUpdateStatusToDelivered_withNonExistentOrder_thenThrowOrderNotFoundException() {
-    when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+    when(orderRepository.updateOrderStatusToDeliveredById(999L)).thenReturn(0);
+    when(orderRepository.findStateById(999L)).thenReturn(Optional.empty());
 
     assertThrows(
         OrderNotFoundException.class, () -> orderService.updateStatusToDeliveredById(999L));
-    verify(orderRepository).findById(999L);
-    verify(orderRepository, never()).updateOrderStatusToDeliveredById(any());
+    verify(orderRepository).updateOrderStatusToDeliveredById(999L);
   }
 
   @Test
   void whenUpdateStatusToDelivered_withWrongStatus_thenThrowOrderStatusIsNotShippedException() {
-    when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+    when(orderRepository.updateOrderStatusToDeliveredById(1L)).thenReturn(0);
+    when(orderRepository.findStateById(1L)).thenReturn(Optional.of(state(Status.CREATED, 2)));
 
     assertThrows(
         OrderStatusIsNotShippedException.class, () -> orderService.updateStatusToDeliveredById(1L));
-    verify(orderRepository).findById(1L);
-    verify(orderRepository, never()).updateOrderStatusToDeliveredById(any());
+    verify(orderRepository).findStateById(1L);
+  }
+
+  @Test
+  void whenUpdateStatusToPaidByIds_withMixedOrders_thenReportMovedAndRejected() {
+    when(orderRepository.findStatesByIdIn(List.of(1L, 2L, 3L, 999L)))
+        .thenReturn(
+            List.of(
+                state(1L, Status.CREATED, 2),
+                state(2L, Status.PAID, 2),
+                state(3L, Status.CREATED, 0)));
+    when(orderRepository.updateOrderStatusToPaidByIdIn(List.of(1L))).thenReturn(1);
+
+    BulkTransitionResultDTO result =
+        orderService.updateStatusToPaidByIds(Arrays.asList(1L, 2L, 3L, 999L, 1L));
+
+    assertEquals(List.of(1L), result.getUpdated());
+    assertEquals(3, result.getRejected().size());
+    assertRejected(result.getRejected().get(0), 2L, 409, new OrderStatusIsNotCreatedException());
+    assertRejected(result.getRejected().get(1), 3L, 409, new EmptyProductsException());
+    assertRejected(result.getRejected().get(2), 999L, 404, new OrderNotFoundException(999L));
+    verify(orderRepository, never()).findStateById(any());
+    assertEquals(1, transitions(Status.PAID, "accepted", "none"));
+    assertEquals(1, transitions(Status.PAID, "rejected", "OrderStatusIsNotCreated"));
+    assertEquals(1, transitions(Status.PAID, "rejected", "EmptyProducts"));
+    assertEquals(1, transitions(Status.PAID, "rejected", "OrderNotFound"));
+  }
+
+  @Test
+  void whenUpdateStatusToShippedByIds_withManyIds_thenQueryInChunks() {
+    List<Long> ids = LongStream.rangeClosed(1, 2_500).boxed().toList();
+    when(orderRepository.findStatesByIdIn(anyCollection()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                    .map(id -> state(id, Status.PAID, 1))
+                    .toList());
+    when(orderRepository.updateOrderStatusToShippedByIdIn(anyCollection()))
+        .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).size());
+
+    BulkTransitionResultDTO result = orderService.updateStatusToShippedByIds(ids);
+
+    assertEquals(ids, result.getUpdated());
+    assertTrue(result.getRejected().isEmpty());
+    verify(orderRepository, times(3)).findStatesByIdIn(anyCollection());
+    verify(orderRepository, times(3)).updateOrderStatusToShippedByIdIn(anyCollection());
+  }
+
+  @Test
+  void whenUpdateStatusToDeliveredByIds_withConcurrentChange_thenRecheckUnmovedOrders() {
+    when(orderRepository.findStatesByIdIn(List.of(1L, 2L)))
+        .thenReturn(List.of(state(1L, Status.SHIPPED, 1), state(2L, Status.SHIPPED, 1)))
+        .thenReturn(List.of(state(1L, Status.DELIVERED, 1), state(2L, Status.PAID, 1)));
+    when(orderRepository.updateOrderStatusToDeliveredByIdIn(List.of(1L, 2L))).thenReturn(1);
+
+    BulkTransitionResultDTO result = orderService.updateStatusToDeliveredByIds(List.of(1L, 2L));
+
+    assertTrue(result.getUpdated().isEmpty());
+    assertRejected(result.getRejected().get(0), 1L, 409, new OrderStatusIsNotShippedException());
+    assertRejected(result.getRejected().get(1), 2L, 409, new OrderStatusIsNotShippedException());
+    verify(orderRepository, times(2)).findStatesByIdIn(List.of(1L, 2L));
+    // The partial update was rolled back and order 1 was moved by the other request
+    verify(orderOutbox, never()).ordersMoved(any(), anyCollection());
+    verify(customerSummaries, never()).ordersMoved(any(), anyCollection());
+    assertEquals(0, statusCounters.count(Status.DELIVERED));
+  }
+
+  @Test
+  void whenUpdateStatusToDeliveredByIds_withConcurrentChange_thenRetryWithOrdersStillAllowed() {
+    when(orderRepository.findStatesByIdIn(List.of(1L, 2L, 3L)))
+        .thenReturn(
+            List.of(
+                state(1L, Status.SHIPPED, 1),
+                state(2L, Status.SHIPPED, 1),
+                state(3L, Status.SHIPPED, 1)))
+        .thenReturn(
+            List.of(
+                state(1L, Status.SHIPPED, 1),
+                state(2L, Status.DELIVERED, 1),
+                state(3L, Status.SHIPPED, 1)));
+    when(orderRepository.updateOrderStatusToDeliveredByIdIn(List.of(1L, 2L, 3L))).thenReturn(2);
+    when(orderRepository.updateOrderStatusToDeliveredByIdIn(List.of(1L, 3L))).thenReturn(2);
+
+    BulkTransitionResultDTO result = orderService.updateStatusToDeliveredByIds(List.of(1L, 2L, 3L));
+
+    assertEquals(List.of(1L, 3L), result.getUpdated());
+    assertRejected(result.getRejected().get(0), 2L, 409, new OrderStatusIsNotShippedException());
+    verify(orderOutbox).ordersMoved(Status.DELIVERED, List.of(1L, 3L));
+    verify(customerSummaries).ordersMoved(Status.DELIVERED, List.of(1L, 3L));
+    assertEquals(2, statusCounters.count(Status.DELIVERED));
+    assertEquals(2, transitions(Status.DELIVERED, "accepted", "none"));
+  }
+
+  @Test
+  void whenUpdateStatusByIds_withTooManyIds_thenThrowIllegalArgumentException() {
+    List<Long> ids = Collections.nCopies(OrderService.MAX_BULK_SIZE + 1, 1L);
+
+    assertThrows(IllegalArgumentException.class, () -> orderService.updateStatusToPaidByIds(ids));
+    verify(orderRepository, never()).findStatesByIdIn(anyCollection());
+  }
+
+  private static void assertRejected(
+      RejectedOrderDTO rejected, Long id, int status, RuntimeException expected) {
+    assertEquals(id, rejected.getId());
+    assertEquals(status, rejected.getStatus());
+    assertEquals(expected.getMessage(), rejected.getMessage());
+  }
+
+  private double transitions(Status target, String outcome, String reason) {
+    return meterRegistry
+        .get(OrderMetrics.TRANSITIONS)
+        .tag("target", target.name())
+        .tag("outcome", outcome)
+        .tag("reason", reason)
+        .counter()
+        .count();
+  }
+
+  private static List<OrderProductRow> rows(OrderRow order, Long... productIds) {
+    return Arrays.stream(productIds)
+        .map(
+            productId ->
+                new OrderProductRow(
+                    order.id(),
+                    order.createdAt(),
+                    order.status(),
+                    order.customerId(),
+                    order.version(),
+                    productId))
+        .toList();
+  }
+
+  private static OrderStateView state(Status status, int productCount) {
+    return state(1L, status, productCount);
+  }
+
+  private static OrderStateView state(Long id, Status status, int productCount) {
+    return new OrderStateView() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public Status getStatus() {
+        return status;
+      }
+
+      @Override
+      public int getProductCount() {
+        return productCount;
+      }
+    };
   }
 }
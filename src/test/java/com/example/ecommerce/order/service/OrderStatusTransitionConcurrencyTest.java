@@ -0,0 +1,148 @@
+package com.example.ecommerce.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.exception.EmptyProductsException;
+import com.example.ecommerce.order.exception.OrderStatusIsNotCreatedException;
+import com.example.ecommerce.order.exception.OrderStatusIsNotPaidException;
+import com.example.ecommerce.order.exception.OrderStatusIsNotShippedException;
+import com.example.ecommerce.order.model.Order;
+import com.example.ecommerce.order.model.Status;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class OrderStatusTransitionConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int ROUNDS = 20;
+
+  @Autowired private OrderService orderService;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private ProductRepository productRepository;
+
+  private Customer customer;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    customer = new Customer();
+    customer.setName("Concurrent");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+
+    product = new Product();
+    product.setName("Widget");
+    product.setPrice(new BigDecimal("5.00"));
+    productRepository.save(product);
+  }
+
+  @Test
+  void whenManyThreadsPayTheSameOrder_thenExactlyOneWins() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      Long orderId = createOrder(Status.CREATED);
+
+      List<Throwable> failures = race(orderId, orderService::updateStatusToPaidById);
+
+      assertEquals(THREADS - 1, failures.size());
+      failures.forEach(
+          failure -> assertInstanceOf(OrderStatusIsNotCreatedException.class, failure));
+      assertEquals(Status.PAID, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+  }
+
+  @Test
+  void whenManyThreadsShipTheSameOrder_thenExactlyOneWins() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      Long orderId = createOrder(Status.PAID);
+
+      List<Throwable> failures = race(orderId, orderService::updateStatusToShippedById);
+
+      assertEquals(THREADS - 1, failures.size());
+      failures.forEach(failure -> assertInstanceOf(OrderStatusIsNotPaidException.class, failure));
+      assertEquals(Status.SHIPPED, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+  }
+
+  @Test
+  void whenManyThreadsDeliverTheSameOrder_thenExactlyOneWins() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      Long orderId = createOrder(Status.SHIPPED);
+
+      List<Throwable> failures = race(orderId, orderService::updateStatusToDeliveredById);
+
+      assertEquals(THREADS - 1, failures.size());
+      failures.forEach(
+          failure -> assertInstanceOf(OrderStatusIsNotShippedException.class, failure));
+      assertEquals(Status.DELIVERED, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+  }
+
+  @Test
+  void whenPayingAnOrderWithoutProducts_thenStatusIsUnchanged() {
+    Order order = new Order();
+    order.setCustomer(customer);
+    Long orderId = orderRepository.save(order).getId();
+
+    assertThrows(EmptyProductsException.class, () -> orderService.updateStatusToPaidById(orderId));
+    assertEquals(Status.CREATED, orderRepository.findById(orderId).orElseThrow().getStatus());
+  }
+
+  private Long createOrder(Status status) {
+    Order order = new Order();
+    order.setCustomer(customer);
+    order.setProducts(List.of(product));
+    order.setStatus(status);
+    return orderRepository.save(order).getId();
+  }
+
+  // Releases all threads at once against the same order and returns what the losers threw.
+  private List<Throwable> race(Long orderId, LongConsumer transition) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  transition.accept(orderId);
+                  return null;
+                }));
+      }
+      start.countDown();
+
+      List<Throwable> failures = new ArrayList<>();
+      for (Future<?> future : futures) {
+        try {
+          future.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+          failures.add(e.getCause());
+        }
+      }
+      return failures;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
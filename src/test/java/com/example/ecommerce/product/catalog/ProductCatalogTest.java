@@ -0,0 +1,102 @@
+package com.example.ecommerce.product.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.customer.model.Customer;
+import com.example.ecommerce.customer.repository.CustomerRepository;
+import com.example.ecommerce.order.dto.OrderCreateDTO;
+import com.example.ecommerce.order.dto.OrderDTO;
+import com.example.ecommerce.order.projection.OrderProductRow;
+import com.example.ecommerce.order.repository.OrderRepository;
+import com.example.ecommerce.order.service.OrderService;
+import com.example.ecommerce.product.model.Product;
+import com.example.ecommerce.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(
+    properties = {
+      "spring.jpa.show-sql=false",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "app.outbox.poll-interval=1h"
+    })
+class ProductCatalogTest {
+
+  @Autowired private ProductCatalog productCatalog;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private CustomerRepository customerRepository;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private OrderService orderService;
+  @Autowired private TransactionTemplate transactionTemplate;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void whenProductIsSaved_thenCatalogSeesItOnceCommitted() {
+    Product product = productRepository.save(product("Fresh", "3.00"));
+
+    Product cached = productCatalog.get(product.getId());
+    assertNotNull(cached);
+    assertEquals("Fresh", cached.getName());
+
+    product.setName("Renamed");
+    productRepository.save(product);
+    assertEquals("Renamed", productCatalog.get(product.getId()).getName());
+
+    productRepository.delete(product);
+    assertFalse(productCatalog.contains(product.getId()));
+  }
+
+  @Test
+  void whenTransactionRollsBack_thenCatalogIsUnchanged() {
+    int size = productCatalog.size();
+    Long[] productId = new Long[1];
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          productId[0] = productRepository.save(product("Ghost", "1.00")).getId();
+          status.setRollbackOnly();
+        });
+
+    assertEquals(size, productCatalog.size());
+    assertFalse(productCatalog.contains(productId[0]));
+  }
+
+  @Test
+  void whenCreatingOrder_thenProductsAreNotQueried() {
+    Customer customer = new Customer();
+    customer.setName("Catalog");
+    customer.setEmail(UUID.randomUUID() + "@example.com");
+    customerRepository.save(customer);
+    List<Product> products =
+        productRepository.saveAll(List.of(product("A", "1.00"), product("B", "2.00")));
+    List<Long> productIds = products.stream().map(Product::getId).toList();
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    OrderDTO order = orderService.createOrder(new OrderCreateDTO(customer.getId(), productIds));
+
+    assertEquals(0, statistics.getEntityStatistics(Product.class.getName()).getLoadCount());
+    assertEquals(productIds, order.getProductsId());
+    assertEquals(
+        productIds,
+        orderRepository.findRowWithProductsById(order.getId()).stream()
+            .map(OrderProductRow::productId)
+            .toList());
+  }
+
+  private static Product product(String name, String price) {
+    Product product = new Product();
+    product.setName(name);
+    product.setPrice(new BigDecimal(price));
+    return product;
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.ecommerce.product.catalog;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ecommerce.product.model.Product;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class ProductSnapshotTest {
+
+  @Test
+  void whenEmpty_thenEveryLookupMisses() {
+    ProductSnapshot snapshot = new ProductSnapshot(List.of());
+
+    assertEquals(0, snapshot.size());
+    assertNull(snapshot.get(0));
+    assertNull(snapshot.get(1));
+  }
+
+  @Test
+  void whenBuiltFromManyProducts_thenEveryIdResolvesToItsProduct() {
+    // Strided ids land on colliding slots and exercise the probing.
+    List<Product> products =
+        LongStream.range(0, 5_000).map(i -> i * 1_024 + 7).mapToObj(this::product).toList();
+
+    ProductSnapshot snapshot = new ProductSnapshot(products);
+
+    assertEquals(products.size(), snapshot.size());
+    for (Product product : products) {
+      assertSame(product, snapshot.get(product.getId()));
+    }
+    assertNull(snapshot.get(8));
+    assertNull(snapshot.get(-7));
+    assertNull(snapshot.get(Long.MAX_VALUE));
+  }
+
+  @Test
+  void whenIdIsRepeated_thenLastProductWins() {
+    Product first = product(42);
+    Product second = product(42);
+    List<Product> products = new ArrayList<>(List.of(first, product(0), second));
+
+    ProductSnapshot snapshot = new ProductSnapshot(products);
+
+    assertEquals(2, snapshot.size());
+    assertSame(second, snapshot.get(42));
+    assertNotNull(snapshot.get(0));
+  }
+
+  private Product product(long id) {
+    return new Product(id, "Product " + id, BigDecimal.ONE, new ArrayList<>());
+  }
+}